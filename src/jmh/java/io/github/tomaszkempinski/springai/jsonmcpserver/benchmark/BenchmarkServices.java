@@ -0,0 +1,179 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.networknt.schema.Schema;
+import com.networknt.schema.SchemaLocation;
+import com.networknt.schema.SchemaRegistry;
+import com.networknt.schema.dialect.Dialects;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.JsonQueryService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.JsonPathCache;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.JsonQueryServiceImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.OffsetIndexStore;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.QueryCursorStore;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.QueryResultCache;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPathEvaluator;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.SchemaGenerationService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.SchemaValidationService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal.ChunkedSchemaReducer;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal.CompiledSchemaCache;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal.RecordSampler;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal.SchemaGenerationServiceImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal.SchemaSources;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal.SchemaValidationServiceImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.Config;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties.Representation;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.MetricsProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.QueryProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.SchemaProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.json.JsonMapper;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.mcp.McpErrorHandler;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.mcp.McpResponseFormatter;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.mcp.McpToolAspect;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.mcp.McpToolExecutor;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.mcp.McpToolMetrics;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.JsonDocumentService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.internal.DocumentCacheImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.internal.JsonDocumentServiceImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileIngestionService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileValidationService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonLinesReader;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal.FileIngestionServiceImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal.FileValidationServiceImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal.JsonLinesReaderImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal.WatchingFileStateRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.reflect.Proxy;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import reactor.core.publisher.Mono;
+
+/** Wires the production services by hand, the same way the Spring context does. */
+final class BenchmarkServices {
+
+  final ObjectMapper objectMapper = new ObjectMapper();
+  final JsonMapper jsonMapper = new JsonMapper(objectMapper);
+  final FileProperties fileProperties = new FileProperties();
+  final FileValidationService fileValidationService =
+      new FileValidationServiceImpl(
+          fileProperties, new WatchingFileStateRegistry(fileProperties, _ -> {}));
+  final FileIngestionService fileIngestionService = new FileIngestionServiceImpl(fileProperties);
+  final JsonLinesReader jsonLinesReader = new JsonLinesReaderImpl(fileProperties);
+
+  JsonQueryService queryService(boolean documentCacheEnabled) {
+    return queryService(documentCacheEnabled, false);
+  }
+
+  JsonQueryService queryService(boolean documentCacheEnabled, boolean resultCacheEnabled) {
+    return queryService(documentCacheEnabled, resultCacheEnabled, Representation.TREE);
+  }
+
+  JsonQueryService queryService(
+      boolean documentCacheEnabled, boolean resultCacheEnabled, Representation representation) {
+    FileProperties cacheProperties = new FileProperties();
+    cacheProperties.getDocumentCache().setEnabled(documentCacheEnabled);
+    cacheProperties.getDocumentCache().setRepresentation(representation);
+    QueryProperties queryProperties = new QueryProperties();
+    queryProperties.getResultCache().setEnabled(resultCacheEnabled);
+    return new JsonQueryServiceImpl(
+        jsonMapper,
+        objectMapper,
+        fileValidationService,
+        fileIngestionService,
+        new JsonDocumentServiceImpl(
+            new DocumentCacheImpl(cacheProperties),
+            fileIngestionService,
+            jsonLinesReader,
+            objectMapper,
+            cacheProperties),
+        new JsonPathCache(queryProperties),
+        () -> new Config().jsonPathConfiguration(objectMapper, cacheProperties),
+        new StreamingJsonPathEvaluator(objectMapper),
+        new OffsetIndexStore(objectMapper, queryProperties),
+        jsonLinesReader,
+        new QueryCursorStore(queryProperties),
+        new QueryResultCache(queryProperties),
+        queryProperties);
+  }
+
+  SchemaGenerationService generationService(SchemaProperties schemaProperties) {
+    return new SchemaGenerationServiceImpl(
+        new Config()::jsonSchemaInferrer,
+        objectMapper,
+        jsonMapper,
+        fileValidationService,
+        fileIngestionService,
+        new RecordSampler(objectMapper),
+        new ChunkedSchemaReducer(objectMapper, schemaProperties, jsonLinesReader),
+        schemaProperties,
+        jsonLinesReader,
+        uncachedDocuments());
+  }
+
+  SchemaValidationService validationService() {
+    SchemaSources schemaSources = new SchemaSources(new SchemaProperties());
+    SchemaRegistry schemaRegistry =
+        SchemaRegistry.withDialect(
+            Dialects.getDraft202012(),
+            builder -> builder.schemas(schemaSources).schemaCacheEnabled(false));
+    Schema metaSchema =
+        schemaRegistry.getSchema(SchemaLocation.of(Dialects.getDraft202012().getId()));
+    return new SchemaValidationServiceImpl(
+        () -> metaSchema,
+        fileValidationService,
+        fileIngestionService,
+        new CompiledSchemaCache(() -> schemaRegistry, schemaSources, new SchemaProperties()),
+        jsonLinesReader,
+        objectMapper,
+        new SchemaProperties());
+  }
+
+  /**
+   * Proxies a tool bean with {@link McpToolAspect}, as the Spring context does, so sync tools run
+   * through the {@link McpToolExecutor} and ASYNC tools through the reactive branch of the aspect.
+   * Metrics are off.
+   */
+  <T> T tool(T target, McpToolExecutor executor) {
+    MetricsProperties metricsProperties = new MetricsProperties();
+    metricsProperties.setEnabled(false);
+    McpToolAspect aspect =
+        new McpToolAspect(
+            new McpErrorHandler(new McpResponseFormatter()),
+            new McpToolMetrics(
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class),
+                metricsProperties,
+                fileValidationService),
+            executor);
+    AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+    proxyFactory.setProxyTargetClass(true);
+    proxyFactory.addAspect(aspect);
+    return proxyFactory.getProxy();
+  }
+
+  /** A request context of the given type whose notifications go nowhere. */
+  static <T> T requestContext(Class<T> contextType) {
+    return contextType.cast(
+        Proxy.newProxyInstance(
+            contextType.getClassLoader(),
+            new Class<?>[] {contextType},
+            (_, method, _) -> {
+              Class<?> returnType = method.getReturnType();
+              if (returnType == Mono.class) {
+                return Mono.empty();
+              }
+              return returnType == boolean.class ? false : null;
+            }));
+  }
+
+  /** Schema benchmarks measure a cold call, so every call parses the file again. */
+  private JsonDocumentService uncachedDocuments() {
+    FileProperties uncached = new FileProperties();
+    uncached.getDocumentCache().setEnabled(false);
+    return new JsonDocumentServiceImpl(
+        new DocumentCacheImpl(uncached),
+        fileIngestionService,
+        jsonLinesReader,
+        objectMapper,
+        uncached);
+  }
+}
@@ -0,0 +1,116 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.benchmark;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.JsonQueryAsyncMcpTools;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.JsonQueryMcpTools;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.JsonQueryService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.ExecutionProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.mcp.McpToolExecutor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springaicommunity.mcp.context.McpAsyncRequestContext;
+import org.springaicommunity.mcp.context.McpSyncRequestContext;
+import reactor.core.publisher.Flux;
+
+/**
+ * Load test: completes {@code sessions} concurrent query_json calls through the tool beans as the
+ * server runs them, proxied by the tool aspect. Sync calls arrive on a servlet-sized platform pool,
+ * whose calls the tool executor moves to virtual threads, or directly on virtual threads; ASYNC
+ * calls are subscribed to all at once and run on bounded elastic. Identical calls are not
+ * coalesced, so every session evaluates its query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentSessionsBenchmark {
+
+  private static final int SERVLET_THREADS = 200;
+
+  @Param({"50", "500", "5000"})
+  public int sessions;
+
+  private McpToolExecutor toolExecutor;
+  private JsonQueryMcpTools syncTools;
+  private JsonQueryAsyncMcpTools asyncTools;
+  private McpSyncRequestContext syncContext;
+  private McpAsyncRequestContext asyncContext;
+  private ExecutorService platformPool;
+  private ExecutorService virtualThreads;
+
+  @Setup
+  public void setUp() {
+    BenchmarkServices services = new BenchmarkServices();
+    JsonQueryService queryService = services.queryService(true);
+    ExecutionProperties executionProperties = new ExecutionProperties();
+    executionProperties.setCoalesceRequests(false);
+    toolExecutor = new McpToolExecutor(executionProperties, services.fileValidationService);
+    syncTools = services.tool(new JsonQueryMcpTools(queryService), toolExecutor);
+    asyncTools = services.tool(new JsonQueryAsyncMcpTools(queryService), toolExecutor);
+    syncContext = BenchmarkServices.requestContext(McpSyncRequestContext.class);
+    asyncContext = BenchmarkServices.requestContext(McpAsyncRequestContext.class);
+    platformPool = Executors.newFixedThreadPool(SERVLET_THREADS);
+    virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+  }
+
+  @TearDown
+  public void tearDown() {
+    platformPool.shutdownNow();
+    virtualThreads.shutdownNow();
+    toolExecutor.shutdown();
+  }
+
+  @Benchmark
+  public int syncPlatformPool(JsonFixture fixture) throws Exception {
+    return runAll(platformPool, fixture);
+  }
+
+  @Benchmark
+  public int syncVirtualThreads(JsonFixture fixture) throws Exception {
+    return runAll(virtualThreads, fixture);
+  }
+
+  @Benchmark
+  public int asyncBoundedElastic(JsonFixture fixture) {
+    String path = fixture.path.toString();
+    return Flux.range(0, sessions)
+        .flatMap(
+            _ ->
+                asyncTools.queryJson(
+                    asyncContext, path, fixture.shape.query(), null, null, null, null),
+            sessions)
+        .reduce(0, (total, response) -> total + response.length())
+        .block();
+  }
+
+  private int runAll(ExecutorService executor, JsonFixture fixture)
+      throws InterruptedException, ExecutionException {
+    String path = fixture.path.toString();
+    List<Future<Integer>> calls = new ArrayList<>(sessions);
+    for (int i = 0; i < sessions; i++) {
+      calls.add(
+          executor.submit(
+              () ->
+                  syncTools
+                      .queryJson(syncContext, path, fixture.shape.query(), null, null, null, null)
+                      .length()));
+    }
+    int total = 0;
+    for (Future<Integer> call : calls) {
+      total += call.get();
+    }
+    return total;
+  }
+}
@@ -0,0 +1,103 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+public enum FixtureShape {
+  FLAT_ARRAY("$[*].name") {
+    @Override
+    void writeItem(JsonGenerator generator, int index, SplittableRandom random) throws IOException {
+      generator.writeStartObject();
+      generator.writeNumberField("id", index);
+      generator.writeStringField("name", "item-" + index);
+      generator.writeBooleanField("active", index % 2 == 0);
+      generator.writeNumberField("score", random.nextDouble() * 100);
+      generator.writeStringField("category", CATEGORIES[index % CATEGORIES.length]);
+      generator.writeArrayFieldStart("tags");
+      generator.writeString("t" + index % 7);
+      generator.writeString("t" + index % 11);
+      generator.writeEndArray();
+      generator.writeEndObject();
+    }
+  },
+  DEEPLY_NESTED("$[*].child.child.child.child.level") {
+    @Override
+    void writeItem(JsonGenerator generator, int index, SplittableRandom random) throws IOException {
+      for (int level = 0; level < NESTING_DEPTH; level++) {
+        generator.writeStartObject();
+        generator.writeNumberField("level", level);
+        generator.writeStringField("id", index + "." + level);
+        generator.writeFieldName("child");
+      }
+      generator.writeStartObject();
+      generator.writeStringField("leaf", "item-" + index);
+      generator.writeEndObject();
+      for (int level = 0; level < NESTING_DEPTH; level++) {
+        generator.writeEndObject();
+      }
+    }
+  },
+  WIDE_OBJECT("$.field_7.label") {
+    @Override
+    void writeStart(JsonGenerator generator) throws IOException {
+      generator.writeStartObject();
+    }
+
+    @Override
+    void writeItem(JsonGenerator generator, int index, SplittableRandom random) throws IOException {
+      generator.writeObjectFieldStart("field_" + index);
+      generator.writeNumberField("value", index);
+      generator.writeStringField("label", "label-" + index);
+      generator.writeBooleanField("enabled", random.nextBoolean());
+      generator.writeEndObject();
+    }
+
+    @Override
+    void writeEnd(JsonGenerator generator) throws IOException {
+      generator.writeEndObject();
+    }
+  },
+  NUMBER_HEAVY("$[*].id") {
+    @Override
+    void writeItem(JsonGenerator generator, int index, SplittableRandom random) throws IOException {
+      generator.writeStartObject();
+      generator.writeNumberField("id", random.nextLong());
+      generator.writeArrayFieldStart("values");
+      for (int i = 0; i < 16; i++) {
+        generator.writeNumber(random.nextDouble() * 1_000_000);
+      }
+      generator.writeEndArray();
+      generator.writeArrayFieldStart("counts");
+      for (int i = 0; i < 8; i++) {
+        generator.writeNumber(random.nextInt(100_000));
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+    }
+  };
+
+  private static final String[] CATEGORIES = {"books", "music", "games", "tools", "food"};
+  private static final int NESTING_DEPTH = 32;
+
+  private final String query;
+
+  FixtureShape(String query) {
+    this.query = query;
+  }
+
+  public String query() {
+    return query;
+  }
+
+  void writeStart(JsonGenerator generator) throws IOException {
+    generator.writeStartArray();
+  }
+
+  abstract void writeItem(JsonGenerator generator, int index, SplittableRandom random)
+      throws IOException;
+
+  void writeEnd(JsonGenerator generator) throws IOException {
+    generator.writeEndArray();
+  }
+}
@@ -0,0 +1,84 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.SplittableRandom;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.util.unit.DataSize;
+
+@State(Scope.Benchmark)
+public class JsonFixture {
+
+  private static final String FIXTURES_DIR_PROPERTY = "jmh.fixtures.dir";
+
+  @Param({"1KB", "1MB", "64MB", "1GB"})
+  public String size;
+
+  @Param({"FLAT_ARRAY", "DEEPLY_NESTED", "WIDE_OBJECT", "NUMBER_HEAVY"})
+  public FixtureShape shape;
+
+  public Path path;
+
+  @Setup(Level.Trial)
+  public void generate() throws IOException {
+    long targetBytes = DataSize.parse(size).toBytes();
+    Path directory =
+        Paths.get(
+            System.getProperty(
+                FIXTURES_DIR_PROPERTY,
+                Paths.get(System.getProperty("java.io.tmpdir"), "json-mcp-server-jmh").toString()));
+    path = directory.resolve(shape.name().toLowerCase() + "-" + size.toLowerCase() + ".json");
+    if (Files.exists(path) && Files.size(path) >= targetBytes) {
+      return;
+    }
+    Files.createDirectories(directory);
+    Path temp = Files.createTempFile(directory, "fixture", ".tmp");
+    write(temp, targetBytes);
+    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private void write(Path target, long targetBytes) throws IOException {
+    SplittableRandom random = new SplittableRandom(42);
+    try (CountingOutputStream out = new CountingOutputStream(Files.newOutputStream(target));
+        JsonGenerator generator = new JsonFactory().createGenerator(out)) {
+      shape.writeStart(generator);
+      for (int index = 0;
+          out.count + Math.max(generator.getOutputBuffered(), 0) < targetBytes;
+          index++) {
+        shape.writeItem(generator, index, random);
+      }
+      shape.writeEnd(generator);
+    }
+  }
+
+  private static final class CountingOutputStream extends FilterOutputStream {
+    private long count;
+
+    CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParseBenchmark {
+
+  private final BenchmarkServices services = new BenchmarkServices();
+  private final JsonProvider jsonProvider = Configuration.defaultConfiguration().jsonProvider();
+
+  @Benchmark
+  public long tokenScan(JsonFixture fixture) throws IOException {
+    long tokens = 0;
+    try (JsonFileSource source = open(fixture);
+        JsonParser parser = source.createParser(services.objectMapper.getFactory())) {
+      while (parser.nextToken() != null) {
+        tokens++;
+      }
+    }
+    return tokens;
+  }
+
+  @Benchmark
+  public Object jacksonTree(JsonFixture fixture) throws IOException {
+    try (JsonFileSource source = open(fixture);
+        JsonParser parser = source.createParser(services.objectMapper.getFactory())) {
+      return services.objectMapper.readTree(parser);
+    }
+  }
+
+  @Benchmark
+  public Object jsonPathDocument(JsonFixture fixture) throws IOException {
+    try (JsonFileSource source = open(fixture);
+        InputStream inputStream = source.openStream()) {
+      return jsonProvider.parse(inputStream, "UTF-8");
+    }
+  }
+
+  private JsonFileSource open(JsonFixture fixture) throws IOException {
+    return services.fileIngestionService.open(FileMetadata.of(fixture.path));
+  }
+}
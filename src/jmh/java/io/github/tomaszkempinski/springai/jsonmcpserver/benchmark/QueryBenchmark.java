@@ -0,0 +1,59 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.benchmark;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.JsonQueryService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties.Representation;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class QueryBenchmark {
+
+  private JsonQueryService uncachedQueryService;
+  private JsonQueryService cachedQueryService;
+  private JsonQueryService cachedResultQueryService;
+  private JsonQueryService compactQueryService;
+
+  @Setup
+  public void setUp(JsonFixture fixture) {
+    BenchmarkServices services = new BenchmarkServices();
+    uncachedQueryService = services.queryService(false);
+    cachedQueryService = services.queryService(true);
+    cachedResultQueryService = services.queryService(true, true);
+    compactQueryService = services.queryService(true, false, Representation.COMPACT);
+    compactQueryService.query(fixture.path.toString(), fixture.shape.query());
+    cachedQueryService.query(fixture.path.toString(), fixture.shape.query());
+    cachedResultQueryService.query(fixture.path.toString(), fixture.shape.query());
+  }
+
+  /** Parse (or stream, above the streaming threshold) and evaluate on every call. */
+  @Benchmark
+  public String parseAndEvaluate(JsonFixture fixture) {
+    return uncachedQueryService.query(fixture.path.toString(), fixture.shape.query());
+  }
+
+  /** Evaluate against a document kept in the document cache. */
+  @Benchmark
+  public String evaluateCachedDocument(JsonFixture fixture) {
+    return cachedQueryService.query(fixture.path.toString(), fixture.shape.query());
+  }
+
+  /** Evaluate against the compact form of the document kept in the document cache. */
+  @Benchmark
+  public String evaluateCompactDocument(JsonFixture fixture) {
+    return compactQueryService.query(fixture.path.toString(), fixture.shape.query());
+  }
+
+  /** Serve the serialized response kept in the result cache. */
+  @Benchmark
+  public String serveCachedResult(JsonFixture fixture) {
+    return cachedResultQueryService.query(fixture.path.toString(), fixture.shape.query());
+  }
+}
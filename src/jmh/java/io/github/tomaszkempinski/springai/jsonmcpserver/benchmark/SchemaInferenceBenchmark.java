@@ -0,0 +1,41 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.benchmark;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.SchemaGenerationService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.SchemaProperties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SchemaInferenceBenchmark {
+
+  private SchemaGenerationService defaultGenerationService;
+  private SchemaGenerationService sequentialGenerationService;
+
+  @Setup
+  public void setUp() {
+    BenchmarkServices services = new BenchmarkServices();
+    defaultGenerationService = services.generationService(new SchemaProperties());
+    SchemaProperties sequential = new SchemaProperties();
+    sequential.getParallel().setEnabled(false);
+    sequentialGenerationService = services.generationService(sequential);
+  }
+
+  /** Default settings: sampling and parallel chunked inference above their thresholds. */
+  @Benchmark
+  public String inferDefault(JsonFixture fixture) {
+    return defaultGenerationService.generateSchema(fixture.path.toString(), null);
+  }
+
+  @Benchmark
+  public String inferSequential(JsonFixture fixture) {
+    return sequentialGenerationService.generateSchema(fixture.path.toString(), null);
+  }
+}
@@ -0,0 +1,36 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.benchmark;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.SchemaValidationService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.SchemaProperties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SchemaValidationBenchmark {
+
+  private SchemaValidationService validationService;
+  private String schema;
+
+  @Setup
+  public void setUp(JsonFixture fixture) {
+    BenchmarkServices services = new BenchmarkServices();
+    schema =
+        services
+            .generationService(new SchemaProperties())
+            .generateSchema(fixture.path.toString(), null);
+    validationService = services.validationService();
+  }
+
+  @Benchmark
+  public void validateDocument(JsonFixture fixture) {
+    validationService.validateDocument(fixture.path.toString(), schema, null, null, null);
+  }
+}
@@ -0,0 +1,37 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SerializationBenchmark {
+
+  private final BenchmarkServices services = new BenchmarkServices();
+  private JsonNode document;
+
+  @Setup
+  public void setUp(JsonFixture fixture) throws IOException {
+    try (JsonFileSource source = services.fileIngestionService.open(FileMetadata.of(fixture.path));
+        JsonParser parser = source.createParser(services.objectMapper.getFactory())) {
+      document = services.objectMapper.readTree(parser);
+    }
+  }
+
+  @Benchmark
+  public String toJsonString() {
+    return services.jsonMapper.toJsonString(document);
+  }
+}
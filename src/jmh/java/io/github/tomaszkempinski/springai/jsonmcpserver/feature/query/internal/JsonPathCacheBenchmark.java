@@ -0,0 +1,65 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.Config;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.QueryProperties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonPathCacheBenchmark {
+
+  private static final String SMALL_DOCUMENT =
+      """
+      {
+        "orders": [
+          {"id": 1, "total": 42.5, "status": "shipped", "customer": {"name": "Ann"}},
+          {"id": 2, "total": 180.0, "status": "pending", "customer": {"name": "Bob"}},
+          {"id": 3, "total": 99.9, "status": "shipped", "customer": {"name": "Eve"}}
+        ]
+      }
+      """;
+
+  @Param({
+    "$.orders[*].id",
+    "$.orders[?(@.total > 100)].customer.name",
+    "$.orders[?(@.status == 'shipped' && @.total < 50)]"
+  })
+  private String query;
+
+  private Object document;
+  private Configuration configuration;
+  private JsonPathCache jsonPathCache;
+
+  @Setup
+  public void setUp() throws Exception {
+    ObjectMapper objectMapper = new ObjectMapper();
+    configuration = new Config().jsonPathConfiguration(objectMapper, new FileProperties());
+    document = objectMapper.readTree(SMALL_DOCUMENT);
+    jsonPathCache = new JsonPathCache(new QueryProperties());
+    jsonPathCache.compile(query);
+  }
+
+  /** The call the service made before it had its own cache, served by JsonPath's LRU path cache. */
+  @Benchmark
+  public Object libraryPathCache() {
+    return JsonPath.using(configuration).parse(document).read(query);
+  }
+
+  @Benchmark
+  public Object cachedCompiledPath() {
+    return jsonPathCache.compile(query).read(document, configuration);
+  }
+}
@@ -0,0 +1,71 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.mcp.McpAsyncCalls;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springaicommunity.mcp.annotation.McpTool;
+import org.springaicommunity.mcp.annotation.McpToolParam;
+import org.springaicommunity.mcp.context.McpAsyncRequestContext;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+public class JsonQueryAsyncMcpTools {
+
+  private final JsonQueryService jsonQueryService;
+
+  @McpTool(name = "query_json", description = JsonQueryToolDescriptions.QUERY_JSON)
+  public Mono<String> queryJson(
+      McpAsyncRequestContext context,
+      @McpToolParam(description = "The absolute path to the local JSON file") String absolutePath,
+      @McpToolParam(description = "The JsonPath query to execute (e.g. '$.store.book[*].author')")
+          String query,
+      @McpToolParam(description = "Index of the first match to return", required = false)
+          Integer offset,
+      @McpToolParam(description = "Maximum number of matches to return", required = false)
+          Integer limit,
+      @McpToolParam(
+              description = "Cursor returned as nextCursor by a previous page",
+              required = false)
+          String cursor,
+      @McpToolParam(
+              description = "Allow matches in any order for faster evaluation of JSON Lines files",
+              required = false)
+          Boolean unordered) {
+
+    return McpAsyncCalls.blocking(
+        () ->
+            offset == null && limit == null && cursor == null
+                ? jsonQueryService.query(absolutePath, query, !Boolean.TRUE.equals(unordered))
+                : jsonQueryService.queryPage(absolutePath, query, offset, limit, cursor));
+  }
+
+  @McpTool(name = "query_json_batch", description = JsonQueryToolDescriptions.QUERY_JSON_BATCH)
+  public Mono<String> queryJsonBatch(
+      McpAsyncRequestContext context,
+      @McpToolParam(description = "The absolute path to the local JSON file") String absolutePath,
+      @McpToolParam(description = "The JsonPath queries to execute") List<String> queries) {
+
+    return McpAsyncCalls.blocking(() -> jsonQueryService.queryBatch(absolutePath, queries));
+  }
+
+  @McpTool(name = "aggregate_json", description = JsonQueryToolDescriptions.AGGREGATE_JSON)
+  public Mono<String> aggregateJson(
+      McpAsyncRequestContext context,
+      @McpToolParam(description = "The absolute path to the local JSON file") String absolutePath,
+      @McpToolParam(description = "The JsonPath query selecting the values to aggregate")
+          String query,
+      @McpToolParam(
+              description = "Path of the aggregated value within each match",
+              required = false)
+          String field,
+      @McpToolParam(description = "Path of the group key within each match", required = false)
+          String groupBy,
+      @McpToolParam(description = "Number of largest groups to return", required = false)
+          Integer top) {
+
+    return McpAsyncCalls.blocking(
+        () -> jsonQueryService.aggregate(absolutePath, query, field, groupBy, top));
+  }
+}
@@ -1,5 +1,6 @@
 package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query;
 
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springaicommunity.mcp.annotation.McpTool;
 import org.springaicommunity.mcp.annotation.McpToolParam;
@@ -12,27 +13,55 @@ public class JsonQueryMcpTools {
 
   private final JsonQueryService jsonQueryService;
 
-  @McpTool(
-      name = "query_json",
-      description =
-          """
-                Searches a local JSON file using JsonPath query and returns the result as a JSON string
-
-                Parameters:
-                - absolutePath: absolute path to the local JSON file
-                - query: JsonPath expression
-
-                Examples:
-                - $.users[*].name
-                - $.orders[?(@.total > 100)]
-                - $.users[?(@.active == true && @.age > 30)]
-                """)
+  @McpTool(name = "query_json", description = JsonQueryToolDescriptions.QUERY_JSON)
   public String queryJson(
       McpSyncRequestContext context,
       @McpToolParam(description = "The absolute path to the local JSON file") String absolutePath,
       @McpToolParam(description = "The JsonPath query to execute (e.g. '$.store.book[*].author')")
-          String query) {
+          String query,
+      @McpToolParam(description = "Index of the first match to return", required = false)
+          Integer offset,
+      @McpToolParam(description = "Maximum number of matches to return", required = false)
+          Integer limit,
+      @McpToolParam(
+              description = "Cursor returned as nextCursor by a previous page",
+              required = false)
+          String cursor,
+      @McpToolParam(
+              description = "Allow matches in any order for faster evaluation of JSON Lines files",
+              required = false)
+          Boolean unordered) {
 
-    return jsonQueryService.query(absolutePath, query);
+    if (offset == null && limit == null && cursor == null) {
+      return jsonQueryService.query(absolutePath, query, !Boolean.TRUE.equals(unordered));
+    }
+    return jsonQueryService.queryPage(absolutePath, query, offset, limit, cursor);
+  }
+
+  @McpTool(name = "query_json_batch", description = JsonQueryToolDescriptions.QUERY_JSON_BATCH)
+  public String queryJsonBatch(
+      McpSyncRequestContext context,
+      @McpToolParam(description = "The absolute path to the local JSON file") String absolutePath,
+      @McpToolParam(description = "The JsonPath queries to execute") List<String> queries) {
+
+    return jsonQueryService.queryBatch(absolutePath, queries);
+  }
+
+  @McpTool(name = "aggregate_json", description = JsonQueryToolDescriptions.AGGREGATE_JSON)
+  public String aggregateJson(
+      McpSyncRequestContext context,
+      @McpToolParam(description = "The absolute path to the local JSON file") String absolutePath,
+      @McpToolParam(description = "The JsonPath query selecting the values to aggregate")
+          String query,
+      @McpToolParam(
+              description = "Path of the aggregated value within each match",
+              required = false)
+          String field,
+      @McpToolParam(description = "Path of the group key within each match", required = false)
+          String groupBy,
+      @McpToolParam(description = "Number of largest groups to return", required = false)
+          Integer top) {
+
+    return jsonQueryService.aggregate(absolutePath, query, field, groupBy, top);
   }
 }
@@ -1,5 +1,17 @@
 package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query;
 
+import java.util.List;
+
 public interface JsonQueryService {
-  String query(String absolutePath, String query);
+  default String query(String absolutePath, String query) {
+    return query(absolutePath, query, true);
+  }
+
+  String query(String absolutePath, String query, boolean ordered);
+
+  String queryPage(String absolutePath, String query, Integer offset, Integer limit, String cursor);
+
+  String queryBatch(String absolutePath, List<String> queries);
+
+  String aggregate(String absolutePath, String query, String field, String groupBy, Integer top);
 }
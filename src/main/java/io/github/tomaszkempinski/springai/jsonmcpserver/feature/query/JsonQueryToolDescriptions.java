@@ -0,0 +1,65 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query;
+
+/** Descriptions of the query tools, shared by the synchronous and asynchronous servers. */
+final class JsonQueryToolDescriptions {
+
+  static final String QUERY_JSON =
+      """
+      Searches a local JSON file using JsonPath query and returns the result as a JSON string
+
+      Parameters:
+      - absolutePath: absolute path to the local JSON file
+      - query: JsonPath expression
+      - offset, limit (optional): return one page of matches as
+        {"total", "offset", "limit", "nextCursor", "items"}
+      - cursor (optional): nextCursor from a previous page, used with the same path and query
+      - unordered (optional): allow matches in any order, which lets large JSON Lines
+        files be evaluated faster in parallel
+
+      JSON Lines files (.jsonl, .ndjson) are queried as an array of their records.
+
+      Examples:
+      - $.users[*].name
+      - $.orders[?(@.total > 100)]
+      - $.users[?(@.active == true && @.age > 30)]
+      """;
+
+  static final String QUERY_JSON_BATCH =
+      """
+      Runs several JsonPath queries against one local JSON file, parsing it only once.
+      Returns a JSON object keyed by query; a query that fails yields {"error": "..."}
+
+      Parameters:
+      - absolutePath: absolute path to the local JSON file
+      - queries: list of JsonPath expressions
+
+      Example queries:
+      - ["$.users[*].name", "$.orders.length()", "$.orders[?(@.total > 100)].id"]
+      """;
+
+  static final String AGGREGATE_JSON =
+      """
+      Counts and summarizes the matches of a JsonPath query in a local JSON file in one
+      streaming pass, returning only the aggregate instead of the matches
+
+      Parameters:
+      - absolutePath: absolute path to the local JSON file
+      - query: JsonPath expression selecting the values or records to aggregate
+      - field (optional): path of the value to aggregate within each match, e.g. price
+        or order.total; the matches themselves are aggregated when omitted
+      - groupBy (optional): path of a key within each match to group by
+      - top (optional): number of groups to return, largest first (default 10)
+
+      Returns {"count", "numbers", "sum", "min", "max", "avg", "distinct"}, where the
+      numeric statistics cover the numeric values only and distinct counts distinct
+      non-null values, comparing numbers by value. Past 65536 distinct values the count
+      is estimated and "distinctApproximate" is true. With groupBy, also "groupCount" and "groups", each with a "key"
+      and its own count and numeric statistics.
+
+      Examples:
+      - query $.orders[*], field total, groupBy customer.country
+      - query $[?(@.level == 'error')], groupBy service, top 5
+      """;
+
+  private JsonQueryToolDescriptions() {}
+}
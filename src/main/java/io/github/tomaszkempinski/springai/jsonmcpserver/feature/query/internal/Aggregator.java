@@ -0,0 +1,283 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ErrorType;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Folds matches into counts and numeric statistics in one pass. Distinct values are counted exactly
+ * up to {@link #EXACT_DISTINCT_LIMIT} of them, then by 64-bit hashes. Not thread-safe.
+ */
+final class Aggregator {
+
+  private static final int EXACT_DISTINCT_LIMIT = 65_536;
+  private static final Pattern FIELD = Pattern.compile("\\.([A-Za-z_$][\\w$-]*)|\\['([^']*)']");
+
+  private final List<String> field;
+  private final List<String> groupBy;
+  private final int top;
+  private final Statistics total = new Statistics();
+  private final DistinctValues distinct = new DistinctValues();
+  private final Map<JsonNode, Group> groups = new HashMap<>();
+
+  /**
+   * @param field path of the aggregated value relative to each match, like {@code price} or
+   *     {@code @.order.total}, or {@code null} to aggregate the matches themselves
+   * @param groupBy path of the group key relative to each match, or {@code null} for no groups
+   * @param top number of groups to report, the largest first
+   */
+  Aggregator(String field, String groupBy, int top) {
+    this.field = field != null ? fieldPath(field) : List.of();
+    this.groupBy = groupBy != null ? fieldPath(groupBy) : null;
+    this.top = top;
+  }
+
+  void accept(JsonNode match) {
+    RequestBudget.checkpoint();
+    JsonNode value = select(match, field);
+    total.accept(value);
+    if (!value.isMissingNode() && !value.isNull()) {
+      distinct.add(distinctKey(value));
+    }
+    if (groupBy != null) {
+      JsonNode key = select(match, groupBy);
+      if (key.isMissingNode()) {
+        key = NullNode.getInstance();
+      }
+      groups.computeIfAbsent(key, Group::new).statistics.accept(value);
+    }
+  }
+
+  Map<String, Object> result() {
+    Map<String, Object> result = total.toMap();
+    result.put("distinct", distinct.size());
+    if (distinct.approximate()) {
+      result.put("distinctApproximate", true);
+    }
+    if (groupBy != null) {
+      List<Group> largest = new ArrayList<>(groups.values());
+      largest.sort(
+          Comparator.comparingLong((Group group) -> group.statistics.count)
+              .reversed()
+              .thenComparing(group -> group.key.toString()));
+      List<Map<String, Object>> reported = new ArrayList<>();
+      for (Group group : largest.subList(0, Math.min(top, largest.size()))) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("key", group.key);
+        entry.putAll(group.statistics.toMap());
+        reported.add(entry);
+      }
+      result.put("groupCount", groups.size());
+      result.put("groups", reported);
+    }
+    return result;
+  }
+
+  private static JsonNode select(JsonNode match, List<String> path) {
+    JsonNode node = match;
+    for (String name : path) {
+      node = node.path(name);
+    }
+    return node;
+  }
+
+  private static List<String> fieldPath(String expression) {
+    String path = expression.strip();
+    if (path.startsWith("@")) {
+      path = path.substring(1);
+    } else if (!path.startsWith(".") && !path.startsWith("[")) {
+      path = "." + path;
+    }
+    List<String> names = new ArrayList<>();
+    Matcher matcher = FIELD.matcher(path);
+    int pos = 0;
+    while (pos < path.length() && matcher.find(pos) && matcher.start() == pos) {
+      names.add(matcher.group(1) != null ? matcher.group(1) : matcher.group(2));
+      pos = matcher.end();
+    }
+    if (pos < path.length() || names.isEmpty()) {
+      throw new ServiceException(
+          ErrorType.INVALID_INPUT,
+          "Invalid field path '" + expression + "', expected names like 'price' or 'order.total'");
+    }
+    return names;
+  }
+
+  /**
+   * The value's type and text, so {@code 1} and {@code "1"} stay distinct. Numbers are written in
+   * one form, so {@code 1}, {@code 1.0} and {@code 1e0} are the same value.
+   */
+  private static String distinctKey(JsonNode value) {
+    String text;
+    if (value.isTextual()) {
+      text = value.textValue();
+    } else if (value.isNumber() && (value.isIntegralNumber() || isFinite(value))) {
+      text = value.decimalValue().stripTrailingZeros().toString();
+    } else {
+      text = value.toString();
+    }
+    return (char) value.getNodeType().ordinal() + text;
+  }
+
+  private static boolean isFinite(JsonNode number) {
+    return number.isBigDecimal() || Double.isFinite(number.doubleValue());
+  }
+
+  /** FNV-1a over the characters of the key. */
+  private static long hash(String key) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  private static final class Group {
+    private final JsonNode key;
+    private final Statistics statistics = new Statistics();
+
+    private Group(JsonNode key) {
+      this.key = key;
+    }
+  }
+
+  /** Whole numbers are summed in a long until it overflows. */
+  private static final class Statistics {
+    private long count;
+    private long numbers;
+    private double sum;
+    private long exactSum;
+    private long exactMin = Long.MAX_VALUE;
+    private long exactMax = Long.MIN_VALUE;
+    private boolean exact = true;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    private void accept(JsonNode value) {
+      count++;
+      if (!value.isNumber()) {
+        return;
+      }
+      numbers++;
+      double number = value.doubleValue();
+      sum += number;
+      if (exact) {
+        if (value.canConvertToExactIntegral() && value.canConvertToLong()) {
+          long whole = value.longValue();
+          exactMin = Math.min(exactMin, whole);
+          exactMax = Math.max(exactMax, whole);
+          try {
+            exactSum = Math.addExact(exactSum, whole);
+          } catch (ArithmeticException _) {
+            exact = false;
+          }
+        } else {
+          exact = false;
+        }
+      }
+      min = Math.min(min, number);
+      max = Math.max(max, number);
+    }
+
+    private Map<String, Object> toMap() {
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("count", count);
+      if (numbers > 0) {
+        map.put("numbers", numbers);
+        if (exact) {
+          map.put("sum", exactSum);
+          map.put("min", exactMin);
+          map.put("max", exactMax);
+        } else {
+          map.put("sum", sum);
+          map.put("min", min);
+          map.put("max", max);
+        }
+        map.put("avg", sum / numbers);
+      }
+      return map;
+    }
+  }
+
+  /** Set of distinct keys that turns into a set of their hashes once it grows past the limit. */
+  private static final class DistinctValues {
+    private Set<String> exact = new HashSet<>();
+    private DistinctHashes hashes;
+
+    private void add(String key) {
+      if (exact == null) {
+        hashes.add(hash(key));
+        return;
+      }
+      exact.add(key);
+      if (exact.size() > EXACT_DISTINCT_LIMIT) {
+        hashes = new DistinctHashes();
+        for (String existing : exact) {
+          hashes.add(hash(existing));
+        }
+        exact = null;
+      }
+    }
+
+    private int size() {
+      return exact != null ? exact.size() : hashes.size();
+    }
+
+    private boolean approximate() {
+      return exact == null;
+    }
+  }
+
+  /** Open addressing set of 64-bit hashes in a primitive array. */
+  private static final class DistinctHashes {
+    private static final long EMPTY = 0;
+
+    private long[] table = new long[64];
+    private int size;
+
+    private void add(long hash) {
+      long key = hash == EMPTY ? 1 : hash;
+      if (insert(table, key)) {
+        size++;
+        if (size * 2 > table.length) {
+          long[] grown = new long[table.length * 2];
+          for (long existing : table) {
+            if (existing != EMPTY) {
+              insert(grown, existing);
+            }
+          }
+          table = grown;
+        }
+      }
+    }
+
+    private static boolean insert(long[] table, long key) {
+      int mask = table.length - 1;
+      int slot = (int) (key ^ (key >>> 32)) & mask;
+      while (table[slot] != EMPTY) {
+        if (table[slot] == key) {
+          return false;
+        }
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = key;
+      return true;
+    }
+
+    private int size() {
+      return size;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import java.util.Collection;
+
+/** Passes a {@link RequestBudget#checkpoint()} on every step from a node to its children. */
+public class CheckpointingJsonProvider extends JacksonJsonNodeJsonProvider {
+
+  public CheckpointingJsonProvider(ObjectMapper objectMapper) {
+    super(objectMapper);
+  }
+
+  @Override
+  public Object getArrayIndex(Object obj, int idx) {
+    RequestBudget.checkpoint();
+    return super.getArrayIndex(obj, idx);
+  }
+
+  @Override
+  public Object getMapValue(Object obj, String key) {
+    RequestBudget.checkpoint();
+    return super.getMapValue(obj, key);
+  }
+
+  @Override
+  public Collection<String> getPropertyKeys(Object obj) {
+    RequestBudget.checkpoint();
+    return super.getPropertyKeys(obj);
+  }
+
+  @Override
+  public Iterable<?> toIterable(Object obj) {
+    RequestBudget.checkpoint();
+    return super.toIterable(obj);
+  }
+}
@@ -0,0 +1,94 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.InvalidJsonException;
+import com.jayway.jsonpath.JsonPathException;
+import com.jayway.jsonpath.spi.json.AbstractJsonProvider;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.CompactDocument;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Evaluates JsonPath over the read-only map and list views of {@link CompactDocument}s. */
+public class CompactJsonProvider extends AbstractJsonProvider {
+
+  private final ObjectMapper objectMapper;
+
+  public CompactJsonProvider(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public Object parse(String json) throws InvalidJsonException {
+    try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+      return CompactDocument.parse(parser, false).root();
+    } catch (IOException e) {
+      throw new InvalidJsonException(e, json);
+    }
+  }
+
+  @Override
+  public Object parse(InputStream jsonStream, String charset) throws InvalidJsonException {
+    try (JsonParser parser =
+        objectMapper
+            .getFactory()
+            .createParser(new InputStreamReader(jsonStream, Charset.forName(charset)))) {
+      return CompactDocument.parse(parser, false).root();
+    } catch (IOException e) {
+      throw new InvalidJsonException(e);
+    }
+  }
+
+  @Override
+  public String toJson(Object obj) {
+    try {
+      return objectMapper.writeValueAsString(obj);
+    } catch (JsonProcessingException e) {
+      throw new JsonPathException(e);
+    }
+  }
+
+  @Override
+  public Object createArray() {
+    return new ArrayList<>();
+  }
+
+  @Override
+  public Object createMap() {
+    return new LinkedHashMap<String, Object>();
+  }
+
+  @Override
+  public Object getArrayIndex(Object obj, int idx) {
+    RequestBudget.checkpoint();
+    return super.getArrayIndex(obj, idx);
+  }
+
+  @Override
+  public Object getMapValue(Object obj, String key) {
+    RequestBudget.checkpoint();
+    @SuppressWarnings("unchecked")
+    Map<String, Object> map = (Map<String, Object>) obj;
+    return map.getOrDefault(key, UNDEFINED);
+  }
+
+  @Override
+  public Collection<String> getPropertyKeys(Object obj) {
+    RequestBudget.checkpoint();
+    return super.getPropertyKeys(obj);
+  }
+
+  @Override
+  public Iterable<?> toIterable(Object obj) {
+    RequestBudget.checkpoint();
+    return super.toIterable(obj);
+  }
+}
@@ -0,0 +1,85 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.DocumentCache;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.JsonDocumentService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileChangedEvent;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/** Invalidates changed files and parses the configured hot files again after the warm delay. */
+@Component
+@Slf4j
+public class HotDocumentWarmer {
+
+  private final DocumentCache documentCache;
+  private final JsonDocumentService documentService;
+  private final List<PathMatcher> hotFiles;
+  private final long warmDelayMillis;
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("hot-document-warmer").daemon().factory());
+  private final Map<Path, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+
+  public HotDocumentWarmer(
+      DocumentCache documentCache,
+      JsonDocumentService documentService,
+      FileProperties fileProperties) {
+    this.documentCache = documentCache;
+    this.documentService = documentService;
+    this.hotFiles =
+        fileProperties.getWatch().getHotFiles().stream()
+            .map(pattern -> FileSystems.getDefault().getPathMatcher("glob:" + pattern))
+            .toList();
+    this.warmDelayMillis = fileProperties.getWatch().getWarmDelay().toMillis();
+  }
+
+  @EventListener
+  public void onFileChanged(FileChangedEvent event) {
+    Path path = event.path();
+    documentCache.invalidate(path);
+    if (event.isDeleted() || hotFiles.stream().noneMatch(matcher -> matcher.matches(path))) {
+      ScheduledFuture<?> scheduled = pending.remove(path);
+      if (scheduled != null) {
+        scheduled.cancel(false);
+      }
+      return;
+    }
+    pending.compute(
+        path,
+        (_, scheduled) -> {
+          if (scheduled != null) {
+            scheduled.cancel(false);
+          }
+          return scheduler.schedule(() -> warm(path), warmDelayMillis, TimeUnit.MILLISECONDS);
+        });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  private void warm(Path path) {
+    try {
+      documentService.getForQuery(FileMetadata.of(path));
+      log.debug("Warmed hot document {}", path);
+    } catch (IOException | RuntimeException e) {
+      log.debug("Warming hot document {} failed", path, e);
+    }
+  }
+}
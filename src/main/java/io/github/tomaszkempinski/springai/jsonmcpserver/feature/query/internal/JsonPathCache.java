@@ -0,0 +1,62 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal;
+
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.QueryProperties;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+
+@Component
+public class JsonPathCache {
+
+  private final Map<String, CompiledPath> cache;
+
+  public JsonPathCache(QueryProperties queryProperties) {
+    int maxEntries = queryProperties.getCompiledPathCacheSize();
+    this.cache =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, CompiledPath> eldest) {
+            return size() > maxEntries;
+          }
+        };
+  }
+
+  public JsonPath compile(String expression) {
+    CompiledPath compiled;
+    synchronized (cache) {
+      compiled = cache.get(expression);
+    }
+    if (compiled == null) {
+      compiled = CompiledPath.of(expression);
+      synchronized (cache) {
+        cache.put(expression, compiled);
+      }
+    }
+    return compiled.orThrow();
+  }
+
+  public int size() {
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  private record CompiledPath(JsonPath path, String error) {
+    static CompiledPath of(String expression) {
+      try {
+        return new CompiledPath(JsonPath.compile(expression), null);
+      } catch (InvalidPathException e) {
+        return new CompiledPath(null, e.getMessage());
+      }
+    }
+
+    JsonPath orThrow() {
+      if (path == null) {
+        throw new InvalidPathException(error);
+      }
+      return path;
+    }
+  }
+}
@@ -1,36 +1,566 @@
 package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.JsonPathException;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.PathNotFoundException;
 import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.JsonQueryService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.OffsetIndex.Seek;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.QueryCursorStore.Cursor;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.QueryCursorStore.Position;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPath.Elements;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPath.Filter;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPath.Segment;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPath.Wildcard;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.QueryProperties;
 import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.json.JsonMapper;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ErrorType;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.JsonDocumentService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileIngestionService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileValidationService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonLinesReader;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import lombok.RequiredArgsConstructor;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.stereotype.Service;
 
 @Service
-@RequiredArgsConstructor
 public class JsonQueryServiceImpl implements JsonQueryService {
 
   private final JsonMapper jsonMapper;
+  private final ObjectMapper objectMapper;
   private final FileValidationService fileValidationService;
+  private final FileIngestionService fileIngestionService;
+  private final JsonDocumentService documentService;
+  private final JsonPathCache jsonPathCache;
+  private final ObjectFactory<Configuration> jsonPathConfiguration;
+  private final StreamingJsonPathEvaluator streamingEvaluator;
+  private final OffsetIndexStore offsetIndexStore;
+  private final JsonLinesReader jsonLinesReader;
+  private final QueryCursorStore cursorStore;
+  private final QueryResultCache resultCache;
+  private final QueryProperties queryProperties;
+  private final ForkJoinPool batchPool;
+
+  public JsonQueryServiceImpl(
+      JsonMapper jsonMapper,
+      ObjectMapper objectMapper,
+      FileValidationService fileValidationService,
+      FileIngestionService fileIngestionService,
+      JsonDocumentService documentService,
+      JsonPathCache jsonPathCache,
+      ObjectFactory<Configuration> jsonPathConfiguration,
+      StreamingJsonPathEvaluator streamingEvaluator,
+      OffsetIndexStore offsetIndexStore,
+      JsonLinesReader jsonLinesReader,
+      QueryCursorStore cursorStore,
+      QueryResultCache resultCache,
+      QueryProperties queryProperties) {
+    this.jsonMapper = jsonMapper;
+    this.objectMapper = objectMapper;
+    this.fileValidationService = fileValidationService;
+    this.fileIngestionService = fileIngestionService;
+    this.documentService = documentService;
+    this.jsonPathCache = jsonPathCache;
+    this.jsonPathConfiguration = jsonPathConfiguration;
+    this.streamingEvaluator = streamingEvaluator;
+    this.offsetIndexStore = offsetIndexStore;
+    this.jsonLinesReader = jsonLinesReader;
+    this.cursorStore = cursorStore;
+    this.resultCache = resultCache;
+    this.queryProperties = queryProperties;
+    this.batchPool = new ForkJoinPool(queryProperties.getBatchParallelism());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    batchPool.shutdownNow();
+  }
+
+  @Override
+  public String query(String absolutePath, String query, boolean ordered) {
+    FileMetadata metadata = fileValidationService.validateFileExists(absolutePath);
+    return execute(
+        () -> {
+          JsonPath jsonPath = jsonPathCache.compile(query);
+          Optional<String> cached = resultCache.lookup(metadata, query, jsonPath, ordered);
+          if (cached.isPresent()) {
+            return cached.get();
+          }
+          String response = evaluateQuery(metadata, query, jsonPath, ordered);
+          resultCache.store(metadata, query, jsonPath, ordered, response);
+          return response;
+        });
+  }
+
+  private String evaluateQuery(
+      FileMetadata metadata, String query, JsonPath jsonPath, boolean ordered) throws IOException {
+    Optional<StreamingJsonPath> streamingPath = streamingPath(metadata, query);
+    if (streamingPath.isPresent()) {
+      return streamQuery(metadata, streamingPath.get(), ordered);
+    }
+    Object document = documentService.getForQuery(metadata);
+    Object result = jsonPath.read(document, jsonPathConfiguration.getObject());
+    return jsonMapper.toJsonString(result);
+  }
+
+  @Override
+  public String queryPage(
+      String absolutePath, String query, Integer offset, Integer limit, String cursor) {
+    int pageSize = pageSize(limit);
+    FileMetadata metadata = fileValidationService.validateFileExists(absolutePath);
+    if (cursor != null && !cursor.isBlank()) {
+      Position position = cursorStore.resolve(cursor);
+      return execute(() -> continuePage(position, metadata, query, pageSize));
+    }
+    int start = offset != null ? offset : 0;
+    if (start < 0) {
+      throw new ServiceException(ErrorType.INVALID_INPUT, "Offset must not be negative");
+    }
+    return execute(() -> firstPage(metadata, query, start, pageSize));
+  }
 
   @Override
-  public String query(String absolutePath, String query) {
-    Path path = fileValidationService.validateFileExists(absolutePath);
-    try (var is = Files.newInputStream(path)) {
-      Object result = JsonPath.read(is, query);
-      return jsonMapper.toJsonString(result);
+  public String queryBatch(String absolutePath, List<String> queries) {
+    if (queries == null || queries.isEmpty()) {
+      throw new ServiceException(ErrorType.INVALID_INPUT, "At least one query must be provided");
+    }
+    if (queries.size() > queryProperties.getMaxBatchSize()) {
+      throw new ServiceException(
+          ErrorType.INVALID_INPUT,
+          "At most " + queryProperties.getMaxBatchSize() + " queries can be batched");
+    }
+    FileMetadata metadata = fileValidationService.validateFileExists(absolutePath);
+
+    Map<String, Object> response = new LinkedHashMap<>();
+    Map<String, JsonPath> compiled = new LinkedHashMap<>();
+    for (String query : queries) {
+      try {
+        compiled.put(query, jsonPathCache.compile(query));
+        response.put(query, null);
+      } catch (JsonPathException e) {
+        response.put(query, batchError(e));
+      }
+    }
+    if (compiled.isEmpty()) {
+      return jsonMapper.toJsonString(response);
+    }
+
+    List<Map.Entry<String, JsonPath>> paths = List.copyOf(compiled.entrySet());
+    List<Optional<StreamingJsonPath>> streamingPaths =
+        paths.stream().map(path -> streamingPath(metadata, path.getKey())).toList();
+    Object document =
+        streamingPaths.stream().allMatch(Optional::isPresent)
+            ? null
+            : execute(() -> documentService.getForQuery(metadata));
+    RequestBudget budget = RequestBudget.current();
+    List<Callable<Object>> tasks = new ArrayList<>(paths.size());
+    for (int i = 0; i < paths.size(); i++) {
+      JsonPath jsonPath = paths.get(i).getValue();
+      Optional<StreamingJsonPath> streamingPath = streamingPaths.get(i);
+      tasks.add(
+          () -> {
+            try (RequestBudget.Scope _ = budget.bind()) {
+              return streamingPath.isPresent()
+                  ? streamedBatchResult(metadata, streamingPath.get())
+                  : batchResult(document, jsonPath);
+            }
+          });
+    }
+    List<Future<Object>> results = batchPool.invokeAll(tasks);
+    for (int i = 0; i < paths.size(); i++) {
+      Future<Object> result = results.get(i);
+      response.put(paths.get(i).getKey(), execute(() -> awaitBatchResult(result)));
+    }
+    return jsonMapper.toJsonString(response);
+  }
+
+  @Override
+  public String aggregate(
+      String absolutePath, String query, String field, String groupBy, Integer top) {
+    int groups = top != null ? top : queryProperties.getDefaultAggregateGroups();
+    if (groups <= 0) {
+      throw new ServiceException(ErrorType.INVALID_INPUT, "Top must be greater than zero");
+    }
+    Aggregator aggregator =
+        new Aggregator(field, groupBy, Math.min(groups, queryProperties.getMaxPageSize()));
+    FileMetadata metadata = fileValidationService.validateFileExists(absolutePath);
+    return execute(
+        () -> {
+          JsonPath jsonPath = jsonPathCache.compile(query);
+          Optional<StreamingJsonPath> streamingPath = StreamingJsonPath.compile(query);
+          if (streamingPath.isPresent()) {
+            aggregateStream(metadata, streamingPath.get(), aggregator);
+          } else {
+            List<?> matches = evaluate(metadata, jsonPath);
+            if (jsonPath.isDefinite() && matches.getFirst() instanceof ArrayNode elements) {
+              elements.forEach(aggregator::accept);
+            } else {
+              if (jsonPath.isDefinite() && matches.getFirst() instanceof List<?> elements) {
+                matches = elements;
+              }
+              for (Object match : matches) {
+                aggregator.accept(
+                    match instanceof JsonNode node ? node : objectMapper.valueToTree(match));
+              }
+            }
+          }
+          return jsonMapper.toJsonString(aggregator.result());
+        });
+  }
+
+  /**
+   * Streams the elements of an array selected by a definite path one by one. When nothing matched,
+   * the path is evaluated again to tell an empty array from a missing one.
+   */
+  private void aggregateStream(
+      FileMetadata metadata, StreamingJsonPath streamingPath, Aggregator aggregator)
+      throws IOException {
+    if (!streamingPath.isDefinite()) {
+      stream(metadata, streamingPath, false, aggregator::accept);
+      return;
+    }
+    boolean[] found = new boolean[1];
+    stream(
+        metadata,
+        streamingPath.elements(),
+        false,
+        match -> {
+          found[0] = true;
+          aggregator.accept(match);
+        });
+    if (!found[0]) {
+      stream(metadata, streamingPath, true, _ -> found[0] = true);
+    }
+    if (!found[0]) {
+      throw new PathNotFoundException("No results for path: " + streamingPath.expression());
+    }
+  }
+
+  private Object batchResult(Object document, JsonPath jsonPath) {
+    try {
+      return jsonPath.read(document, jsonPathConfiguration.getObject());
+    } catch (JsonPathException e) {
+      return batchError(e);
+    }
+  }
+
+  /**
+   * Streams the file for one query of a batch, so a batch over a file above the streaming threshold
+   * never loads it. Each query is a separate pass, run in parallel with the others.
+   */
+  private Object streamedBatchResult(FileMetadata metadata, StreamingJsonPath streamingPath)
+      throws IOException {
+    try {
+      if (streamingPath.isDefinite()) {
+        JsonNode[] result = new JsonNode[1];
+        stream(metadata, streamingPath, true, match -> result[0] = match);
+        if (result[0] == null) {
+          throw new PathNotFoundException("No results for path: " + streamingPath.expression());
+        }
+        return result[0];
+      }
+      ArrayNode matches = objectMapper.createArrayNode();
+      stream(metadata, streamingPath, true, matches::add);
+      return matches;
+    } catch (JsonPathException e) {
+      return batchError(e);
+    }
+  }
+
+  private Object awaitBatchResult(Future<Object> result) throws IOException {
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while running batched queries", e);
+    } catch (ExecutionException e) {
+      switch (e.getCause()) {
+        case IOException io -> throw io;
+        case RuntimeException runtime -> throw runtime;
+        default -> throw new IOException(e.getCause().getMessage(), e.getCause());
+      }
+    }
+  }
+
+  private Map<String, String> batchError(JsonPathException e) {
+    return Map.of("error", "Executing JsonPath query: " + e.getMessage());
+  }
+
+  private String firstPage(FileMetadata metadata, String query, int offset, int limit)
+      throws IOException {
+    JsonPath jsonPath = jsonPathCache.compile(query);
+    Optional<StreamingJsonPath> streamingPath = streamingPath(metadata, query);
+    if (streamingPath.isPresent()) {
+      StreamedPage page = streamPage(metadata, streamingPath.get(), offset, limit);
+      return toPage(
+          () -> cursorStore.register(metadata, query, null),
+          page.items(),
+          offset,
+          limit,
+          page.total());
+    }
+    Object document = documentService.getForQuery(metadata);
+    List<String> paths = matchPaths(document, jsonPath);
+    return toPage(
+        () -> cursorStore.register(metadata, query, paths),
+        resolve(document, slice(paths, offset, limit)),
+        offset,
+        limit,
+        paths.size());
+  }
+
+  private String continuePage(Position position, FileMetadata metadata, String query, int limit)
+      throws IOException {
+    Cursor cursor = position.cursor();
+    if (!cursor.metadata().path().equals(metadata.path()) || !cursor.query().equals(query)) {
+      throw new ServiceException(
+          ErrorType.INVALID_INPUT, "Cursor was issued for a different file or query");
+    }
+    if (!cursor.metadata().isSameVersion(metadata)) {
+      cursorStore.release(cursor);
+      throw new ServiceException(
+          ErrorType.INVALID_INPUT,
+          "File has changed since the cursor was issued, run the query again without a cursor");
+    }
+    int offset = position.offset();
+    List<?> items;
+    long total;
+    if (cursor.paths() != null) {
+      items = resolve(documentService.getForQuery(metadata), slice(cursor.paths(), offset, limit));
+      total = cursor.paths().size();
+    } else {
+      StreamingJsonPath streamingPath = StreamingJsonPath.compile(query).orElseThrow();
+      StreamedPage page = streamPage(metadata, streamingPath, offset, limit);
+      items = page.items();
+      total = page.total();
+    }
+    if (offset + items.size() >= total) {
+      cursorStore.release(cursor);
+    }
+    return toPage(() -> cursor, items, offset, limit, total);
+  }
+
+  private String toPage(Supplier<Cursor> cursor, List<?> items, int offset, int limit, long total) {
+    String nextCursor = null;
+    if (offset + items.size() < total) {
+      nextCursor = cursorStore.token(cursor.get(), offset + items.size());
+    }
+    return jsonMapper.toJsonString(new QueryPage(total, offset, limit, nextCursor, items));
+  }
+
+  /**
+   * Returns the matches of the path, one for a definite path. Matches are nodes of the document, or
+   * maps and lists of a compact document, except that a definite path to a scalar yields its plain
+   * value.
+   */
+  private List<?> evaluate(FileMetadata metadata, JsonPath jsonPath) {
+    Object document = documentService.getForQuery(metadata);
+    Object result = jsonPath.read(document, jsonPathConfiguration.getObject());
+    if (jsonPath.isDefinite()) {
+      return Collections.singletonList(result);
+    }
+    if (result instanceof List<?> matches) {
+      return matches;
+    }
+    List<JsonNode> matches = new ArrayList<>();
+    ((JsonNode) result).forEach(matches::add);
+    return matches;
+  }
+
+  /** Returns the normalized paths of the matches, like {@code $['orders'][3]['id']}. */
+  private List<String> matchPaths(Object document, JsonPath jsonPath) {
+    Configuration configuration = jsonPathConfiguration.getObject().addOptions(Option.AS_PATH_LIST);
+    Object result = jsonPath.read(document, configuration);
+    List<String> paths = new ArrayList<>();
+    for (Object path : configuration.jsonProvider().toIterable(result)) {
+      paths.add(String.valueOf(path));
+    }
+    return paths;
+  }
+
+  /** Reads the matches of a page back from their paths, each of which is definite. */
+  private List<Object> resolve(Object document, List<String> paths) {
+    Configuration configuration = jsonPathConfiguration.getObject();
+    List<Object> items = new ArrayList<>(paths.size());
+    for (String path : paths) {
+      items.add(JsonPath.compile(path).read(document, configuration));
+    }
+    return items;
+  }
+
+  private <T> List<T> slice(List<T> matches, int offset, int limit) {
+    if (offset >= matches.size()) {
+      return List.of();
+    }
+    return matches.subList(offset, Math.min(matches.size(), offset + limit));
+  }
+
+  private int pageSize(Integer limit) {
+    if (limit == null) {
+      return queryProperties.getDefaultPageSize();
+    }
+    if (limit <= 0) {
+      throw new ServiceException(ErrorType.INVALID_INPUT, "Limit must be greater than zero");
+    }
+    return Math.min(limit, queryProperties.getMaxPageSize());
+  }
+
+  private Optional<StreamingJsonPath> streamingPath(FileMetadata metadata, String query) {
+    if (metadata.contentSize() < queryProperties.getStreamingThreshold().toBytes()) {
+      return Optional.empty();
+    }
+    return StreamingJsonPath.compile(query);
+  }
+
+  private String streamQuery(
+      FileMetadata metadata, StreamingJsonPath streamingPath, boolean ordered) throws IOException {
+    StringWriter writer = new StringWriter();
+    try (JsonGenerator generator =
+        objectMapper.getFactory().createGenerator(writer).useDefaultPrettyPrinter()) {
+      if (streamingPath.isDefinite()) {
+        JsonNode[] result = new JsonNode[1];
+        stream(metadata, streamingPath, true, match -> result[0] = match);
+        if (result[0] == null) {
+          throw new PathNotFoundException("No results for path: " + streamingPath.expression());
+        }
+        generator.writeTree(result[0]);
+      } else {
+        generator.writeStartArray();
+        stream(metadata, streamingPath, ordered, match -> writeMatch(generator, match));
+        generator.writeEndArray();
+      }
+    }
+    return writer.toString();
+  }
+
+  private StreamedPage streamPage(
+      FileMetadata metadata, StreamingJsonPath streamingPath, int offset, int limit)
+      throws IOException {
+    List<JsonNode> items = new ArrayList<>();
+    long[] total = new long[1];
+    stream(
+        metadata,
+        streamingPath,
+        true,
+        match -> {
+          long index = total[0]++;
+          if (index >= offset && index < (long) offset + limit) {
+            items.add(match);
+          }
+        });
+    if (streamingPath.isDefinite() && total[0] == 0) {
+      throw new PathNotFoundException("No results for path: " + streamingPath.expression());
+    }
+    return new StreamedPage(items, total[0]);
+  }
+
+  /**
+   * Streams the matches of the path, starting from the byte offset the offset index resolves for
+   * its leading segments when the file is large enough to be indexed.
+   */
+  private void stream(
+      FileMetadata metadata,
+      StreamingJsonPath streamingPath,
+      boolean ordered,
+      Consumer<JsonNode> matches)
+      throws IOException {
+    try (JsonFileSource source = fileIngestionService.open(metadata)) {
+      if (jsonLinesReader.isJsonLines(metadata)) {
+        streamJsonLines(source, streamingPath, ordered, matches);
+        return;
+      }
+      Optional<Seek> seek = offsetIndexStore.seek(source, streamingPath);
+      if (seek.isEmpty()) {
+        try (JsonParser parser = source.createParser(objectMapper.getFactory())) {
+          streamingEvaluator.evaluate(parser, streamingPath, matches);
+        }
+      } else if (seek.get().found()) {
+        try (JsonParser parser = seek.get().createParser(source, objectMapper.getFactory())) {
+          streamingEvaluator.evaluate(parser, seek.get().remaining(), matches);
+        }
+      }
+    }
+  }
+
+  /** Records selected by wildcard or filter match independently, so chunks run in parallel. */
+  private void streamJsonLines(
+      JsonFileSource source,
+      StreamingJsonPath streamingPath,
+      boolean ordered,
+      Consumer<JsonNode> matches)
+      throws IOException {
+    Segment first = streamingPath.segments().isEmpty() ? null : streamingPath.segments().getFirst();
+    if (first instanceof Wildcard || first instanceof Filter || first instanceof Elements) {
+      jsonLinesReader.forEachChunk(
+          source,
+          chunk -> {
+            List<JsonNode> chunkMatches = new ArrayList<>();
+            try (JsonParser parser = chunk.createParser(objectMapper.getFactory())) {
+              streamingEvaluator.evaluate(parser, streamingPath, chunkMatches::add);
+            }
+            return chunkMatches;
+          },
+          ordered,
+          chunkMatches -> chunkMatches.forEach(matches));
+    } else {
+      try (JsonParser parser = jsonLinesReader.createParser(source, objectMapper.getFactory())) {
+        streamingEvaluator.evaluate(parser, streamingPath, matches);
+      }
+    }
+  }
+
+  private record StreamedPage(List<JsonNode> items, long total) {}
+
+  private void writeMatch(JsonGenerator generator, JsonNode match) {
+    try {
+      generator.writeTree(match);
     } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private <T> T execute(QueryAction<T> action) {
+    try {
+      return action.run();
+    } catch (JsonProcessingException e) {
+      throw new ServiceException(
+          ErrorType.PROCESSING_ERROR, "Reading or processing JSON file: " + e.getMessage(), e);
+    } catch (IOException | UncheckedIOException e) {
       throw new ServiceException(ErrorType.IO_ERROR, e.getMessage(), e);
     } catch (JsonPathException e) {
       throw new ServiceException(
           ErrorType.PROCESSING_ERROR, "Executing JsonPath query: " + e.getMessage(), e);
     }
   }
+
+  @FunctionalInterface
+  private interface QueryAction<T> {
+    T run() throws IOException;
+  }
 }
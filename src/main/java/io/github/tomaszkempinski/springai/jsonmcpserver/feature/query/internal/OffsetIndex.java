@@ -0,0 +1,276 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPath.Field;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPath.Index;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPath.Segment;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Byte offsets of object members and array elements of a JSON file, down to a fixed depth. Only
+ * every {@code arrayStride}-th element is recorded, and nothing below an element.
+ */
+record OffsetIndex(
+    long fileSize, long lastModifiedNanos, int depth, int arrayStride, long rootOffset, Node root) {
+
+  private static final int MAGIC = 0x4A4D4958;
+  private static final int FORMAT_VERSION = 2;
+  private static final byte LEAF = 0;
+  private static final byte OBJECT = 1;
+  private static final byte ARRAY = 2;
+
+  sealed interface Node {}
+
+  record Member(long offset, Node child) {}
+
+  /** Members of an object; {@code complete} is false when the object had more than were kept. */
+  record ObjectNode(Map<String, Member> members, boolean complete) implements Node {}
+
+  record ArrayNode(long size, long[] offsets) implements Node {}
+
+  /** Where to start parsing for a path, and the part of the path left to evaluate from there. */
+  record Seek(long offset, long skip, StreamingJsonPath remaining, boolean found) {
+
+    static final Seek NOT_FOUND = new Seek(0, 0, null, false);
+
+    /**
+     * Returns a parser whose next token starts the value the index points at. The slice is wrapped
+     * in an array, so skipping the preceding array elements is plain token skipping.
+     */
+    JsonParser createParser(JsonFileSource source, JsonFactory jsonFactory) throws IOException {
+      JsonParser parser =
+          jsonFactory.createParser(
+              new SequenceInputStream(
+                  new ByteArrayInputStream("[".getBytes(StandardCharsets.US_ASCII)),
+                  source.openStream(offset)));
+      parser.nextToken();
+      for (long i = 0; i < skip; i++) {
+        parser.nextToken();
+        parser.skipChildren();
+      }
+      return parser;
+    }
+  }
+
+  boolean matches(FileMetadata metadata, int depth, int arrayStride) {
+    return fileSize == metadata.size()
+        && lastModifiedNanos == metadata.lastModified().to(TimeUnit.NANOSECONDS)
+        && this.depth == depth
+        && this.arrayStride == arrayStride;
+  }
+
+  static boolean canSeek(StreamingJsonPath path) {
+    return !path.segments().isEmpty()
+        && (path.segments().getFirst() instanceof Field
+            || path.segments().getFirst() instanceof Index);
+  }
+
+  /** Resolves the leading member names and indexes of the path, or returns empty if none apply. */
+  Optional<Seek> seek(StreamingJsonPath path) {
+    List<Segment> segments = path.segments();
+    Node node = root;
+    long offset = rootOffset;
+    long skip = 0;
+    int consumed = 0;
+    while (consumed < segments.size() && node != null) {
+      Segment segment = segments.get(consumed);
+      if (!(segment instanceof Field) && !(segment instanceof Index)) {
+        break;
+      }
+      if (node instanceof ObjectNode object
+          && segment instanceof Field field
+          && !object.complete()
+          && !object.members().containsKey(field.name())) {
+        break;
+      }
+      switch (node) {
+        case ObjectNode object when segment instanceof Field field -> {
+          Member member = object.members().get(field.name());
+          if (member == null) {
+            return Optional.of(Seek.NOT_FOUND);
+          }
+          offset = member.offset();
+          node = member.child();
+        }
+        case ArrayNode array when segment instanceof Index index -> {
+          if (index.index() >= array.size()) {
+            return Optional.of(Seek.NOT_FOUND);
+          }
+          offset = array.offsets()[index.index() / arrayStride];
+          skip = index.index() % arrayStride;
+          node = null;
+        }
+        default -> {
+          return Optional.of(Seek.NOT_FOUND);
+        }
+      }
+      consumed++;
+    }
+    if (consumed == 0) {
+      return Optional.empty();
+    }
+    StreamingJsonPath remaining =
+        new StreamingJsonPath(path.expression(), segments.subList(consumed, segments.size()));
+    return Optional.of(new Seek(offset, skip, remaining, true));
+  }
+
+  static OffsetIndex build(
+      FileMetadata metadata, JsonParser parser, int depth, int arrayStride, int maxMembers)
+      throws IOException {
+    long rootOffset = 0;
+    Node root = null;
+    if (parser.nextToken() != null) {
+      rootOffset = offset(parser);
+      root = build(parser, 1, depth, arrayStride, maxMembers);
+    }
+    return new OffsetIndex(
+        metadata.size(),
+        metadata.lastModified().to(TimeUnit.NANOSECONDS),
+        depth,
+        arrayStride,
+        rootOffset,
+        root);
+  }
+
+  private static Node build(
+      JsonParser parser, int level, int depth, int arrayStride, int maxMembers) throws IOException {
+    JsonToken token = parser.currentToken();
+    if (level <= depth && token == JsonToken.START_OBJECT) {
+      Map<String, Member> members = new HashMap<>();
+      boolean complete = true;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        RequestBudget.checkpoint();
+        String name = parser.currentName();
+        parser.nextToken();
+        if (complete && (members.size() < maxMembers || members.containsKey(name))) {
+          long offset = offset(parser);
+          members.put(
+              name, new Member(offset, build(parser, level + 1, depth, arrayStride, maxMembers)));
+        } else {
+          complete = false;
+          members.remove(name);
+          parser.skipChildren();
+        }
+      }
+      return new ObjectNode(members, complete);
+    }
+    if (level <= depth && token == JsonToken.START_ARRAY) {
+      long[] offsets = new long[16];
+      int recorded = 0;
+      long size = 0;
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        RequestBudget.checkpoint();
+        if (size % arrayStride == 0) {
+          if (recorded == offsets.length) {
+            offsets = Arrays.copyOf(offsets, recorded * 2);
+          }
+          offsets[recorded++] = offset(parser);
+        }
+        parser.skipChildren();
+        size++;
+      }
+      return new ArrayNode(size, Arrays.copyOf(offsets, recorded));
+    }
+    parser.skipChildren();
+    return null;
+  }
+
+  private static long offset(JsonParser parser) {
+    return parser.currentTokenLocation().getByteOffset();
+  }
+
+  void writeTo(DataOutput out) throws IOException {
+    out.writeInt(MAGIC);
+    out.writeInt(FORMAT_VERSION);
+    out.writeLong(fileSize);
+    out.writeLong(lastModifiedNanos);
+    out.writeInt(depth);
+    out.writeInt(arrayStride);
+    out.writeLong(rootOffset);
+    write(out, root);
+  }
+
+  private static void write(DataOutput out, Node node) throws IOException {
+    switch (node) {
+      case null -> out.writeByte(LEAF);
+      case ObjectNode object -> {
+        out.writeByte(OBJECT);
+        out.writeBoolean(object.complete());
+        out.writeInt(object.members().size());
+        for (Map.Entry<String, Member> entry : object.members().entrySet()) {
+          byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+          out.writeInt(name.length);
+          out.write(name);
+          out.writeLong(entry.getValue().offset());
+          write(out, entry.getValue().child());
+        }
+      }
+      case ArrayNode array -> {
+        out.writeByte(ARRAY);
+        out.writeLong(array.size());
+        out.writeInt(array.offsets().length);
+        for (long offset : array.offsets()) {
+          out.writeLong(offset);
+        }
+      }
+    }
+  }
+
+  /** Reads an index written by {@link #writeTo}, or returns empty if the format is unknown. */
+  static Optional<OffsetIndex> readFrom(DataInput in) throws IOException {
+    if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+      return Optional.empty();
+    }
+    long fileSize = in.readLong();
+    long lastModifiedNanos = in.readLong();
+    int depth = in.readInt();
+    int arrayStride = in.readInt();
+    long rootOffset = in.readLong();
+    return Optional.of(
+        new OffsetIndex(fileSize, lastModifiedNanos, depth, arrayStride, rootOffset, read(in)));
+  }
+
+  private static Node read(DataInput in) throws IOException {
+    byte type = in.readByte();
+    return switch (type) {
+      case LEAF -> null;
+      case OBJECT -> {
+        boolean complete = in.readBoolean();
+        int count = in.readInt();
+        Map<String, Member> members = HashMap.newHashMap(count);
+        for (int i = 0; i < count; i++) {
+          byte[] name = new byte[in.readInt()];
+          in.readFully(name);
+          long offset = in.readLong();
+          members.put(new String(name, StandardCharsets.UTF_8), new Member(offset, read(in)));
+        }
+        yield new ObjectNode(members, complete);
+      }
+      case ARRAY -> {
+        long size = in.readLong();
+        long[] offsets = new long[in.readInt()];
+        for (int i = 0; i < offsets.length; i++) {
+          offsets[i] = in.readLong();
+        }
+        yield new ArrayNode(size, offsets);
+      }
+      default -> throw new IOException("Corrupt offset index, unknown node type " + type);
+    };
+  }
+}
@@ -0,0 +1,176 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.OffsetIndex.Seek;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.QueryProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.Hashing;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/** Builds and persists {@link OffsetIndex} sidecars, rebuilt once the file changes. */
+@Component
+@Slf4j
+public class OffsetIndexStore {
+
+  private static final String SUFFIX = ".idx";
+
+  private final ObjectMapper objectMapper;
+  private final boolean enabled;
+  private final long threshold;
+  private final int depth;
+  private final int arrayStride;
+  private final int maxMembers;
+  private final Path directory;
+  private final Map<Path, OffsetIndex> cache;
+  private final Map<Path, BuildLock> buildLocks = new ConcurrentHashMap<>();
+
+  public OffsetIndexStore(ObjectMapper objectMapper, QueryProperties queryProperties) {
+    QueryProperties.Index index = queryProperties.getIndex();
+    this.objectMapper = objectMapper;
+    this.enabled = index.isEnabled();
+    this.threshold = index.getThreshold().toBytes();
+    this.depth = index.getDepth();
+    this.arrayStride = Math.max(1, index.getArrayStride());
+    this.maxMembers = Math.max(1, index.getMaxMembers());
+    this.directory = Paths.get(index.getDirectory());
+    int maxEntries = index.getCacheSize();
+    this.cache =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Path, OffsetIndex> eldest) {
+            return size() > maxEntries;
+          }
+        };
+  }
+
+  /** Resolves the leading names and indexes of the path through the index, building it first. */
+  public Optional<Seek> seek(JsonFileSource source, StreamingJsonPath path) throws IOException {
+    FileMetadata metadata = source.metadata();
+    if (!enabled
+        || !source.isSeekable()
+        || metadata.size() < threshold
+        || !OffsetIndex.canSeek(path)) {
+      return Optional.empty();
+    }
+    return index(source).seek(path);
+  }
+
+  private OffsetIndex index(JsonFileSource source) throws IOException {
+    FileMetadata metadata = source.metadata();
+    Path key = metadata.path().toAbsolutePath().normalize();
+    OffsetIndex index = cached(key, metadata);
+    if (index != null) {
+      return index;
+    }
+    BuildLock lock =
+        buildLocks.compute(
+            key,
+            (path, existing) -> {
+              BuildLock entered = existing != null ? existing : new BuildLock();
+              entered.users++;
+              return entered;
+            });
+    try {
+      synchronized (lock) {
+        index = cached(key, metadata);
+        if (index == null) {
+          Path sidecar = sidecar(key);
+          index = load(sidecar, metadata).orElse(null);
+          if (index == null) {
+            index = build(source);
+            store(sidecar, index);
+          }
+          synchronized (cache) {
+            cache.put(key, index);
+          }
+        }
+        return index;
+      }
+    } finally {
+      buildLocks.computeIfPresent(key, (path, entered) -> --entered.users == 0 ? null : entered);
+    }
+  }
+
+  private OffsetIndex cached(Path key, FileMetadata metadata) {
+    synchronized (cache) {
+      OffsetIndex index = cache.get(key);
+      return index != null && index.matches(metadata, depth, arrayStride) ? index : null;
+    }
+  }
+
+  /** Parses the text, as locations in a cached binary copy are not offsets into the file. */
+  private OffsetIndex build(JsonFileSource source) throws IOException {
+    long start = System.nanoTime();
+    try (JsonParser parser = objectMapper.getFactory().createParser(source.openStream())) {
+      OffsetIndex index =
+          OffsetIndex.build(source.metadata(), parser, depth, arrayStride, maxMembers);
+      log.info(
+          "Built offset index of {} in {} ms",
+          source.metadata().path(),
+          (System.nanoTime() - start) / 1_000_000);
+      return index;
+    }
+  }
+
+  private Optional<OffsetIndex> load(Path sidecar, FileMetadata metadata) {
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar)))) {
+      return OffsetIndex.readFrom(in).filter(index -> index.matches(metadata, depth, arrayStride));
+    } catch (NoSuchFileException _) {
+      return Optional.empty();
+    } catch (IOException e) {
+      log.warn("Ignoring unreadable offset index {}: {}", sidecar, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private void store(Path sidecar, OffsetIndex index) {
+    Path temporary = null;
+    try {
+      Files.createDirectories(sidecar.getParent());
+      temporary =
+          Files.createTempFile(sidecar.getParent(), sidecar.getFileName().toString(), ".tmp");
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+        index.writeTo(out);
+      }
+      Files.move(
+          temporary, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      log.warn("Cannot write offset index {}, keeping it in memory only", sidecar, e);
+      if (temporary != null) {
+        try {
+          Files.deleteIfExists(temporary);
+        } catch (IOException _) {
+          // best effort
+        }
+      }
+    }
+  }
+
+  private Path sidecar(Path file) {
+    return directory.resolve(Hashing.sha256(file.toString()) + SUFFIX);
+  }
+
+  /** Serializes the builds of one index; removed once no query waits for it any more. */
+  private static final class BuildLock {
+    private int users;
+  }
+}
@@ -0,0 +1,92 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.QueryProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ErrorType;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class QueryCursorStore {
+
+  private final QueryProperties queryProperties;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /** A registered query. Paths are null for streamed files, whose pages stream the file again. */
+  public record Cursor(String id, FileMetadata metadata, String query, List<String> paths) {}
+
+  public record Position(Cursor cursor, int offset) {}
+
+  private record Entry(Cursor cursor, Instant expiresAt) {}
+
+  public Cursor register(FileMetadata metadata, String query, List<String> paths) {
+    evictExpired();
+    Cursor cursor = new Cursor(UUID.randomUUID().toString(), metadata, query, paths);
+    entries.put(cursor.id(), new Entry(cursor, expiry()));
+    evictOverflow();
+    return cursor;
+  }
+
+  public String token(Cursor cursor, int offset) {
+    byte[] raw = (cursor.id() + ":" + offset).getBytes(StandardCharsets.UTF_8);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+  }
+
+  public Position resolve(String token) {
+    evictExpired();
+    String[] parts = decode(token);
+    Entry entry = entries.computeIfPresent(parts[0], (id, e) -> new Entry(e.cursor(), expiry()));
+    if (entry == null) {
+      throw new ServiceException(
+          ErrorType.INVALID_INPUT, "Cursor has expired, run the query again without a cursor");
+    }
+    return new Position(entry.cursor(), Integer.parseInt(parts[1]));
+  }
+
+  public void release(Cursor cursor) {
+    entries.remove(cursor.id());
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  private String[] decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      String[] parts = raw.split(":", 2);
+      if (parts.length == 2 && Integer.parseInt(parts[1]) >= 0) {
+        return parts;
+      }
+    } catch (IllegalArgumentException _) {
+      // reported as an invalid cursor below
+    }
+    throw new ServiceException(ErrorType.INVALID_INPUT, "Invalid cursor");
+  }
+
+  private Instant expiry() {
+    return Instant.now().plus(queryProperties.getCursorTtl());
+  }
+
+  private void evictExpired() {
+    Instant now = Instant.now();
+    entries.values().removeIf(entry -> entry.expiresAt().isBefore(now));
+  }
+
+  private void evictOverflow() {
+    while (entries.size() > queryProperties.getCursorMaxEntries()) {
+      entries.values().stream()
+          .min((a, b) -> a.expiresAt().compareTo(b.expiresAt()))
+          .ifPresent(oldest -> entries.remove(oldest.cursor().id()));
+    }
+  }
+}
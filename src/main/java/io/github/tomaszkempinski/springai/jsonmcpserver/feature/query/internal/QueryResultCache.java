@@ -0,0 +1,156 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal;
+
+import com.jayway.jsonpath.JsonPath;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.QueryProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileChangedEvent;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/** Serialized {@code query_json} responses of a file version, weighted by their size. */
+@Component
+@Slf4j
+public class QueryResultCache {
+
+  private final boolean enabled;
+  private final long maxWeightBytes;
+  private final Duration ttl;
+  private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long weightBytes;
+
+  public QueryResultCache(QueryProperties queryProperties) {
+    QueryProperties.ResultCache resultCache = queryProperties.getResultCache();
+    this.enabled = resultCache.isEnabled();
+    this.maxWeightBytes = resultCache.getMaxSize().toBytes();
+    this.ttl = resultCache.getTtl();
+  }
+
+  private record Key(Path path, String expression, boolean ordered) {}
+
+  private record Entry(FileMetadata metadata, String response, Instant expiresAt) {
+    long weight() {
+      // UTF-16 characters of the response plus the key
+      return 2L * response.length() + 2L * metadata.path().toString().length();
+    }
+  }
+
+  public Optional<String> lookup(
+      FileMetadata metadata, String expression, JsonPath jsonPath, boolean ordered) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    Key key = key(metadata, expression, jsonPath, ordered);
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      if (entry == null) {
+        return Optional.empty();
+      }
+      if (!entry.metadata().isSameVersion(metadata) || entry.expiresAt().isBefore(Instant.now())) {
+        remove(key);
+        return Optional.empty();
+      }
+      return Optional.of(entry.response());
+    }
+  }
+
+  public void store(
+      FileMetadata metadata,
+      String expression,
+      JsonPath jsonPath,
+      boolean ordered,
+      String response) {
+    if (!enabled) {
+      return;
+    }
+    Key key = key(metadata, expression, jsonPath, ordered);
+    Entry entry = new Entry(metadata, response, Instant.now().plus(ttl));
+    if (entry.weight() > maxWeightBytes) {
+      log.debug("Result of {} on {} exceeds cache ceiling, not caching", expression, key.path());
+      return;
+    }
+    synchronized (this) {
+      remove(key);
+      entries.put(key, entry);
+      weightBytes += entry.weight();
+      Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+      while (weightBytes > maxWeightBytes && eldest.hasNext()) {
+        weightBytes -= eldest.next().getValue().weight();
+        eldest.remove();
+      }
+    }
+  }
+
+  @EventListener
+  public synchronized void onFileChanged(FileChangedEvent event) {
+    Path path = event.path().toAbsolutePath().normalize();
+    Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Key, Entry> entry = iterator.next();
+      if (entry.getKey().path().equals(path)) {
+        weightBytes -= entry.getValue().weight();
+        iterator.remove();
+      }
+    }
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  private void remove(Key key) {
+    Entry removed = entries.remove(key);
+    if (removed != null) {
+      weightBytes -= removed.weight();
+    }
+  }
+
+  private static Key key(
+      FileMetadata metadata, String expression, JsonPath jsonPath, boolean ordered) {
+    return new Key(
+        metadata.path().toAbsolutePath().normalize(), normalize(expression, jsonPath), ordered);
+  }
+
+  /**
+   * Uses the bracket notation of the compiled path, so {@code $.a.b} and {@code $['a']['b']} share
+   * an entry. It prints filters as {@code [?]}, so those fall back to the source without
+   * whitespace.
+   */
+  static String normalize(String expression, JsonPath jsonPath) {
+    String path = jsonPath.getPath();
+    if (!path.contains("[?]")) {
+      return path;
+    }
+    StringBuilder normalized = new StringBuilder(expression.length());
+    char quote = 0;
+    boolean space = false;
+    for (char c : expression.strip().toCharArray()) {
+      if (quote == 0 && Character.isWhitespace(c)) {
+        space = true;
+        continue;
+      }
+      if (space && isWordPart(normalized.charAt(normalized.length() - 1)) && isWordPart(c)) {
+        normalized.append(' ');
+      }
+      space = false;
+      if (quote == 0 && (c == '\'' || c == '"' || c == '/')) {
+        quote = c;
+      } else if (c == quote && normalized.charAt(normalized.length() - 1) != '\\') {
+        quote = 0;
+      }
+      normalized.append(c);
+    }
+    return normalized.toString();
+  }
+
+  private static boolean isWordPart(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '@';
+  }
+}
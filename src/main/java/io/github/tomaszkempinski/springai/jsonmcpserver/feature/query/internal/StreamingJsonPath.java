@@ -0,0 +1,211 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public record StreamingJsonPath(String expression, List<Segment> segments) {
+
+  private static final Pattern NAME = Pattern.compile("[A-Za-z_$][\\w$-]*");
+  private static final Pattern INDEX = Pattern.compile("\\d+");
+  private static final Pattern SLICE = Pattern.compile("(\\d*):(\\d*)");
+  private static final Pattern QUOTED = Pattern.compile("'([^'\\\\]*)'|\"([^\"\\\\]*)\"");
+  private static final Pattern FILTER =
+      Pattern.compile(
+          "\\?\\(\\s*@((?:\\.[A-Za-z_$][\\w$-]*|\\['[^'\\\\]*'])+)"
+              + "\\s*(==|!=|<=|>=|<|>)\\s*(.+?)\\s*\\)");
+  private static final Pattern FILTER_FIELD =
+      Pattern.compile("\\.([A-Za-z_$][\\w$-]*)|\\['([^']*)']");
+  private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?");
+
+  public sealed interface Segment {}
+
+  public record Field(String name) implements Segment {}
+
+  public record Wildcard() implements Segment {}
+
+  public record Index(int index) implements Segment {}
+
+  public record Slice(int from, int to) implements Segment {
+    boolean contains(int index) {
+      return index >= from && index < to;
+    }
+  }
+
+  public record Filter(List<String> fieldPath, Operator operator, JsonNode literal)
+      implements Segment {}
+
+  /**
+   * The elements of an array, or any other value itself. Never compiled from an expression, see
+   * {@link #elements()}.
+   */
+  public record Elements() implements Segment {}
+
+  public enum Operator {
+    EQ,
+    NE,
+    LT,
+    LE,
+    GT,
+    GE;
+
+    static Operator of(String symbol) {
+      return switch (symbol) {
+        case "==" -> EQ;
+        case "!=" -> NE;
+        case "<" -> LT;
+        case "<=" -> LE;
+        case ">" -> GT;
+        default -> GE;
+      };
+    }
+  }
+
+  public boolean isDefinite() {
+    return segments.stream().allMatch(s -> s instanceof Field || s instanceof Index);
+  }
+
+  /** Returns this path followed by the elements of the array it selects. */
+  public StreamingJsonPath elements() {
+    List<Segment> extended = new ArrayList<>(segments);
+    extended.add(new Elements());
+    return new StreamingJsonPath(expression, List.copyOf(extended));
+  }
+
+  public static Optional<StreamingJsonPath> compile(String expression) {
+    if (expression == null) {
+      return Optional.empty();
+    }
+    String path = expression.strip();
+    if (!path.startsWith("$")) {
+      return Optional.empty();
+    }
+    List<Segment> segments = new ArrayList<>();
+    int pos = 1;
+    while (pos < path.length()) {
+      char c = path.charAt(pos);
+      if (c == '.') {
+        if (pos + 1 < path.length() && path.charAt(pos + 1) == '.') {
+          return Optional.empty();
+        }
+        if (pos + 1 < path.length() && path.charAt(pos + 1) == '*') {
+          segments.add(new Wildcard());
+          pos += 2;
+          continue;
+        }
+        Matcher name = NAME.matcher(path).region(pos + 1, path.length());
+        if (!name.lookingAt()) {
+          return Optional.empty();
+        }
+        segments.add(new Field(name.group()));
+        pos = name.end();
+      } else if (c == '[') {
+        int end = closingBracket(path, pos);
+        if (end < 0) {
+          return Optional.empty();
+        }
+        Optional<Segment> segment = bracketSegment(path.substring(pos + 1, end).strip());
+        if (segment.isEmpty()) {
+          return Optional.empty();
+        }
+        segments.add(segment.get());
+        pos = end + 1;
+      } else {
+        return Optional.empty();
+      }
+    }
+    return Optional.of(new StreamingJsonPath(expression, List.copyOf(segments)));
+  }
+
+  private static Optional<Segment> bracketSegment(String content) {
+    if (content.equals("*")) {
+      return Optional.of(new Wildcard());
+    }
+    if (INDEX.matcher(content).matches()) {
+      return parseInt(content).map(Index::new);
+    }
+    Matcher slice = SLICE.matcher(content);
+    if (slice.matches()) {
+      Optional<Integer> from = slice.group(1).isEmpty() ? Optional.of(0) : parseInt(slice.group(1));
+      Optional<Integer> to =
+          slice.group(2).isEmpty() ? Optional.of(Integer.MAX_VALUE) : parseInt(slice.group(2));
+      if (from.isEmpty() || to.isEmpty()) {
+        return Optional.empty();
+      }
+      return Optional.of(new Slice(from.get(), to.get()));
+    }
+    Matcher quoted = QUOTED.matcher(content);
+    if (quoted.matches()) {
+      return Optional.of(new Field(quoted.group(1) != null ? quoted.group(1) : quoted.group(2)));
+    }
+    Matcher filter = FILTER.matcher(content);
+    if (filter.matches()) {
+      Optional<JsonNode> literal = literal(filter.group(3));
+      if (literal.isEmpty()) {
+        return Optional.empty();
+      }
+      List<String> fieldPath = new ArrayList<>();
+      Matcher field = FILTER_FIELD.matcher(filter.group(1));
+      while (field.find()) {
+        fieldPath.add(field.group(1) != null ? field.group(1) : field.group(2));
+      }
+      return Optional.of(
+          new Filter(List.copyOf(fieldPath), Operator.of(filter.group(2)), literal.get()));
+    }
+    return Optional.empty();
+  }
+
+  private static Optional<JsonNode> literal(String text) {
+    JsonNodeFactory nodes = JsonNodeFactory.instance;
+    if (NUMBER.matcher(text).matches()) {
+      return Optional.of(nodes.numberNode(new BigDecimal(text)));
+    }
+    Matcher quoted = QUOTED.matcher(text);
+    if (quoted.matches()) {
+      String value = quoted.group(1) != null ? quoted.group(1) : quoted.group(2);
+      return Optional.of(nodes.textNode(value));
+    }
+    return switch (text) {
+      case "true" -> Optional.of(nodes.booleanNode(true));
+      case "false" -> Optional.of(nodes.booleanNode(false));
+      case "null" -> Optional.of(nodes.nullNode());
+      default -> Optional.empty();
+    };
+  }
+
+  private static Optional<Integer> parseInt(String text) {
+    try {
+      return Optional.of(Integer.parseInt(text));
+    } catch (NumberFormatException _) {
+      return Optional.empty();
+    }
+  }
+
+  private static int closingBracket(String path, int open) {
+    char quote = 0;
+    int depth = 0;
+    for (int i = open + 1; i < path.length(); i++) {
+      char c = path.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '\'' || c == '"') {
+        quote = c;
+      } else if (c == '[') {
+        depth++;
+      } else if (c == ']') {
+        if (depth == 0) {
+          return i;
+        }
+        depth--;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,202 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPath.Elements;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPath.Field;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPath.Filter;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPath.Index;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPath.Operator;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPath.Segment;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPath.Slice;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPath.Wildcard;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class StreamingJsonPathEvaluator {
+
+  private final ObjectMapper objectMapper;
+
+  public void evaluate(JsonParser parser, StreamingJsonPath path, Consumer<JsonNode> matches)
+      throws IOException {
+    parser.setCodec(objectMapper);
+    if (parser.nextToken() != null) {
+      evaluate(parser, path.segments(), 0, matches);
+    }
+  }
+
+  private void evaluate(
+      JsonParser parser, List<Segment> segments, int depth, Consumer<JsonNode> matches)
+      throws IOException {
+    RequestBudget.checkpoint();
+    if (depth == segments.size()) {
+      matches.accept(parser.readValueAsTree());
+      return;
+    }
+    JsonToken token = parser.currentToken();
+    switch (segments.get(depth)) {
+      case Field field when token == JsonToken.START_OBJECT -> {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          boolean selected = field.name().equals(parser.currentName());
+          parser.nextToken();
+          if (selected) {
+            evaluate(parser, segments, depth + 1, matches);
+          } else {
+            parser.skipChildren();
+          }
+        }
+      }
+      case Wildcard _ when token == JsonToken.START_OBJECT -> {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          parser.nextToken();
+          evaluate(parser, segments, depth + 1, matches);
+        }
+      }
+      case Wildcard _ when token == JsonToken.START_ARRAY -> {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          evaluate(parser, segments, depth + 1, matches);
+        }
+      }
+      case Elements _ when token == JsonToken.START_ARRAY -> {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          evaluate(parser, segments, depth + 1, matches);
+        }
+      }
+      case Elements _ -> evaluate(parser, segments, depth + 1, matches);
+      case Index index when token == JsonToken.START_ARRAY ->
+          evaluateElements(parser, segments, depth, matches, i -> i == index.index());
+      case Slice slice when token == JsonToken.START_ARRAY ->
+          evaluateElements(parser, segments, depth, matches, slice::contains);
+      case Filter filter when token == JsonToken.START_ARRAY -> {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          JsonNode element = parser.readValueAsTree();
+          if (matches(filter, element)) {
+            evaluate(element, segments, depth + 1, matches);
+          }
+        }
+      }
+      case Filter filter when token == JsonToken.START_OBJECT -> {
+        JsonNode element = parser.readValueAsTree();
+        if (matches(filter, element)) {
+          evaluate(element, segments, depth + 1, matches);
+        }
+      }
+      default -> parser.skipChildren();
+    }
+  }
+
+  private void evaluateElements(
+      JsonParser parser,
+      List<Segment> segments,
+      int depth,
+      Consumer<JsonNode> matches,
+      IntPredicate selected)
+      throws IOException {
+    int index = 0;
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      RequestBudget.checkpoint();
+      if (selected.test(index++)) {
+        evaluate(parser, segments, depth + 1, matches);
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  private void evaluate(
+      JsonNode node, List<Segment> segments, int depth, Consumer<JsonNode> matches) {
+    RequestBudget.checkpoint();
+    if (depth == segments.size()) {
+      matches.accept(node);
+      return;
+    }
+    switch (segments.get(depth)) {
+      case Field field when node.isObject() -> {
+        JsonNode child = node.get(field.name());
+        if (child != null) {
+          evaluate(child, segments, depth + 1, matches);
+        }
+      }
+      case Wildcard _ when node.isContainerNode() -> {
+        for (JsonNode child : node) {
+          evaluate(child, segments, depth + 1, matches);
+        }
+      }
+      case Elements _ when node.isArray() -> {
+        for (JsonNode child : node) {
+          evaluate(child, segments, depth + 1, matches);
+        }
+      }
+      case Elements _ -> evaluate(node, segments, depth + 1, matches);
+      case Index index when node.isArray() -> {
+        if (index.index() < node.size()) {
+          evaluate(node.get(index.index()), segments, depth + 1, matches);
+        }
+      }
+      case Slice slice when node.isArray() -> {
+        for (int i = slice.from(); i < Math.min(slice.to(), node.size()); i++) {
+          evaluate(node.get(i), segments, depth + 1, matches);
+        }
+      }
+      case Filter filter when node.isArray() -> {
+        for (JsonNode child : node) {
+          if (matches(filter, child)) {
+            evaluate(child, segments, depth + 1, matches);
+          }
+        }
+      }
+      case Filter filter when node.isObject() -> {
+        if (matches(filter, node)) {
+          evaluate(node, segments, depth + 1, matches);
+        }
+      }
+      default -> {}
+    }
+  }
+
+  private boolean matches(Filter filter, JsonNode element) {
+    JsonNode value = element;
+    for (String field : filter.fieldPath()) {
+      value = value.isObject() ? value.get(field) : null;
+      if (value == null) {
+        return filter.operator() == Operator.NE;
+      }
+    }
+    JsonNode literal = filter.literal();
+    return switch (filter.operator()) {
+      case EQ -> isEqual(value, literal);
+      case NE -> !isEqual(value, literal);
+      case LT -> isComparable(value, literal) && compare(value, literal) < 0;
+      case LE -> isComparable(value, literal) && compare(value, literal) <= 0;
+      case GT -> isComparable(value, literal) && compare(value, literal) > 0;
+      case GE -> isComparable(value, literal) && compare(value, literal) >= 0;
+    };
+  }
+
+  private boolean isEqual(JsonNode value, JsonNode literal) {
+    if (value.isNumber() && literal.isNumber()) {
+      return value.decimalValue().compareTo(literal.decimalValue()) == 0;
+    }
+    return value.equals(literal);
+  }
+
+  private boolean isComparable(JsonNode value, JsonNode literal) {
+    return (value.isNumber() && literal.isNumber()) || (value.isTextual() && literal.isTextual());
+  }
+
+  private int compare(JsonNode value, JsonNode literal) {
+    if (value.isNumber()) {
+      return value.decimalValue().compareTo(literal.decimalValue());
+    }
+    return value.textValue().compareTo(literal.textValue());
+  }
+}
@@ -0,0 +1,82 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.mcp.McpAsyncCalls;
+import lombok.RequiredArgsConstructor;
+import org.springaicommunity.mcp.annotation.McpTool;
+import org.springaicommunity.mcp.annotation.McpToolParam;
+import org.springaicommunity.mcp.context.McpAsyncRequestContext;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+public class JsonSchemaAsyncMcpTools {
+
+  private final SchemaGenerationService schemaGenerationService;
+  private final SchemaValidationService schemaValidationService;
+
+  @McpTool(
+      name = "generate_json_schema",
+      description = JsonSchemaToolDescriptions.GENERATE_JSON_SCHEMA)
+  public Mono<String> generateJsonSchema(
+      McpAsyncRequestContext context,
+      @McpToolParam(description = "The absolute path to the local JSON file") String absolutePath,
+      @McpToolParam(
+              description =
+                  "Number of top-level array items to infer the schema from (default: all items"
+                      + " for small files)",
+              required = false)
+          Integer sampleSize) {
+
+    return McpAsyncCalls.blocking(
+        () -> schemaGenerationService.generateSchema(absolutePath, sampleSize));
+  }
+
+  @McpTool(
+      name = "validate_json_schema",
+      description = JsonSchemaToolDescriptions.VALIDATE_JSON_SCHEMA)
+  public Mono<String> validateJsonSchema(
+      McpAsyncRequestContext context,
+      @McpToolParam(description = "JSON schema object to validate as a string", required = false)
+          String schema,
+      @McpToolParam(description = "Path to file containing JSON schema", required = false)
+          String schemaFilePath) {
+
+    return McpAsyncCalls.blocking(
+        () -> {
+          String schemaContent = schemaValidationService.loadSchemaContent(schema, schemaFilePath);
+          schemaValidationService.validateSchema(schemaContent);
+          return "JSON Schema is valid";
+        });
+  }
+
+  @McpTool(
+      name = "validate_json_document",
+      description = JsonSchemaToolDescriptions.VALIDATE_JSON_DOCUMENT)
+  public Mono<String> validateJsonDocument(
+      McpAsyncRequestContext context,
+      @McpToolParam(description = "The absolute path to the local JSON file to validate")
+          String absolutePath,
+      @McpToolParam(description = "JSON schema object as a string", required = false) String schema,
+      @McpToolParam(description = "Path to file containing JSON schema", required = false)
+          String schemaFilePath,
+      @McpToolParam(
+              description =
+                  "How errors are reported: fail_fast (first error only), capped (the first"
+                      + " maxErrors errors and the total count) or summary (error counts by"
+                      + " keyword and path pattern)",
+              required = false)
+          String mode,
+      @McpToolParam(
+              description = "Number of errors, or of groups in summary mode, to report",
+              required = false)
+          Integer maxErrors) {
+
+    return McpAsyncCalls.blocking(
+        () -> {
+          schemaValidationService.validateDocument(
+              absolutePath, schema, schemaFilePath, mode, maxErrors);
+          return "JSON document is valid";
+        });
+  }
+}
@@ -15,17 +15,23 @@ public class JsonSchemaMcpTools {
 
   @McpTool(
       name = "generate_json_schema",
-      description = "Generates a JSON schema from a local JSON file")
+      description = JsonSchemaToolDescriptions.GENERATE_JSON_SCHEMA)
   public String generateJsonSchema(
       McpSyncRequestContext context,
-      @McpToolParam(description = "The absolute path to the local JSON file") String absolutePath) {
+      @McpToolParam(description = "The absolute path to the local JSON file") String absolutePath,
+      @McpToolParam(
+              description =
+                  "Number of top-level array items to infer the schema from (default: all items"
+                      + " for small files)",
+              required = false)
+          Integer sampleSize) {
 
-    return schemaGenerationService.generateSchema(absolutePath);
+    return schemaGenerationService.generateSchema(absolutePath, sampleSize);
   }
 
   @McpTool(
       name = "validate_json_schema",
-      description = "Validates that a JSON schema is properly formed")
+      description = JsonSchemaToolDescriptions.VALIDATE_JSON_SCHEMA)
   public String validateJsonSchema(
       McpSyncRequestContext context,
       @McpToolParam(description = "JSON schema object to validate as a string", required = false)
@@ -37,4 +43,30 @@ public class JsonSchemaMcpTools {
     schemaValidationService.validateSchema(schemaContent);
     return "JSON Schema is valid";
   }
+
+  @McpTool(
+      name = "validate_json_document",
+      description = JsonSchemaToolDescriptions.VALIDATE_JSON_DOCUMENT)
+  public String validateJsonDocument(
+      McpSyncRequestContext context,
+      @McpToolParam(description = "The absolute path to the local JSON file to validate")
+          String absolutePath,
+      @McpToolParam(description = "JSON schema object as a string", required = false) String schema,
+      @McpToolParam(description = "Path to file containing JSON schema", required = false)
+          String schemaFilePath,
+      @McpToolParam(
+              description =
+                  "How errors are reported: fail_fast (first error only), capped (the first"
+                      + " maxErrors errors and the total count) or summary (error counts by"
+                      + " keyword and path pattern)",
+              required = false)
+          String mode,
+      @McpToolParam(
+              description = "Number of errors, or of groups in summary mode, to report",
+              required = false)
+          Integer maxErrors) {
+
+    schemaValidationService.validateDocument(absolutePath, schema, schemaFilePath, mode, maxErrors);
+    return "JSON document is valid";
+  }
 }
@@ -0,0 +1,18 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema;
+
+/** Descriptions of the schema tools, shared by the synchronous and asynchronous servers. */
+final class JsonSchemaToolDescriptions {
+
+  static final String GENERATE_JSON_SCHEMA =
+      "Generates a JSON schema from a local JSON file. Top-level arrays of large files are"
+          + " inferred from a sample of their items";
+
+  static final String VALIDATE_JSON_SCHEMA = "Validates that a JSON schema is properly formed";
+
+  static final String VALIDATE_JSON_DOCUMENT =
+      "Validates a local JSON file against a JSON schema given inline or as a file. Compiled"
+          + " schemas are cached, so repeated validations against the same schema are cheap."
+          + " Errors are capped, or can be reported fail-fast or as a summary";
+
+  private JsonSchemaToolDescriptions() {}
+}
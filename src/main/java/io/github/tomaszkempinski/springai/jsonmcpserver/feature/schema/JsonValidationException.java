@@ -6,12 +6,25 @@ import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
 import java.util.List;
 import lombok.Getter;
 
+/**
+ * Reports a failed validation. The errors may be only the first of {@link #getTotalErrors()}, and
+ * in summary mode the groups replace them.
+ */
 @Getter
 public class JsonValidationException extends ServiceException {
   private final transient List<Error> errors;
+  private final long totalErrors;
+  private final List<ValidationErrorGroup> groups;
 
   public JsonValidationException(String message, List<Error> errors) {
+    this(message, errors, errors.size(), List.of());
+  }
+
+  public JsonValidationException(
+      String message, List<Error> errors, long totalErrors, List<ValidationErrorGroup> groups) {
     super(ErrorType.VALIDATION_ERROR, message);
     this.errors = errors;
+    this.totalErrors = totalErrors;
+    this.groups = groups;
   }
 }
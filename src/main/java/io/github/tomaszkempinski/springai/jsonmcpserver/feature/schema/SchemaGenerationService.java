@@ -1,5 +1,5 @@
 package io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema;
 
 public interface SchemaGenerationService {
-  String generateSchema(String absolutePath);
+  String generateSchema(String absolutePath, Integer sampleSize);
 }
@@ -4,4 +4,16 @@ public interface SchemaValidationService {
   void validateSchema(String schemaContent);
 
   String loadSchemaContent(String schema, String schemaFilePath);
+
+  /**
+   * Validates the file against the schema and throws a {@link JsonValidationException} with the
+   * errors reported as the mode asks.
+   *
+   * @param mode {@code fail_fast}, {@code capped} or {@code summary}, or {@code null} for the
+   *     configured mode
+   * @param maxErrors number of errors, or of groups in summary mode, to report, or {@code null} for
+   *     the configured number
+   */
+  void validateDocument(
+      String absolutePath, String schema, String schemaFilePath, String mode, Integer maxErrors);
 }
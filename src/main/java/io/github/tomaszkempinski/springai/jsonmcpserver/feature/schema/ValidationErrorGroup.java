@@ -0,0 +1,10 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema;
+
+/**
+ * Errors of one schema keyword at locations that differ only in their array indexes.
+ *
+ * @param pathPattern instance location with every array index replaced by {@code *}
+ * @param example message of the first error of the group
+ */
+public record ValidationErrorGroup(
+    String keyword, String pathPattern, long count, String example) {}
@@ -0,0 +1,169 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.SchemaProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonLinesReader;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import org.springframework.stereotype.Component;
+
+// The inferrer is configured without value-based features (formats, enums, ranges, lengths,
+// examples), so replacing every value by a canonical one of the same JSON type and numeric kind
+// and dropping structural duplicates leaves the inferred schema unchanged. See
+// Config#jsonSchemaInferrer before enabling any of them.
+//
+// Items of a JSON array are parsed on the calling thread, since the array has no record
+// boundaries to split at; only the reduction of parsed chunks runs on the pool. JSON Lines files
+// are split into byte ranges and parsed in parallel as well.
+@Component
+public class ChunkedSchemaReducer {
+
+  private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+  private final ObjectMapper objectMapper;
+  private final SchemaProperties schemaProperties;
+  private final JsonLinesReader jsonLinesReader;
+  private final ForkJoinPool pool;
+
+  public ChunkedSchemaReducer(
+      ObjectMapper objectMapper,
+      SchemaProperties schemaProperties,
+      JsonLinesReader jsonLinesReader) {
+    this.objectMapper = objectMapper;
+    this.schemaProperties = schemaProperties;
+    this.jsonLinesReader = jsonLinesReader;
+    this.pool = new ForkJoinPool(schemaProperties.getParallel().getParallelism());
+  }
+
+  public ArrayNode distinctItems(JsonParser parser) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      throw new IllegalStateException("Parser must be positioned at the start of an array");
+    }
+    int chunkSize = schemaProperties.getParallel().getChunkSize();
+    Semaphore inFlight = new Semaphore(pool.getParallelism() * 2);
+    List<Future<Set<JsonNode>>> chunks = new ArrayList<>();
+
+    List<JsonNode> chunk = new ArrayList<>(chunkSize);
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      RequestBudget.checkpoint();
+      chunk.add(objectMapper.readTree(parser));
+      if (chunk.size() == chunkSize) {
+        chunks.add(submit(chunk, inFlight));
+        chunk = new ArrayList<>(chunkSize);
+      }
+    }
+    if (!chunk.isEmpty()) {
+      chunks.add(submit(chunk, inFlight));
+    }
+
+    Set<JsonNode> distinct = new LinkedHashSet<>();
+    for (Future<Set<JsonNode>> reduced : chunks) {
+      distinct.addAll(await(reduced));
+    }
+    return NODES.arrayNode().addAll(distinct);
+  }
+
+  /**
+   * Returns the distinct record skeletons of a JSON Lines file, reducing its chunks in parallel.
+   */
+  public List<JsonNode> distinctRecords(JsonFileSource source) throws IOException {
+    Set<JsonNode> distinct = new LinkedHashSet<>();
+    jsonLinesReader.forEachChunk(
+        source,
+        chunk -> {
+          Set<JsonNode> reduced = new LinkedHashSet<>();
+          try (JsonParser parser = chunk.createParser(objectMapper.getFactory())) {
+            parser.nextToken();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+              RequestBudget.checkpoint();
+              reduced.add(skeleton(objectMapper.readTree(parser)));
+            }
+          }
+          return reduced;
+        },
+        true,
+        distinct::addAll);
+    return List.copyOf(distinct);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    pool.shutdownNow();
+  }
+
+  private Future<Set<JsonNode>> submit(List<JsonNode> chunk, Semaphore inFlight) {
+    inFlight.acquireUninterruptibly();
+    RequestBudget budget = RequestBudget.current();
+    return pool.submit(
+        () -> {
+          try (RequestBudget.Scope _ = budget.bind()) {
+            Set<JsonNode> distinct = new LinkedHashSet<>();
+            for (JsonNode item : chunk) {
+              RequestBudget.checkpoint();
+              distinct.add(skeleton(item));
+            }
+            return distinct;
+          } finally {
+            inFlight.release();
+          }
+        });
+  }
+
+  private Set<JsonNode> await(Future<Set<JsonNode>> reduced) throws IOException {
+    try {
+      return reduced.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while inferring schema", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof ServiceException aborted) {
+        throw aborted;
+      }
+      throw new IOException("Inferring schema chunk: " + e.getCause().getMessage(), e.getCause());
+    }
+  }
+
+  static JsonNode skeleton(JsonNode node) {
+    return switch (node.getNodeType()) {
+      case OBJECT -> {
+        ObjectNode object = NODES.objectNode();
+        node.properties().forEach(field -> object.set(field.getKey(), skeleton(field.getValue())));
+        yield object;
+      }
+      case ARRAY -> {
+        Set<JsonNode> items = new LinkedHashSet<>();
+        node.forEach(item -> items.add(skeleton(item)));
+        yield NODES.arrayNode().addAll(items);
+      }
+      case STRING -> NODES.textNode("");
+      case NUMBER -> numberSkeleton(node);
+      case BOOLEAN -> NODES.booleanNode(true);
+      default -> node;
+    };
+  }
+
+  private static JsonNode numberSkeleton(JsonNode node) {
+    if (node.isIntegralNumber()) {
+      return NODES.numberNode(0);
+    }
+    boolean fractional = node.decimalValue().stripTrailingZeros().scale() > 0;
+    return NODES.numberNode(fractional ? 0.5 : 0.0);
+  }
+}
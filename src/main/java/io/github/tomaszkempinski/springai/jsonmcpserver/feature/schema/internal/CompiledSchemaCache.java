@@ -0,0 +1,100 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal;
+
+import com.networknt.schema.Schema;
+import com.networknt.schema.SchemaLocation;
+import com.networknt.schema.SchemaRegistry;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.SchemaProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.Hashing;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.stereotype.Component;
+
+/** Compiled schemas by content hash, evicted least recently used along with their sources. */
+@Component
+public class CompiledSchemaCache {
+
+  private static final String IRI_PREFIX = "urn:sha256:";
+
+  private final ObjectFactory<SchemaRegistry> schemaRegistry;
+  private final SchemaSources schemaSources;
+  private final Map<String, Schema> schemas;
+  private final Map<Path, FileSchema> fileSchemas;
+
+  public CompiledSchemaCache(
+      ObjectFactory<SchemaRegistry> schemaRegistry,
+      SchemaSources schemaSources,
+      SchemaProperties schemaProperties) {
+    this.schemaRegistry = schemaRegistry;
+    this.schemaSources = schemaSources;
+    this.schemas = lru(schemaProperties.getCompiledSchemaCacheSize());
+    this.fileSchemas = lru(schemaProperties.getCompiledSchemaCacheSize());
+  }
+
+  public Schema get(String content, Consumer<String> verifier) {
+    return compile(IRI_PREFIX + Hashing.sha256(content), content, verifier);
+  }
+
+  public Schema get(FileMetadata metadata, Supplier<String> reader, Consumer<String> verifier) {
+    Path key = metadata.path().toAbsolutePath().normalize();
+    FileSchema cached;
+    synchronized (fileSchemas) {
+      cached = fileSchemas.get(key);
+    }
+    if (cached != null && cached.metadata().isSameVersion(metadata)) {
+      Schema schema = cached(cached.iri());
+      if (schema != null) {
+        return schema;
+      }
+    }
+    String content = reader.get();
+    String iri = IRI_PREFIX + Hashing.sha256(content);
+    Schema schema = compile(iri, content, verifier);
+    synchronized (fileSchemas) {
+      fileSchemas.put(key, new FileSchema(metadata, iri));
+    }
+    return schema;
+  }
+
+  private Schema compile(String iri, String content, Consumer<String> verifier) {
+    Schema schema = cached(iri);
+    if (schema != null) {
+      return schema;
+    }
+    if (!schemaSources.contains(iri)) {
+      verifier.accept(content);
+      schemaSources.register(iri, content);
+    }
+    schema = schemaRegistry.getObject().getSchema(SchemaLocation.of(iri));
+    // References are resolved now, while the content is still registered.
+    schema.initializeValidators();
+    synchronized (schemas) {
+      Schema existing = schemas.putIfAbsent(iri, schema);
+      return existing != null ? existing : schema;
+    }
+  }
+
+  /** Returns the compiled schema while its content is still registered for reference lookups. */
+  private Schema cached(String iri) {
+    Schema schema;
+    synchronized (schemas) {
+      schema = schemas.get(iri);
+    }
+    return schema != null && schemaSources.contains(iri) ? schema : null;
+  }
+
+  private static <K, V> Map<K, V> lru(int maxEntries) {
+    return new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  private record FileSchema(FileMetadata metadata, String iri) {}
+}
@@ -0,0 +1,72 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import java.io.IOException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.JsonNodeFactory;
+import tools.jackson.databind.node.ObjectNode;
+
+/** Builds the Jackson 3 trees of the schema validator from the Jackson 2 parsers of the sources. */
+final class Jackson3Trees {
+
+  private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+  private Jackson3Trees() {}
+
+  /**
+   * Reads the value at the current token of the parser. Repeated member names keep their last
+   * value, as Jackson does.
+   *
+   * @throws IOException if the parser fails, or returns an embedded value other than binary data
+   */
+  static JsonNode read(JsonParser parser) throws IOException {
+    RequestBudget.checkpoint();
+    JsonToken token = parser.currentToken();
+    return switch (token) {
+      case START_OBJECT -> {
+        ObjectNode object = NODES.objectNode();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String name = parser.currentName();
+          parser.nextToken();
+          object.set(name, read(parser));
+        }
+        yield object;
+      }
+      case START_ARRAY -> {
+        ArrayNode array = NODES.arrayNode();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          array.add(read(parser));
+        }
+        yield array;
+      }
+      case VALUE_STRING -> NODES.stringNode(parser.getText());
+      case VALUE_NUMBER_INT ->
+          switch (parser.getNumberType()) {
+            case INT -> NODES.numberNode(parser.getIntValue());
+            case LONG -> NODES.numberNode(parser.getLongValue());
+            default -> NODES.numberNode(parser.getBigIntegerValue());
+          };
+      case VALUE_NUMBER_FLOAT ->
+          switch (parser.getNumberType()) {
+            case FLOAT -> NODES.numberNode(parser.getFloatValue());
+            case BIG_DECIMAL -> NODES.numberNode(parser.getDecimalValue());
+            default -> NODES.numberNode(parser.getDoubleValue());
+          };
+      case VALUE_TRUE -> NODES.booleanNode(true);
+      case VALUE_FALSE -> NODES.booleanNode(false);
+      case VALUE_NULL -> NODES.nullNode();
+      case VALUE_EMBEDDED_OBJECT -> {
+        if (parser.getEmbeddedObject() instanceof byte[] binary) {
+          yield NODES.binaryNode(binary);
+        }
+        throw new IOException(
+            "Unsupported embedded value of type "
+                + parser.getEmbeddedObject().getClass().getName());
+      }
+      case null, default -> throw new IOException("Unexpected token " + token);
+    };
+  }
+}
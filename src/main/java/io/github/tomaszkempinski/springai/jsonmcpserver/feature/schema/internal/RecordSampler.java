@@ -0,0 +1,55 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.SchemaProperties.SamplingMode;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class RecordSampler {
+
+  private final ObjectMapper objectMapper;
+
+  public record Sample(ArrayNode records, long totalRecords) {
+    public boolean isPartial() {
+      return records.size() < totalRecords;
+    }
+  }
+
+  public Sample sampleArray(JsonParser parser, SamplingMode mode, int sampleSize, long seed)
+      throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      throw new IllegalStateException("Parser must be positioned at the start of an array");
+    }
+    List<JsonNode> reservoir = new ArrayList<>(Math.min(sampleSize, 1024));
+    SplittableRandom random = new SplittableRandom(seed);
+    long total = 0;
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      RequestBudget.checkpoint();
+      if (reservoir.size() < sampleSize) {
+        reservoir.add(objectMapper.readTree(parser));
+      } else if (mode == SamplingMode.RESERVOIR) {
+        long slot = random.nextLong(total + 1);
+        if (slot < sampleSize) {
+          reservoir.set((int) slot, objectMapper.readTree(parser));
+        } else {
+          parser.skipChildren();
+        }
+      } else {
+        parser.skipChildren();
+      }
+      total++;
+    }
+    return new Sample(objectMapper.createArrayNode().addAll(reservoir), total);
+  }
+}
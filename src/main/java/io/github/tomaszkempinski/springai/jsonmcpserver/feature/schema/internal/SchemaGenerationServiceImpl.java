@@ -1,38 +1,146 @@
 package io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.saasquatch.jsonschemainferrer.JsonSchemaInferrer;
 import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.SchemaGenerationService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal.RecordSampler.Sample;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.SchemaProperties;
 import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.json.JsonMapper;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ErrorType;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.JsonDocumentService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileIngestionService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileValidationService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonLinesReader;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public class SchemaGenerationServiceImpl implements SchemaGenerationService {
 
-  private final JsonSchemaInferrer inferrer;
+  private final ObjectFactory<JsonSchemaInferrer> inferrer;
   private final ObjectMapper objectMapper;
   private final JsonMapper jsonMapper;
   private final FileValidationService fileValidationService;
+  private final FileIngestionService fileIngestionService;
+  private final RecordSampler recordSampler;
+  private final ChunkedSchemaReducer chunkedSchemaReducer;
+  private final SchemaProperties schemaProperties;
+  private final JsonLinesReader jsonLinesReader;
+  private final JsonDocumentService documentService;
 
   @Override
-  public String generateSchema(String absolutePath) {
-    Path path = fileValidationService.validateFileExists(absolutePath);
-    try (var is = Files.newInputStream(path)) {
-      JsonNode jsonNode = objectMapper.readTree(is);
-      JsonNode schema = inferrer.inferForSample(jsonNode);
-      return jsonMapper.toJsonString(schema);
+  public String generateSchema(String absolutePath, Integer sampleSize) {
+    if (sampleSize != null && sampleSize <= 0) {
+      throw new ServiceException(ErrorType.INVALID_INPUT, "Sample size must be greater than zero");
+    }
+    FileMetadata metadata = fileValidationService.validateFileExists(absolutePath);
+    SchemaProperties.Sampling sampling = schemaProperties.getSampling();
+    boolean sampled =
+        sampleSize != null || metadata.contentSize() >= sampling.getThreshold().toBytes();
+    SchemaProperties.Parallel parallel = schemaProperties.getParallel();
+    boolean chunked =
+        parallel.isEnabled() && metadata.contentSize() >= parallel.getThreshold().toBytes();
+
+    int size = sampleSize != null ? sampleSize : sampling.getSampleSize();
+
+    if (!sampled && !chunked) {
+      return jsonMapper.toJsonString(inferDocument(metadata));
+    }
+    Samples samples;
+    try (JsonFileSource source = fileIngestionService.open(metadata)) {
+      samples =
+          jsonLinesReader.isJsonLines(metadata)
+              ? readJsonLines(source, sampled, size, chunked)
+              : readDocument(source, sampled, size, chunked);
     } catch (IOException e) {
       throw new ServiceException(
           ErrorType.PROCESSING_ERROR, "Reading or processing JSON file: " + e.getMessage(), e);
     }
+    ObjectNode schema = inferrer.getObject().inferForSamples(samples.samples());
+    if (samples.sample() != null) {
+      describeSample(schema, samples.sample(), samples.unit());
+    }
+    return jsonMapper.toJsonString(schema);
+  }
+
+  /**
+   * Infers the schema from the shared document, so a file that was just queried is not parsed
+   * again. The schema of a JSON Lines file describes a single record.
+   */
+  private ObjectNode inferDocument(FileMetadata metadata) {
+    JsonNode document = documentService.get(metadata);
+    if (!jsonLinesReader.isJsonLines(metadata)) {
+      return inferrer.getObject().inferForSample(document);
+    }
+    List<JsonNode> records = new ArrayList<>(document.size());
+    document.forEach(records::add);
+    return inferrer.getObject().inferForSamples(records);
+  }
+
+  /** Reads the sampled or reduced items of a top-level array, or the whole document. */
+  private Samples readDocument(JsonFileSource source, boolean sampled, int size, boolean chunked)
+      throws IOException {
+    SchemaProperties.Sampling sampling = schemaProperties.getSampling();
+    try (JsonParser parser = source.createParser(objectMapper.getFactory())) {
+      boolean array = parser.nextToken() == JsonToken.START_ARRAY;
+      if (array && sampled) {
+        Sample sample =
+            recordSampler.sampleArray(parser, sampling.getMode(), size, sampling.getSeed());
+        return new Samples(List.of(sample.records()), sample, "array items");
+      }
+      if (array && chunked) {
+        return new Samples(List.of(chunkedSchemaReducer.distinctItems(parser)), null, null);
+      }
+      return new Samples(List.of(objectMapper.readTree(parser)), null, null);
+    }
+  }
+
+  /**
+   * Reads the records the schema of a single record is inferred from, which is what every line of
+   * the file is checked against.
+   */
+  private Samples readJsonLines(
+      JsonFileSource source, boolean sampled, int sampleSize, boolean chunked) throws IOException {
+    if (chunked && !sampled) {
+      return new Samples(chunkedSchemaReducer.distinctRecords(source), null, null);
+    }
+    SchemaProperties.Sampling sampling = schemaProperties.getSampling();
+    try (JsonParser parser = jsonLinesReader.createParser(source, objectMapper.getFactory())) {
+      parser.nextToken();
+      Sample sample =
+          recordSampler.sampleArray(parser, sampling.getMode(), sampleSize, sampling.getSeed());
+      List<JsonNode> records = new ArrayList<>(sample.records().size());
+      sample.records().forEach(records::add);
+      return new Samples(records, sample, "records");
+    }
+  }
+
+  /** The samples passed to the inferrer, and the sample to describe in the schema, if any. */
+  private record Samples(List<JsonNode> samples, Sample sample, String unit) {}
+
+  private void describeSample(ObjectNode schema, Sample sample, String unit) {
+    if (sample.isPartial()) {
+      schema.put(
+          "$comment",
+          "Inferred from a %s sample of %d out of %d %s"
+              .formatted(
+                  schemaProperties.getSampling().getMode().name().toLowerCase(Locale.ROOT),
+                  sample.records().size(),
+                  sample.totalRecords(),
+                  unit));
+    }
   }
 }
@@ -0,0 +1,47 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.SchemaProperties;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+
+/**
+ * The contents of the schemas passed to the validation tools, by the IRI they are registered under.
+ * Only the most recently used ones are kept, as many as {@link CompiledSchemaCache} keeps compiled.
+ */
+@Component
+public class SchemaSources implements Function<String, String> {
+
+  private final Map<String, String> sources;
+
+  public SchemaSources(SchemaProperties schemaProperties) {
+    int maxEntries = schemaProperties.getCompiledSchemaCacheSize();
+    this.sources =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > maxEntries;
+          }
+        };
+  }
+
+  public boolean contains(String iri) {
+    synchronized (sources) {
+      return sources.get(iri) != null;
+    }
+  }
+
+  public void register(String iri, String content) {
+    synchronized (sources) {
+      sources.putIfAbsent(iri, content);
+    }
+  }
+
+  @Override
+  public String apply(String iri) {
+    synchronized (sources) {
+      return sources.get(iri);
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal;
+
+import com.networknt.schema.Schema;
+import com.networknt.schema.SchemaLocation;
+import com.networknt.schema.SchemaRegistry;
+import com.networknt.schema.dialect.Dialects;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * The schema registry, loading from {@link SchemaSources} and caching in {@link
+ * CompiledSchemaCache}.
+ */
+@Configuration
+public class SchemaValidationConfig {
+
+  @Bean
+  @Lazy
+  public SchemaRegistry schemaRegistry(SchemaSources schemaSources) {
+    return SchemaRegistry.withDialect(
+        Dialects.getDraft202012(),
+        builder -> builder.schemas(schemaSources).schemaCacheEnabled(false));
+  }
+
+  @Bean
+  @Lazy
+  public Schema metaSchema(SchemaRegistry schemaRegistry) {
+    return schemaRegistry.getSchema(SchemaLocation.of(Dialects.getDraft202012().getId()));
+  }
+}
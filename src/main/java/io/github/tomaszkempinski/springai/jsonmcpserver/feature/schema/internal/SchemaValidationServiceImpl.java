@@ -1,37 +1,54 @@
 package io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.networknt.schema.Error;
+import com.networknt.schema.ExecutionContext;
 import com.networknt.schema.InputFormat;
 import com.networknt.schema.Schema;
 import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.JsonValidationException;
 import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.SchemaValidationService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.SchemaProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.SchemaProperties.ValidationMode;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ErrorType;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileIngestionService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileValidationService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonLinesReader;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.List;
+import java.util.Locale;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public class SchemaValidationServiceImpl implements SchemaValidationService {
 
-  private final Schema metaSchema;
+  private final ObjectFactory<Schema> metaSchema;
   private final FileValidationService fileValidationService;
+  private final FileIngestionService fileIngestionService;
+  private final CompiledSchemaCache compiledSchemaCache;
+  private final JsonLinesReader jsonLinesReader;
+  private final ObjectMapper objectMapper;
+  private final SchemaProperties schemaProperties;
 
   @Override
   public void validateSchema(String schemaContent) {
     try {
       List<Error> errors =
-          metaSchema.validate(
-              schemaContent,
-              InputFormat.JSON,
-              executionContext ->
-                  executionContext.executionConfig(
-                      executionConfig -> executionConfig.formatAssertionsEnabled(true)));
+          metaSchema
+              .getObject()
+              .validate(
+                  schemaContent,
+                  InputFormat.JSON,
+                  executionContext ->
+                      executionContext.executionConfig(
+                          executionConfig -> executionConfig.formatAssertionsEnabled(true)));
 
       if (!errors.isEmpty()) {
         throw new JsonValidationException("JSON schema validation failed", errors);
@@ -51,18 +68,158 @@ public class SchemaValidationServiceImpl implements SchemaValidationService {
     if (schema != null && !schema.isBlank()) {
       return schema;
     } else if (schemaFilePath != null && !schemaFilePath.isBlank()) {
-      Path path = fileValidationService.validateFileExists(schemaFilePath);
-      return readFileContent(path);
+      FileMetadata metadata = fileValidationService.validateFileExists(schemaFilePath);
+      return readFileContent(metadata, "Reading schema file: ");
     } else {
       throw new ServiceException(ErrorType.INVALID_INPUT, "Invalid input");
     }
   }
 
-  private String readFileContent(Path path) {
+  @Override
+  public void validateDocument(
+      String absolutePath, String schema, String schemaFilePath, String mode, Integer maxErrors) {
+    ValidationMode validationMode = validationMode(mode);
+    int errorLimit =
+        maxErrors != null ? maxErrors : schemaProperties.getValidation().getMaxErrors();
+    if (errorLimit <= 0) {
+      throw new ServiceException(ErrorType.INVALID_INPUT, "Max errors must be greater than zero");
+    }
+    FileMetadata metadata = fileValidationService.validateFileExists(absolutePath);
+    Schema compiled = loadSchema(schema, schemaFilePath);
+    ValidationErrors errors = new ValidationErrors(validationMode, errorLimit);
+    if (jsonLinesReader.isJsonLines(metadata)) {
+      validateJsonLines(metadata, compiled, errors);
+    } else {
+      tools.jackson.databind.JsonNode document = readDocument(metadata);
+      try {
+        compiled.validate(document, executionContext -> collectInto(executionContext, errors));
+      } catch (Exception e) {
+        throw new ServiceException(
+            ErrorType.PROCESSING_ERROR, "Reading or parsing JSON file: " + e.getMessage(), e);
+      }
+    }
+    if (errors.total() > 0) {
+      throw errors.toException("JSON document validation failed");
+    }
+  }
+
+  /** Reads the document straight into a validator tree rather than copying a cached one. */
+  private tools.jackson.databind.JsonNode readDocument(FileMetadata metadata) {
+    try (JsonFileSource source = fileIngestionService.open(metadata);
+        JsonParser parser = source.createParser(objectMapper.getFactory())) {
+      if (parser.nextToken() == null) {
+        throw new ServiceException(
+            ErrorType.PROCESSING_ERROR, "Reading or parsing JSON file: no content");
+      }
+      return Jackson3Trees.read(parser);
+    } catch (IOException e) {
+      throw new ServiceException(
+          ErrorType.PROCESSING_ERROR, "Reading or parsing JSON file: " + e.getMessage(), e);
+    }
+  }
+
+  private ValidationMode validationMode(String mode) {
+    if (mode == null || mode.isBlank()) {
+      return schemaProperties.getValidation().getMode();
+    }
     try {
-      return Files.readString(path);
+      return ValidationMode.valueOf(mode.strip().replace('-', '_').toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException _) {
+      throw new ServiceException(
+          ErrorType.INVALID_INPUT,
+          "Unknown validation mode '" + mode + "', expected fail_fast, capped or summary");
+    }
+  }
+
+  /**
+   * Makes the validator write its errors straight into the bounded list, and stop at the first one
+   * in fail-fast mode.
+   */
+  private static void collectInto(ExecutionContext executionContext, ValidationErrors errors) {
+    executionContext.executionConfig(
+        executionConfig ->
+            executionConfig
+                .formatAssertionsEnabled(true)
+                .failFast(errors.mode() == ValidationMode.FAIL_FAST));
+    executionContext.setErrors(errors.list());
+  }
+
+  /** Validates the records in parallel chunks, reporting locations like {@code $[41].name}. */
+  private void validateJsonLines(FileMetadata metadata, Schema compiled, ValidationErrors errors) {
+    long[] recordsBefore = new long[1];
+    try (JsonFileSource source = fileIngestionService.open(metadata)) {
+      jsonLinesReader.forEachChunk(
+          source,
+          chunk -> validateRecords(compiled, chunk.readRecords(), errors),
+          true,
+          result -> {
+            if (result.failure() != null) {
+              throw new ServiceException(
+                  ErrorType.PROCESSING_ERROR,
+                  "Reading or parsing JSON file: record %d: %s"
+                      .formatted(recordsBefore[0] + result.failedRecord(), result.failure()));
+            }
+            errors.merge(result.errors(), recordsBefore[0]);
+            if (errors.stopped()) {
+              throw errors.toException("JSON document validation failed");
+            }
+            recordsBefore[0] += result.records();
+          });
+    } catch (IOException e) {
+      throw new ServiceException(ErrorType.IO_ERROR, "Reading JSON file: " + e.getMessage(), e);
+    }
+  }
+
+  /** Validates records into a list shaped like the run's, with errors located by record index. */
+  private static ChunkResult validateRecords(
+      Schema compiled, List<String> records, ValidationErrors run) {
+    ValidationErrors errors = run.emptyCopy();
+    for (int i = 0; i < records.size() && !errors.stopped(); i++) {
+      RequestBudget.checkpoint();
+      errors.startRecord(i);
+      try {
+        compiled.validate(
+            records.get(i),
+            InputFormat.JSON,
+            executionContext -> collectInto(executionContext, errors));
+      } catch (Exception e) {
+        return new ChunkResult(records.size(), errors, i, e.getMessage());
+      }
+    }
+    return new ChunkResult(records.size(), errors, -1, null);
+  }
+
+  private record ChunkResult(
+      int records, ValidationErrors errors, int failedRecord, String failure) {}
+
+  private Schema loadSchema(String schema, String schemaFilePath) {
+    try {
+      if (schema != null && !schema.isBlank()) {
+        return compiledSchemaCache.get(schema, this::validateSchema);
+      } else if (schemaFilePath != null && !schemaFilePath.isBlank()) {
+        FileMetadata metadata = fileValidationService.validateFileExists(schemaFilePath);
+        return compiledSchemaCache.get(
+            metadata,
+            () -> readFileContent(metadata, "Reading schema file: "),
+            this::validateSchema);
+      } else {
+        throw new ServiceException(ErrorType.INVALID_INPUT, "Invalid input");
+      }
+    } catch (ServiceException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new ServiceException(
+          ErrorType.PROCESSING_ERROR,
+          "Compiling JSON schema: " + e.getMessage(),
+          "Compiling JSON schema: " + e.getMessage());
+    }
+  }
+
+  private String readFileContent(FileMetadata metadata, String errorPrefix) {
+    try (JsonFileSource source = fileIngestionService.open(metadata)) {
+      return source.readString();
     } catch (IOException e) {
-      throw new ServiceException(ErrorType.IO_ERROR, "Reading schema file: " + e.getMessage(), e);
+      throw new ServiceException(ErrorType.IO_ERROR, errorPrefix + e.getMessage(), e);
     }
   }
 }
@@ -0,0 +1,200 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal;
+
+import com.networknt.schema.Error;
+import com.networknt.schema.path.NodePath;
+import com.networknt.schema.path.PathType;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.JsonValidationException;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.ValidationErrorGroup;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.SchemaProperties.ValidationMode;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The errors of a validation run. The {@link #list() list} keeps only the first errors, or counts
+ * per keyword and path pattern in summary mode, and counts the rest. Not thread-safe.
+ */
+final class ValidationErrors {
+
+  private final ValidationMode mode;
+  private final int maxErrors;
+  private final CappedList kept = new CappedList();
+  private final Map<String, Group> groups = new LinkedHashMap<>();
+  private long notKept;
+  private int record = -1;
+
+  ValidationErrors(ValidationMode mode, int maxErrors) {
+    this.mode = mode;
+    this.maxErrors = mode == ValidationMode.FAIL_FAST ? 1 : maxErrors;
+  }
+
+  ValidationMode mode() {
+    return mode;
+  }
+
+  /** Returns an empty list with the same mode and limit, for a chunk of JSON Lines records. */
+  ValidationErrors emptyCopy() {
+    return new ValidationErrors(mode, maxErrors);
+  }
+
+  /** Locates the errors added next in the record with the index in its JSON Lines chunk. */
+  void startRecord(int record) {
+    this.record = record;
+  }
+
+  /** The list for {@code ExecutionContext.setErrors}. */
+  List<Error> list() {
+    return kept;
+  }
+
+  long total() {
+    return kept.size() + notKept;
+  }
+
+  /** Whether a fail-fast run has found its error and the remaining input can be skipped. */
+  boolean stopped() {
+    return mode == ValidationMode.FAIL_FAST && total() > 0;
+  }
+
+  /**
+   * Adds the errors of a chunk of JSON Lines records, moving the kept ones to the index of their
+   * record in the file.
+   */
+  void merge(ValidationErrors chunk, long recordsBefore) {
+    notKept += chunk.notKept;
+    for (Error error : chunk.kept) {
+      if (kept.size() < maxErrors) {
+        kept.elements.add(atRecord(error, recordsBefore, 1));
+      } else {
+        notKept++;
+      }
+    }
+    chunk.groups.forEach(
+        (key, group) ->
+            groups.merge(
+                key,
+                group,
+                (existing, added) -> {
+                  existing.count += added.count;
+                  return existing;
+                }));
+  }
+
+  JsonValidationException toException(String message) {
+    List<ValidationErrorGroup> reported =
+        groups.values().stream()
+            .sorted(Comparator.comparingLong((Group group) -> group.count).reversed())
+            .limit(maxErrors)
+            .map(
+                group ->
+                    new ValidationErrorGroup(
+                        group.keyword, group.pattern, group.count, group.example))
+            .toList();
+    return new JsonValidationException(message, List.copyOf(kept), total(), reported);
+  }
+
+  /**
+   * Prefixes the location with a record index. When the location already starts with the index of
+   * the record in its chunk, the first element is replaced by the index shifted by the records of
+   * the chunks before it.
+   */
+  private static Error atRecord(Error error, long record, int skipped) {
+    NodePath original = error.getInstanceLocation();
+    long index = skipped > 0 ? record + (Integer) original.getElement(0) : record;
+    NodePath location = new NodePath(PathType.JSON_PATH).append((int) index);
+    for (int i = skipped; i < original.getNameCount(); i++) {
+      location =
+          original.getElement(i) instanceof Integer element
+              ? location.append(element)
+              : location.append(original.getName(i));
+    }
+    return Error.builder()
+        .keyword(error.getKeyword())
+        .instanceLocation(location)
+        .evaluationPath(error.getEvaluationPath())
+        .schemaLocation(error.getSchemaLocation())
+        .arguments(error.getArguments())
+        .details(error.getDetails())
+        .messageKey(error.getMessageKey())
+        .message(error.getMessage())
+        .instanceNode(error.getInstanceNode())
+        .schemaNode(error.getSchemaNode())
+        .build();
+  }
+
+  /** Renders the location with its array indexes replaced, like {@code .items[*].price}. */
+  private static String pattern(NodePath location) {
+    StringBuilder pattern = new StringBuilder();
+    for (int i = 0; i < location.getNameCount(); i++) {
+      if (location.getElement(i) instanceof Integer) {
+        pattern.append("[*]");
+      } else {
+        pattern.append('.').append(location.getName(i));
+      }
+    }
+    return pattern.toString();
+  }
+
+  /**
+   * Keeps errors up to the limit, in summary mode none, and counts the others instead. Its size,
+   * elements and sublists are those of the kept errors, so the validator's checks for new errors
+   * only see errors while the limit is not reached.
+   */
+  private final class CappedList extends AbstractList<Error> {
+    private final List<Error> elements = new ArrayList<>();
+
+    @Override
+    public void add(int index, Error error) {
+      if (mode == ValidationMode.SUMMARY) {
+        String pattern = (record >= 0 ? "$[*]" : "$") + pattern(error.getInstanceLocation());
+        groups.computeIfAbsent(
+                error.getKeyword() + " " + pattern,
+                _ -> new Group(error.getKeyword(), pattern, error.getMessage()))
+            .count++;
+        notKept++;
+      } else if (elements.size() < maxErrors) {
+        elements.add(index, record >= 0 ? atRecord(error, record, 0) : error);
+        modCount++;
+      } else {
+        notKept++;
+      }
+    }
+
+    @Override
+    public Error get(int index) {
+      return elements.get(index);
+    }
+
+    @Override
+    public Error set(int index, Error error) {
+      return elements.set(index, error);
+    }
+
+    @Override
+    public Error remove(int index) {
+      modCount++;
+      return elements.remove(index);
+    }
+
+    @Override
+    public int size() {
+      return elements.size();
+    }
+  }
+
+  private static final class Group {
+    private final String keyword;
+    private final String pattern;
+    private final String example;
+    private long count;
+
+    private Group(String keyword, String pattern, String example) {
+      this.keyword = keyword;
+      this.pattern = pattern;
+      this.example = example;
+    }
+  }
+}
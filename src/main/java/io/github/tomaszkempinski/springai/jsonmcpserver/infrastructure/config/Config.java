@@ -1,29 +1,39 @@
 package io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config;
 
-import com.networknt.schema.Schema;
-import com.networknt.schema.SchemaLocation;
-import com.networknt.schema.SchemaRegistry;
-import com.networknt.schema.dialect.Dialects;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
 import com.saasquatch.jsonschemainferrer.JsonSchemaInferrer;
 import com.saasquatch.jsonschemainferrer.SpecVersion;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.CheckpointingJsonProvider;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.CompactJsonProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
+/** Libraries are lazy, so a stdio session loads only those of the tools it calls. */
 @Configuration
 public class Config {
 
   @Bean
-  public JsonSchemaInferrer jsonSchemaInferrer() {
-    return JsonSchemaInferrer.newBuilder().setSpecVersion(SpecVersion.DRAFT_2020_12).build();
+  @Lazy
+  public com.jayway.jsonpath.Configuration jsonPathConfiguration(
+      ObjectMapper objectMapper, FileProperties fileProperties) {
+    JsonProvider jsonProvider =
+        fileProperties.getDocumentCache().getRepresentation()
+                == FileProperties.Representation.COMPACT
+            ? new CompactJsonProvider(objectMapper)
+            : new CheckpointingJsonProvider(objectMapper);
+    return com.jayway.jsonpath.Configuration.builder()
+        .jsonProvider(jsonProvider)
+        .mappingProvider(new JacksonMappingProvider(objectMapper))
+        .build();
   }
 
+  // ChunkedSchemaReducer relies on no value-based feature (formats, enums, ranges) being enabled
   @Bean
-  public SchemaRegistry schemaRegistry() {
-    return SchemaRegistry.withDialect(Dialects.getDraft202012());
-  }
-
-  @Bean
-  public Schema metaSchema(SchemaRegistry schemaRegistry) {
-    return schemaRegistry.getSchema(SchemaLocation.of(Dialects.getDraft202012().getId()));
+  @Lazy
+  public JsonSchemaInferrer jsonSchemaInferrer() {
+    return JsonSchemaInferrer.newBuilder().setSpecVersion(SpecVersion.DRAFT_2020_12).build();
   }
 }
@@ -0,0 +1,34 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+@ConfigurationProperties(prefix = "mcp.tools.execution")
+@Getter
+@Setter
+public class ExecutionProperties {
+  private boolean virtualThreads = true;
+  private boolean coalesceRequests = true;
+  private Budget budget = new Budget(Duration.ofMinutes(5), DataSize.ofBytes(0));
+
+  /** Budgets of single tools by tool name. Limits left unset fall back to {@link #budget}. */
+  private Map<String, Budget> toolBudgets = new HashMap<>();
+
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Budget {
+    private Duration timeout;
+    private DataSize maxAllocation;
+  }
+}
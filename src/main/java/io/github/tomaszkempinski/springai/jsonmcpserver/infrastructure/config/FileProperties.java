@@ -1,15 +1,81 @@
 package io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config;
 
+import java.time.Duration;
 import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
 @Configuration
 @ConfigurationProperties(prefix = "mcp.tools.file")
 @Getter
 @Setter
 public class FileProperties {
-  private List<String> allowedExtensions = List.of(".json");
+  private List<String> allowedExtensions = List.of(".json", ".jsonl", ".ndjson");
+  private DataSize memoryMappingThreshold = DataSize.ofMegabytes(1);
+  private DocumentCache documentCache = new DocumentCache();
+  private Bulkhead bulkhead = new Bulkhead();
+  private Watch watch = new Watch();
+  private JsonLines jsonLines = new JsonLines();
+  private Compression compression = new Compression();
+  private ParseCache parseCache = new ParseCache();
+
+  public enum Representation {
+    TREE,
+    COMPACT
+  }
+
+  @Getter
+  @Setter
+  public static class DocumentCache {
+    private boolean enabled = true;
+    private DataSize maxSize = DataSize.ofMegabytes(512);
+    private Representation representation = Representation.TREE;
+    private boolean offHeap = false;
+  }
+
+  @Getter
+  @Setter
+  public static class Bulkhead {
+    private DataSize heavyFileThreshold = DataSize.ofMegabytes(16);
+    private int maxConcurrentParses = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    private int maxConcurrentParsesPerFile = 4;
+    private Duration acquireTimeout = Duration.ofSeconds(60);
+  }
+
+  @Getter
+  @Setter
+  public static class Watch {
+    private List<String> roots = List.of();
+    private List<String> hotFiles = List.of();
+    private Duration warmDelay = Duration.ofSeconds(1);
+  }
+
+  @Getter
+  @Setter
+  public static class JsonLines {
+    private List<String> extensions = List.of(".jsonl", ".ndjson");
+    private DataSize chunkSize = DataSize.ofMegabytes(4);
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+  }
+
+  @Getter
+  @Setter
+  public static class Compression {
+    private boolean enabled = true;
+    private DataSize blockGroupSize = DataSize.ofMegabytes(1);
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+  }
+
+  @Getter
+  @Setter
+  public static class ParseCache {
+    private boolean enabled = false;
+    private String directory =
+        System.getProperty("java.io.tmpdir") + "/json-mcp-server-parse-cache";
+    private DataSize maxSize = DataSize.ofGigabytes(1);
+    private DataSize threshold = DataSize.ofMegabytes(16);
+  }
 }
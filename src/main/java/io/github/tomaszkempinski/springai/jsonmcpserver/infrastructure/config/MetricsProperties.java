@@ -0,0 +1,14 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "mcp.tools.metrics")
+@Getter
+@Setter
+public class MetricsProperties {
+  private boolean enabled = true;
+}
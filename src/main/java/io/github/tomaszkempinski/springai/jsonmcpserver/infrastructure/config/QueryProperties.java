@@ -0,0 +1,46 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+@ConfigurationProperties(prefix = "mcp.tools.query")
+@Getter
+@Setter
+public class QueryProperties {
+  private int compiledPathCacheSize = 256;
+  private DataSize streamingThreshold = DataSize.ofMegabytes(64);
+  private int defaultPageSize = 100;
+  private int maxPageSize = 1000;
+  private Duration cursorTtl = Duration.ofMinutes(5);
+  private int cursorMaxEntries = 64;
+  private int maxBatchSize = 50;
+  private int batchParallelism = Runtime.getRuntime().availableProcessors();
+  private int defaultAggregateGroups = 10;
+  private Index index = new Index();
+  private ResultCache resultCache = new ResultCache();
+
+  @Getter
+  @Setter
+  public static class Index {
+    private boolean enabled = true;
+    private DataSize threshold = DataSize.ofMegabytes(256);
+    private int depth = 3;
+    private int arrayStride = 64;
+    private int maxMembers = 10_000;
+    private String directory = System.getProperty("java.io.tmpdir") + "/json-mcp-server-index";
+    private int cacheSize = 16;
+  }
+
+  @Getter
+  @Setter
+  public static class ResultCache {
+    private boolean enabled = true;
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+    private Duration ttl = Duration.ofMinutes(5);
+  }
+}
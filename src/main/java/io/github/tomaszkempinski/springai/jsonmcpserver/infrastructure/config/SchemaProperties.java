@@ -0,0 +1,54 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+@ConfigurationProperties(prefix = "mcp.tools.schema")
+@Getter
+@Setter
+public class SchemaProperties {
+  private int compiledSchemaCacheSize = 64;
+  private Sampling sampling = new Sampling();
+  private Parallel parallel = new Parallel();
+  private Validation validation = new Validation();
+
+  public enum SamplingMode {
+    FIRST,
+    RESERVOIR
+  }
+
+  public enum ValidationMode {
+    FAIL_FAST,
+    CAPPED,
+    SUMMARY
+  }
+
+  @Getter
+  @Setter
+  public static class Sampling {
+    private SamplingMode mode = SamplingMode.RESERVOIR;
+    private int sampleSize = 10_000;
+    private DataSize threshold = DataSize.ofMegabytes(64);
+    private long seed = 0;
+  }
+
+  @Getter
+  @Setter
+  public static class Parallel {
+    private boolean enabled = true;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int chunkSize = 1_000;
+    private DataSize threshold = DataSize.ofMegabytes(8);
+  }
+
+  @Getter
+  @Setter
+  public static class Validation {
+    private ValidationMode mode = ValidationMode.CAPPED;
+    private int maxErrors = 100;
+  }
+}
@@ -0,0 +1,16 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "mcp.tools.training")
+@Getter
+@Setter
+public class TrainingProperties {
+  private boolean enabled = false;
+  private int iterations = 20;
+  private int records = 2000;
+}
@@ -0,0 +1,35 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.mcp;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import java.util.concurrent.Callable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+/**
+ * Runs the blocking work of ASYNC tools on bounded elastic threads, bound to the {@link
+ * RequestBudget} that {@link McpToolAspect} puts into the subscriber context.
+ */
+public final class McpAsyncCalls {
+
+  private McpAsyncCalls() {}
+
+  public static <T> Mono<T> blocking(Callable<T> call) {
+    return Mono.deferContextual(
+            context -> {
+              RequestBudget budget =
+                  context.getOrDefault(RequestBudget.class, RequestBudget.UNLIMITED);
+              return Mono.fromCallable(
+                  () -> {
+                    try (RequestBudget.Scope _ = budget.bind()) {
+                      return call.call();
+                    }
+                  });
+            })
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  static Context withBudget(Context context, RequestBudget budget) {
+    return context.put(RequestBudget.class, budget);
+  }
+}
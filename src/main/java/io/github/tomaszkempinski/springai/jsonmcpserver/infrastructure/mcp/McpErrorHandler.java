@@ -6,8 +6,10 @@ import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
 import java.text.MessageFormat;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springaicommunity.mcp.context.McpAsyncRequestContext;
 import org.springaicommunity.mcp.context.McpSyncRequestContext;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 @Component
 @Slf4j
@@ -17,45 +19,54 @@ public class McpErrorHandler {
   private final McpResponseFormatter mcpResponseFormatter;
 
   public String handleException(Throwable t, McpSyncRequestContext context) {
-    String errorMessage;
-    ErrorType errorType;
-    Throwable cause = t;
+    ResolvedError error = resolve(t);
+    return logAndSendError(context, error.errorType(), error.message(), error.cause());
+  }
 
-    switch (t) {
-      case JsonValidationException jve -> {
-        errorMessage = mcpResponseFormatter.formatValidationErrors(jve.getErrors());
-        errorType = ErrorType.VALIDATION_ERROR;
-      }
-      case ServiceException se -> {
-        errorType = se.getErrorType();
-        errorMessage = formatMessage(errorType.getMessagePattern(), se.getArgs(), se.getMessage());
-        if (se.getCause() != null) {
-          cause = se.getCause();
-        }
-      }
-      case java.io.IOException _ -> {
-        errorMessage = t.getMessage();
-        errorType = ErrorType.IO_ERROR;
-      }
-      default -> {
-        errorMessage = t.getMessage();
-        errorType = ErrorType.PROCESSING_ERROR;
-      }
-    }
+  public Mono<String> handleException(Throwable t, McpAsyncRequestContext context) {
+    ResolvedError error = resolve(t);
+    String fullErrorMessage = logError(error.errorType(), error.message(), error.cause());
+    return context.error(fullErrorMessage).thenReturn(fullErrorMessage);
+  }
 
-    return logAndSendError(context, errorType, errorMessage, cause);
+  public ErrorType errorTypeOf(Throwable t) {
+    return resolve(t).errorType();
+  }
+
+  private ResolvedError resolve(Throwable t) {
+    return switch (t) {
+      case JsonValidationException jve ->
+          new ResolvedError(
+              ErrorType.VALIDATION_ERROR, mcpResponseFormatter.formatValidationErrors(jve), null);
+      case ServiceException se ->
+          new ResolvedError(
+              se.getErrorType(),
+              formatMessage(se.getErrorType().getMessagePattern(), se.getArgs(), se.getMessage()),
+              se.getCause() != null ? se.getCause() : t);
+      case java.io.IOException _ -> new ResolvedError(ErrorType.IO_ERROR, t.getMessage(), t);
+      default -> new ResolvedError(ErrorType.PROCESSING_ERROR, t.getMessage(), t);
+    };
   }
 
   private String logAndSendError(
       McpSyncRequestContext context, ErrorType errorType, String errorMessage, Throwable cause) {
-    String fullErrorMessage = "Error [" + errorType + "]: " + errorMessage;
-
-    log.error(fullErrorMessage, cause);
+    String fullErrorMessage = logError(errorType, errorMessage, cause);
     context.error(fullErrorMessage);
 
     return fullErrorMessage;
   }
 
+  /** Validation failures carry no cause, since their stack trace says nothing about the input. */
+  private String logError(ErrorType errorType, String errorMessage, Throwable cause) {
+    String fullErrorMessage = "Error [" + errorType + "]: " + errorMessage;
+    if (cause != null) {
+      log.error(fullErrorMessage, cause);
+    } else {
+      log.warn(fullErrorMessage);
+    }
+    return fullErrorMessage;
+  }
+
   private String formatMessage(String pattern, Object[] args, String defaultMessage) {
     if (args == null || args.length == 0) {
       return defaultMessage != null ? defaultMessage : pattern;
@@ -67,4 +78,6 @@ public class McpErrorHandler {
       return defaultMessage;
     }
   }
+
+  private record ResolvedError(ErrorType errorType, String message, Throwable cause) {}
 }
@@ -1,6 +1,8 @@
 package io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.mcp;
 
 import com.networknt.schema.Error;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.JsonValidationException;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.ValidationErrorGroup;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Component;
@@ -13,4 +15,27 @@ public class McpResponseFormatter {
         .map(e -> e.getInstanceLocation() + ": " + e.getMessage())
         .collect(Collectors.joining("\n"));
   }
+
+  /** Formats the reported errors or groups, followed by the count of errors left out. */
+  public String formatValidationErrors(JsonValidationException e) {
+    if (!e.getGroups().isEmpty()) {
+      long reported = e.getGroups().stream().mapToLong(ValidationErrorGroup::count).sum();
+      String groups =
+          e.getGroups().stream()
+              .map(
+                  group ->
+                      "%d x %s at %s, e.g. %s"
+                          .formatted(
+                              group.count(), group.keyword(), group.pathPattern(), group.example()))
+              .collect(Collectors.joining("\n"));
+      return reported < e.getTotalErrors()
+          ? groups + "\n... %d more errors in other groups".formatted(e.getTotalErrors() - reported)
+          : groups;
+    }
+    String errors = formatValidationErrors(e.getErrors());
+    long omitted = e.getTotalErrors() - e.getErrors().size();
+    return omitted > 0
+        ? errors + "\n... %d more errors (%d in total)".formatted(omitted, e.getTotalErrors())
+        : errors;
+  }
 }
@@ -1,14 +1,22 @@
 package io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.mcp;
 
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.concurrent.TimeoutException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springaicommunity.mcp.annotation.McpTool;
+import org.springaicommunity.mcp.context.McpAsyncRequestContext;
 import org.springaicommunity.mcp.context.McpSyncRequestContext;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Aspect
 @Component
@@ -17,35 +25,138 @@ import org.springframework.stereotype.Component;
 public class McpToolAspect {
 
   private final McpErrorHandler mcpErrorHandler;
+  private final McpToolMetrics mcpToolMetrics;
+  private final McpToolExecutor mcpToolExecutor;
 
   @Around("@annotation(mcpTool)")
   public Object handleToolLifecycle(ProceedingJoinPoint joinPoint, McpTool mcpTool) {
     String toolName = mcpTool.name();
     Object[] args = joinPoint.getArgs();
+    MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+    String[] parameterNames = signature.getParameterNames();
 
-    McpSyncRequestContext context =
-        Arrays.stream(args)
-            .filter(McpSyncRequestContext.class::isInstance)
-            .map(McpSyncRequestContext.class::cast)
-            .findFirst()
-            .orElseThrow(
-                () ->
-                    new IllegalStateException(
-                        "McpSyncRequestContext not found in tool arguments for tool: " + toolName));
+    if (Mono.class.isAssignableFrom(signature.getReturnType())) {
+      McpAsyncRequestContext context = findContext(args, McpAsyncRequestContext.class, toolName);
+      return Mono.defer(
+          () ->
+              handleAsyncToolLifecycle(
+                  joinPoint,
+                  toolName,
+                  parameterNames,
+                  context,
+                  mcpToolExecutor.startBudget(toolName)));
+    }
+
+    McpSyncRequestContext context = findContext(args, McpSyncRequestContext.class, toolName);
+    Timer.Sample sample =
+        mcpToolMetrics.isEnabled() ? mcpToolMetrics.start(toolName, parameterNames, args) : null;
 
     try {
       logAndSendInfo(context, "Starting execution of tool: " + toolName);
-      Object result = joinPoint.proceed();
+      Object result = mcpToolExecutor.execute(toolName, parameterNames, args, joinPoint::proceed);
 
       logAndSendInfo(context, "Tool '" + toolName + "' completed successfully");
-      return result != null ? result.toString() : "";
+      String response = result != null ? result.toString() : "";
+      if (sample != null) {
+        mcpToolMetrics.recordSuccess(sample, toolName, response);
+      }
+      return response;
     } catch (Throwable t) {
+      if (sample != null) {
+        mcpToolMetrics.recordFailure(sample, toolName, mcpErrorHandler.errorTypeOf(t));
+      }
       return mcpErrorHandler.handleException(t, context);
     }
   }
 
+  private Mono<String> handleAsyncToolLifecycle(
+      ProceedingJoinPoint joinPoint,
+      String toolName,
+      String[] parameterNames,
+      McpAsyncRequestContext context,
+      RequestBudget budget) {
+    Object[] args = joinPoint.getArgs();
+    if (!mcpToolMetrics.isEnabled()) {
+      return runAsync(joinPoint, toolName, context, budget, null);
+    }
+    // Starting the metrics reads the size of the input file, which must not block the caller.
+    return Mono.fromCallable(() -> mcpToolMetrics.start(toolName, parameterNames, args))
+        .subscribeOn(Schedulers.boundedElastic())
+        .flatMap(sample -> runAsync(joinPoint, toolName, context, budget, sample));
+  }
+
+  private Mono<String> runAsync(
+      ProceedingJoinPoint joinPoint,
+      String toolName,
+      McpAsyncRequestContext context,
+      RequestBudget budget,
+      Timer.Sample sample) {
+    return logAndSendInfo(context, "Starting execution of tool: " + toolName)
+        .then(withinBudget(Mono.defer(() -> proceedAsync(joinPoint)), budget))
+        .map(Object::toString)
+        .defaultIfEmpty("")
+        .flatMap(
+            response ->
+                logAndSendInfo(context, "Tool '" + toolName + "' completed successfully")
+                    .thenReturn(response))
+        .doOnNext(
+            response -> {
+              if (sample != null) {
+                mcpToolMetrics.recordSuccess(sample, toolName, response);
+              }
+            })
+        .onErrorResume(
+            t -> {
+              if (sample != null) {
+                mcpToolMetrics.recordFailure(sample, toolName, mcpErrorHandler.errorTypeOf(t));
+              }
+              return mcpErrorHandler.handleException(t, context);
+            });
+  }
+
+  /**
+   * Makes the budget visible to the blocking work of the tool, cancels it when the subscriber goes
+   * away, for example because the client cancelled the request, and gives up at its deadline.
+   */
+  private static Mono<?> withinBudget(Mono<?> call, RequestBudget budget) {
+    Mono<?> bounded =
+        call.doOnCancel(budget::cancel)
+            .contextWrite(context -> McpAsyncCalls.withBudget(context, budget));
+    Duration remaining = budget.remaining();
+    if (remaining == null) {
+      return bounded;
+    }
+    return bounded.timeout(remaining).onErrorMap(TimeoutException.class, _ -> budget.timedOut());
+  }
+
+  private static Mono<?> proceedAsync(ProceedingJoinPoint joinPoint) {
+    try {
+      return (Mono<?>) joinPoint.proceed();
+    } catch (Throwable t) {
+      return Mono.error(t);
+    }
+  }
+
+  private static <T> T findContext(Object[] args, Class<T> contextType, String toolName) {
+    return Arrays.stream(args)
+        .filter(contextType::isInstance)
+        .map(contextType::cast)
+        .findFirst()
+        .orElseThrow(
+            () ->
+                new IllegalStateException(
+                    contextType.getSimpleName()
+                        + " not found in tool arguments for tool: "
+                        + toolName));
+  }
+
   private void logAndSendInfo(McpSyncRequestContext context, String message) {
     log.info(message);
     context.info(message);
   }
+
+  private Mono<Void> logAndSendInfo(McpAsyncRequestContext context, String message) {
+    log.info(message);
+    return context.info(message);
+  }
 }
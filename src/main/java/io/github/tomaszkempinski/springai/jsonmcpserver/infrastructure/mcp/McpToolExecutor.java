@@ -0,0 +1,214 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.mcp;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.ExecutionProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileValidationService;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springaicommunity.mcp.context.McpSyncRequestContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+public class McpToolExecutor {
+
+  private static final String INPUT_PARAMETER = "absolutePath";
+
+  private final ExecutorService executor;
+  private final ExecutorService platformExecutor;
+  private final boolean coalesceRequests;
+  private final ExecutionProperties.Budget defaultBudget;
+  private final Map<String, ExecutionProperties.Budget> toolBudgets;
+  private final Map<CallKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+  private final FileValidationService fileValidationService;
+  private volatile Runnable followListener = () -> {};
+
+  public McpToolExecutor(
+      ExecutionProperties executionProperties, FileValidationService fileValidationService) {
+    this.executor =
+        executionProperties.isVirtualThreads() ? Executors.newVirtualThreadPerTaskExecutor() : null;
+    this.platformExecutor =
+        Executors.newCachedThreadPool(Thread.ofPlatform().name("mcp-tool-", 0).factory());
+    this.coalesceRequests = executionProperties.isCoalesceRequests();
+    this.defaultBudget = executionProperties.getBudget();
+    this.toolBudgets = Map.copyOf(executionProperties.getToolBudgets());
+    this.fileValidationService = fileValidationService;
+  }
+
+  @FunctionalInterface
+  public interface ToolCall {
+    Object proceed() throws Throwable;
+  }
+
+  /**
+   * Runs the tool call within its budget, awaiting an identical call of the same file version that
+   * is already running. If that one is aborted, the waiting calls run it again.
+   */
+  public Object execute(String toolName, String[] parameterNames, Object[] args, ToolCall call)
+      throws Throwable {
+    RequestBudget budget = startBudget(toolName);
+    CallKey key = coalesceRequests ? keyOf(toolName, parameterNames, args) : null;
+    if (key == null) {
+      return dispatch(call, budget);
+    }
+    while (true) {
+      CompletableFuture<Object> shared = new CompletableFuture<>();
+      CompletableFuture<Object> existing = inFlight.putIfAbsent(key, shared);
+      if (existing == null) {
+        return lead(key, shared, call, budget);
+      }
+      followListener.run();
+      try {
+        return await(existing, false, budget);
+      } catch (ServiceException e) {
+        if (!existing.isCancelled() || budget.isAborted()) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  /**
+   * Runs the call for itself and the identical calls that join it. A failure caused by its own
+   * budget running out is not shared: the waiting calls see the shared result cancelled instead.
+   */
+  private Object lead(
+      CallKey key, CompletableFuture<Object> shared, ToolCall call, RequestBudget budget)
+      throws Throwable {
+    try {
+      Object result = dispatch(call, budget);
+      shared.complete(result);
+      return result;
+    } catch (Throwable t) {
+      if (budget.isAborted()) {
+        shared.cancel(false);
+      } else {
+        shared.completeExceptionally(t);
+      }
+      throw t;
+    } finally {
+      inFlight.remove(key, shared);
+    }
+  }
+
+  /**
+   * Runs the listener whenever a call starts waiting for an identical one; lets tests order calls.
+   */
+  void onFollow(Runnable listener) {
+    this.followListener = listener;
+  }
+
+  /** Starts the time and allocation budget of a call of the tool. */
+  public RequestBudget startBudget(String toolName) {
+    ExecutionProperties.Budget tool = toolBudgets.get(toolName);
+    Duration timeout =
+        tool != null && tool.getTimeout() != null ? tool.getTimeout() : defaultBudget.getTimeout();
+    DataSize maxAllocation =
+        tool != null && tool.getMaxAllocation() != null
+            ? tool.getMaxAllocation()
+            : defaultBudget.getMaxAllocation();
+    return RequestBudget.start(
+        toolName,
+        timeout != null ? timeout : Duration.ZERO,
+        maxAllocation != null ? maxAllocation.toBytes() : 0);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    platformExecutor.shutdownNow();
+  }
+
+  /**
+   * Runs the call on a virtual thread, or on a platform thread when its budget limits allocation,
+   * as the JVM does not report the allocation of virtual threads.
+   */
+  private Object dispatch(ToolCall call, RequestBudget budget) throws Throwable {
+    boolean virtual = Thread.currentThread().isVirtual();
+    ExecutorService target;
+    if (budget.limitsAllocation()) {
+      target = virtual ? platformExecutor : null;
+    } else {
+      target = virtual ? null : executor;
+    }
+    if (target == null) {
+      try (RequestBudget.Scope _ = budget.bind()) {
+        return call.proceed();
+      }
+    }
+    Future<Object> result =
+        target.submit(
+            () -> {
+              try (RequestBudget.Scope _ = budget.bind()) {
+                return call.proceed();
+              } catch (Exception | Error e) {
+                throw e;
+              } catch (Throwable t) {
+                throw new ExecutionException(t);
+              }
+            });
+    return await(result, true, budget);
+  }
+
+  /** Waits until the deadline of the budget, cancelling the budget if the caller gives up. */
+  private static Object await(Future<Object> result, boolean owner, RequestBudget budget)
+      throws Throwable {
+    try {
+      Duration remaining = budget.remaining();
+      return remaining != null
+          ? result.get(remaining.toNanos(), TimeUnit.NANOSECONDS)
+          : result.get();
+    } catch (TimeoutException e) {
+      ServiceException timedOut = budget.timedOut();
+      if (owner) {
+        result.cancel(true);
+      }
+      throw timedOut;
+    } catch (InterruptedException e) {
+      budget.cancel();
+      if (owner) {
+        result.cancel(true);
+      }
+      Thread.currentThread().interrupt();
+      throw budget.aborted();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof ExecutionException nested ? nested.getCause() : cause;
+    } catch (CancellationException e) {
+      throw budget.aborted();
+    }
+  }
+
+  private CallKey keyOf(String toolName, String[] parameterNames, Object[] args) {
+    FileMetadata file = null;
+    List<Object> values = new ArrayList<>(args.length);
+    for (int i = 0; i < args.length; i++) {
+      if (args[i] instanceof McpSyncRequestContext) {
+        continue;
+      }
+      if (INPUT_PARAMETER.equals(parameterNames[i]) && args[i] instanceof String path) {
+        file = fileValidationService.lookup(path).orElse(null);
+      }
+      values.add(args[i]);
+    }
+    return file != null ? new CallKey(toolName, file, values) : null;
+  }
+
+  private record CallKey(String toolName, FileMetadata file, List<Object> args) {}
+}
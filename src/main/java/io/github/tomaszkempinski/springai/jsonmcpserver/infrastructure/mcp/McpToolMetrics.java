@@ -0,0 +1,86 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.mcp;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.MetricsProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ErrorType;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileValidationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+@Component
+public class McpToolMetrics {
+
+  private static final String INPUT_PARAMETER = "absolutePath";
+  private static final String NO_ERROR = "none";
+
+  private final MeterRegistry meterRegistry;
+  private final FileValidationService fileValidationService;
+
+  public McpToolMetrics(
+      ObjectProvider<MeterRegistry> meterRegistry,
+      MetricsProperties metricsProperties,
+      FileValidationService fileValidationService) {
+    this.meterRegistry = metricsProperties.isEnabled() ? meterRegistry.getIfAvailable() : null;
+    this.fileValidationService = fileValidationService;
+  }
+
+  public boolean isEnabled() {
+    return meterRegistry != null;
+  }
+
+  public Timer.Sample start(String toolName, String[] parameterNames, Object[] args) {
+    for (int i = 0; i < parameterNames.length; i++) {
+      if (INPUT_PARAMETER.equals(parameterNames[i]) && args[i] instanceof String path) {
+        recordInputSize(toolName, path);
+      }
+    }
+    return Timer.start(meterRegistry);
+  }
+
+  public void recordSuccess(Timer.Sample sample, String toolName, String response) {
+    sample.stop(invocationTimer(toolName, "success", NO_ERROR));
+    DistributionSummary.builder("mcp.tool.response.size")
+        .description("Size of MCP tool responses")
+        .baseUnit("characters")
+        .tag("tool", toolName)
+        .register(meterRegistry)
+        .record(response.length());
+  }
+
+  public void recordFailure(Timer.Sample sample, String toolName, ErrorType errorType) {
+    sample.stop(invocationTimer(toolName, "error", errorType.name()));
+    Counter.builder("mcp.tool.errors")
+        .description("MCP tool invocations that ended with an error")
+        .tag("tool", toolName)
+        .tag("error.type", errorType.name())
+        .register(meterRegistry)
+        .increment();
+  }
+
+  private Timer invocationTimer(String toolName, String outcome, String errorType) {
+    return Timer.builder("mcp.tool.invocations")
+        .description("Duration of MCP tool invocations")
+        .tag("tool", toolName)
+        .tag("outcome", outcome)
+        .tag("error.type", errorType)
+        .register(meterRegistry);
+  }
+
+  /** Missing or invalid files are not recorded; the tool itself reports them. */
+  private void recordInputSize(String toolName, String path) {
+    fileValidationService
+        .lookup(path)
+        .ifPresent(
+            metadata ->
+                DistributionSummary.builder("mcp.tool.input.size")
+                    .description("Size of the JSON files passed to MCP tools")
+                    .baseUnit(BaseUnits.BYTES)
+                    .tag("tool", toolName)
+                    .register(meterRegistry)
+                    .record(metadata.size()));
+  }
+}
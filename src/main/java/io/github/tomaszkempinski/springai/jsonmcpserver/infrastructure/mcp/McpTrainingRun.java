@@ -0,0 +1,119 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.mcp;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.JsonQueryService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.SchemaGenerationService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.SchemaValidationService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.TrainingProperties;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Calls the tools on generated files and exits, for the {@code -XX:AOTCacheOutput} training run.
+ * The switch is read at run time, as AOT processing freezes bean conditions at build time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class McpTrainingRun implements ApplicationRunner {
+
+  private static final int MAX_SIZE_FACTOR = 6;
+
+  private final TrainingProperties trainingProperties;
+  private final McpToolExecutor mcpToolExecutor;
+  private final JsonQueryService jsonQueryService;
+  private final SchemaGenerationService schemaGenerationService;
+  private final SchemaValidationService schemaValidationService;
+  private final ConfigurableApplicationContext applicationContext;
+
+  @Override
+  public void run(ApplicationArguments args) throws Exception {
+    if (!trainingProperties.isEnabled()) {
+      return;
+    }
+    long start = System.nanoTime();
+    Path directory = Files.createTempDirectory("json-mcp-training");
+    try {
+      for (int i = 0; i < trainingProperties.getIterations(); i++) {
+        // A new file each time, so every iteration parses instead of hitting the caches
+        Path file = directory.resolve("training-" + i + ".json");
+        writeDocument(file, trainingProperties.getRecords() * (1 + i % MAX_SIZE_FACTOR), i);
+        exercise(file.toAbsolutePath().toString(), i);
+        Files.delete(file);
+      }
+    } finally {
+      Files.deleteIfExists(directory);
+    }
+    log.info(
+        "Training run of {} iterations finished in {} ms",
+        trainingProperties.getIterations(),
+        (System.nanoTime() - start) / 1_000_000);
+    System.exit(SpringApplication.exit(applicationContext));
+  }
+
+  private void exercise(String path, int iteration) {
+    call("query_json", () -> jsonQueryService.query(path, "$[*].name"));
+    call(
+        "query_json",
+        () ->
+            jsonQueryService.query(path, "$[?(@.active == true && @.score > " + iteration + ")]"));
+    call("query_json", () -> jsonQueryService.queryPage(path, "$[*].tags[*]", 0, 50, null));
+    call(
+        "query_json_batch",
+        () -> jsonQueryService.queryBatch(path, List.of("$.length()", "$[0].address.city")));
+    call(
+        "aggregate_json",
+        () -> jsonQueryService.aggregate(path, "$[*]", "score", "address.city", 5));
+    String schema =
+        (String)
+            call("generate_json_schema", () -> schemaGenerationService.generateSchema(path, null));
+    call(
+        "validate_json_schema",
+        () -> {
+          schemaValidationService.validateSchema(schema);
+          return null;
+        });
+    call(
+        "validate_json_document",
+        () -> {
+          schemaValidationService.validateDocument(path, schema, null, null, null);
+          return null;
+        });
+  }
+
+  private Object call(String toolName, McpToolExecutor.ToolCall call) {
+    try {
+      return mcpToolExecutor.execute(toolName, new String[0], new Object[0], call);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalStateException("Training call of " + toolName + " failed", t);
+    }
+  }
+
+  private static void writeDocument(Path file, int records, int seed) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+      writer.write('[');
+      for (int i = 0; i < records; i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        writer.write(
+            """
+            {"id":%d,"name":"user-%d","active":%b,"score":%d.5,"tags":["t%d","t%d"],\
+            "address":{"city":"city-%d","zip":null}}"""
+                .formatted(i, i, (i + seed) % 3 == 0, (i * 7 + seed) % 100, i % 5, i % 11, i % 13));
+      }
+      writer.write(']');
+    }
+  }
+}
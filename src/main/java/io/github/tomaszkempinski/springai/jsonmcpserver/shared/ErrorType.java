@@ -10,7 +10,8 @@ public enum ErrorType {
   VALIDATION_ERROR("Validation error", "Schema validation failed:\n{0}"),
   IO_ERROR("I/O error", "{0}"),
   INVALID_FILE_EXTENSION(
-      "Invalid file extension", "File extension is invalid. Allowed: {0}. File: {1}");
+      "Invalid file extension", "File extension is invalid. Allowed: {0}. File: {1}"),
+  REQUEST_ABORTED("Request aborted", "{0}");
 
   private final String title;
   private final String messagePattern;
@@ -0,0 +1,22 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/** Content hashes used to name cache entries and files. */
+public final class Hashing {
+
+  private Hashing() {}
+
+  /** Returns the SHA-256 hash of the UTF-8 encoded string, in lowercase hex. */
+  public static String sha256(String content) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time and allocation limits of one tool call, enforced at {@link #checkpoint()}. Allocation is
+ * only measured on platform threads.
+ */
+public final class RequestBudget {
+
+  /** A budget without limits, used when no tool call is bound to the thread. */
+  public static final RequestBudget UNLIMITED = new RequestBudget("", Duration.ZERO, 0);
+
+  private static final ThreadLocal<Binding> CURRENT = new ThreadLocal<>();
+  private static final int CHECK_INTERVAL = 256;
+  private static final com.sun.management.ThreadMXBean THREADS =
+      ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+              && threads.isThreadAllocatedMemorySupported()
+          ? threads
+          : null;
+
+  private final String name;
+  private final Duration timeout;
+  private final long deadlineNanos;
+  private final long maxAllocatedBytes;
+  private final LongAdder allocatedBytes = new LongAdder();
+  private volatile String abortReason;
+
+  private RequestBudget(String name, Duration timeout, long maxAllocatedBytes) {
+    this.name = name;
+    this.timeout = timeout;
+    this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+    this.maxAllocatedBytes = maxAllocatedBytes;
+    if (maxAllocatedBytes > 0 && THREADS != null && !THREADS.isThreadAllocatedMemoryEnabled()) {
+      THREADS.setThreadAllocatedMemoryEnabled(true);
+    }
+  }
+
+  /** Starts a budget now. A zero timeout or allocation limit means no limit. */
+  public static RequestBudget start(String name, Duration timeout, long maxAllocatedBytes) {
+    return new RequestBudget(name, timeout, maxAllocatedBytes);
+  }
+
+  /** Returns whether the call has an allocation limit. */
+  public boolean limitsAllocation() {
+    return maxAllocatedBytes > 0;
+  }
+
+  /** Returns the budget bound to the current thread, or {@link #UNLIMITED}. */
+  public static RequestBudget current() {
+    Binding binding = CURRENT.get();
+    return binding != null ? binding.budget : UNLIMITED;
+  }
+
+  /** Aborts the current call if it ran out of budget, comparing only every few hundred calls. */
+  public static void checkpoint() {
+    Binding binding = CURRENT.get();
+    if (binding != null && ++binding.calls % CHECK_INTERVAL == 0) {
+      binding.check();
+    }
+  }
+
+  /** Binds the budget to the current thread until the returned scope is closed. */
+  public Scope bind() {
+    Binding previous = CURRENT.get();
+    if (this == UNLIMITED || (previous != null && previous.budget == this)) {
+      return () -> {};
+    }
+    Binding binding = new Binding(this, allocatedByCurrentThread());
+    CURRENT.set(binding);
+    return () -> {
+      long allocated = allocatedByCurrentThread();
+      if (allocated >= 0 && binding.allocationBaseline >= 0) {
+        allocatedBytes.add(allocated - binding.allocationBaseline);
+      }
+      if (previous != null) {
+        CURRENT.set(previous);
+      } else {
+        CURRENT.remove();
+      }
+    };
+  }
+
+  /** Makes every thread working on the call abort at its next checkpoint. */
+  public void cancel() {
+    cancel(isPastDeadline() ? timeExceeded() : "was cancelled");
+  }
+
+  private void cancel(String reason) {
+    if (this != UNLIMITED && abortReason == null) {
+      abortReason = reason;
+    }
+  }
+
+  private boolean isPastDeadline() {
+    return !timeout.isZero() && System.nanoTime() - deadlineNanos >= 0;
+  }
+
+  private String timeExceeded() {
+    return "exceeded its time budget of " + timeout;
+  }
+
+  /** Whether the call was cancelled or ran out of budget. */
+  public boolean isAborted() {
+    return abortReason != null;
+  }
+
+  /** Time left until the deadline, or {@code null} if the budget has no time limit. */
+  public Duration remaining() {
+    if (timeout.isZero()) {
+      return null;
+    }
+    return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+  }
+
+  /** Cancels the budget for running out of time and returns the error to report. */
+  public ServiceException timedOut() {
+    cancel(timeExceeded());
+    return aborted();
+  }
+
+  /** Returns the error to report for a call that was cancelled or ran out of budget. */
+  public ServiceException aborted() {
+    String reason = abortReason != null ? abortReason : "was cancelled";
+    return new ServiceException(ErrorType.REQUEST_ABORTED, "Tool '" + name + "' " + reason);
+  }
+
+  private static long allocatedByCurrentThread() {
+    return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+  }
+
+  /** Restores the previous binding of the thread when closed. */
+  @FunctionalInterface
+  public interface Scope extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+  private static final class Binding {
+    private final RequestBudget budget;
+    private final long allocationBaseline;
+    private int calls;
+
+    private Binding(RequestBudget budget, long allocationBaseline) {
+      this.budget = budget;
+      this.allocationBaseline = allocationBaseline;
+    }
+
+    private void check() {
+      if (budget.abortReason == null) {
+        if (Thread.currentThread().isInterrupted() || budget.isPastDeadline()) {
+          budget.cancel();
+        } else if (budget.maxAllocatedBytes > 0 && allocationBaseline >= 0) {
+          long allocated =
+              budget.allocatedBytes.sum() + allocatedByCurrentThread() - allocationBaseline;
+          if (allocated > budget.maxAllocatedBytes) {
+            budget.cancel(
+                "exceeded its allocation budget of %d MB"
+                    .formatted(budget.maxAllocatedBytes / (1024 * 1024)));
+          }
+        }
+      }
+      if (budget.abortReason != null) {
+        throw budget.aborted();
+      }
+    }
+  }
+}
@@ -0,0 +1,623 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.document;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.ref.SoftReference;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A read-only JSON document on a tape of longs, one slot per node holding its type, key id and a
+ * payload; containers store the end of their subtree. Read through {@link Map} and {@link List}
+ * views. A repeated key keeps its last value, as in Jackson.
+ */
+public final class CompactDocument {
+
+  private static final int NULL = 0;
+  private static final int TRUE = 1;
+  private static final int FALSE = 2;
+  private static final int INT = 3;
+  private static final int LONG = 4;
+  private static final int DOUBLE = 5;
+  private static final int STRING = 6;
+  private static final int BIG_NUMBER = 7;
+  private static final int OBJECT = 8;
+  private static final int ARRAY = 9;
+
+  private static final int TYPE_SHIFT = 60;
+  private static final int KEY_SHIFT = 32;
+  private static final long KEY_MASK = (1L << (TYPE_SHIFT - KEY_SHIFT)) - 1;
+  private static final int MAX_INTERNED_LENGTH = 16;
+  private static final int MAX_INTERNED_STRINGS = 1 << 16;
+
+  private final MemorySegment tape;
+  private final MemorySegment numbers;
+  private final MemorySegment strings;
+  private final MemorySegment stringOffsets;
+  private final String[] keys;
+  private final Map<String, Integer> keyIds;
+  private volatile SoftReference<JsonNode> tree = new SoftReference<>(null);
+
+  private CompactDocument(
+      MemorySegment tape,
+      MemorySegment numbers,
+      MemorySegment strings,
+      MemorySegment stringOffsets,
+      String[] keys,
+      Map<String, Integer> keyIds) {
+    this.tape = tape;
+    this.numbers = numbers;
+    this.strings = strings;
+    this.stringOffsets = stringOffsets;
+    this.keys = keys;
+    this.keyIds = keyIds;
+  }
+
+  /**
+   * Reads the next value of the parser into a compact document.
+   *
+   * @param offHeap whether to keep the arrays outside the heap
+   */
+  public static CompactDocument parse(JsonParser parser, boolean offHeap) throws IOException {
+    Builder builder = new Builder();
+    if (parser.nextToken() == null) {
+      throw new JsonParseException(parser, "no content");
+    }
+    builder.read(parser);
+    return builder.build(offHeap);
+  }
+
+  /**
+   * Returns the root value: a {@link Map} or {@link List} view for containers, otherwise a string,
+   * number, boolean or {@code null}.
+   */
+  public Object root() {
+    return value(0);
+  }
+
+  /** Bytes taken by the arrays of the document, on or off the heap. */
+  public long sizeBytes() {
+    long keyBytes = 0;
+    for (String key : keys) {
+      keyBytes += 40 + key.length();
+    }
+    return tape.byteSize()
+        + numbers.byteSize()
+        + strings.byteSize()
+        + stringOffsets.byteSize()
+        + keyBytes;
+  }
+
+  /**
+   * Returns the document as a Jackson tree, for consumers that need one. The tree is kept through a
+   * soft reference, so repeated calls share one copy until the heap runs short. It must not be
+   * modified.
+   */
+  public JsonNode toTree() {
+    JsonNode cached = tree.get();
+    if (cached == null) {
+      cached = tree(0, JsonNodeFactory.instance);
+      tree = new SoftReference<>(cached);
+    }
+    return cached;
+  }
+
+  private long slot(int index) {
+    return tape.getAtIndex(ValueLayout.JAVA_LONG, index);
+  }
+
+  private static int type(long slot) {
+    return (int) (slot >>> TYPE_SHIFT);
+  }
+
+  private static int key(long slot) {
+    return (int) ((slot >>> KEY_SHIFT) & KEY_MASK) - 1;
+  }
+
+  private static int payload(long slot) {
+    return (int) slot;
+  }
+
+  /** Position of the node after the one at the index and all of its descendants. */
+  private int next(int index) {
+    long slot = slot(index);
+    int type = type(slot);
+    return type == OBJECT || type == ARRAY ? payload(slot) : index + 1;
+  }
+
+  private int size(int container) {
+    return (int) slot(container + 1);
+  }
+
+  private static int firstChild(int container) {
+    return container + 2;
+  }
+
+  private Object value(int index) {
+    long slot = slot(index);
+    return switch (type(slot)) {
+      case NULL -> null;
+      case TRUE -> Boolean.TRUE;
+      case FALSE -> Boolean.FALSE;
+      case INT -> payload(slot);
+      case LONG -> numbers.getAtIndex(ValueLayout.JAVA_LONG, payload(slot));
+      case DOUBLE -> numbers.getAtIndex(ValueLayout.JAVA_DOUBLE, payload(slot));
+      case STRING -> string(payload(slot));
+      case BIG_NUMBER -> bigNumber(string(payload(slot)));
+      case OBJECT -> new ObjectView(index);
+      case ARRAY -> new ArrayView(index);
+      default -> throw new IllegalStateException("Unknown node type " + type(slot));
+    };
+  }
+
+  private String string(int id) {
+    long start = stringOffsets.getAtIndex(ValueLayout.JAVA_LONG, id);
+    long end = stringOffsets.getAtIndex(ValueLayout.JAVA_LONG, id + 1);
+    return new String(
+        strings.asSlice(start, end - start).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+  }
+
+  private static Number bigNumber(String text) {
+    return text.indexOf('.') >= 0 || text.indexOf('e') >= 0 || text.indexOf('E') >= 0
+        ? new BigDecimal(text)
+        : new BigInteger(text);
+  }
+
+  private JsonNode tree(int index, JsonNodeFactory nodes) {
+    long slot = slot(index);
+    return switch (type(slot)) {
+      case OBJECT -> {
+        ObjectNode object = nodes.objectNode();
+        for (int child = firstChild(index); child < payload(slot); child = next(child)) {
+          int key = key(slot(child));
+          if (key >= 0) {
+            object.set(keys[key], tree(child, nodes));
+          }
+        }
+        yield object;
+      }
+      case ARRAY -> {
+        ArrayNode array = nodes.arrayNode(size(index));
+        for (int child = firstChild(index); child < payload(slot); child = next(child)) {
+          array.add(tree(child, nodes));
+        }
+        yield array;
+      }
+      case NULL -> nodes.nullNode();
+      case TRUE -> nodes.booleanNode(true);
+      case FALSE -> nodes.booleanNode(false);
+      case INT -> nodes.numberNode(payload(slot));
+      case LONG -> nodes.numberNode(numbers.getAtIndex(ValueLayout.JAVA_LONG, payload(slot)));
+      case DOUBLE -> nodes.numberNode(numbers.getAtIndex(ValueLayout.JAVA_DOUBLE, payload(slot)));
+      case STRING -> nodes.textNode(string(payload(slot)));
+      default ->
+          switch (bigNumber(string(payload(slot)))) {
+            case BigDecimal decimal -> nodes.numberNode(decimal);
+            case Number integer -> nodes.numberNode((BigInteger) integer);
+          };
+    };
+  }
+
+  /** An object of the document as an unmodifiable map in document order. */
+  public final class ObjectView extends AbstractMap<String, Object> {
+    private final int index;
+
+    private ObjectView(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public int size() {
+      return CompactDocument.this.size(index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return find(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+      return getOrDefault(key, null);
+    }
+
+    /** Looks the key up in a single pass over the members, comparing interned key ids. */
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+      int member = find(key);
+      return member >= 0 ? value(member) : defaultValue;
+    }
+
+    private int find(Object key) {
+      Integer id = key instanceof String name ? keyIds.get(name) : null;
+      if (id == null) {
+        return -1;
+      }
+      int end = payload(slot(index));
+      for (int child = firstChild(index); child < end; child = next(child)) {
+        if (key(slot(child)) == id) {
+          return child;
+        }
+      }
+      return -1;
+    }
+
+    /** The keys in document order, read without decoding the values. */
+    @Override
+    public Set<String> keySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<String> iterator() {
+          Iterator<Integer> members = children(index);
+          return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+              return members.hasNext();
+            }
+
+            @Override
+            public String next() {
+              return keys[key(slot(members.next()))];
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return ObjectView.this.size();
+        }
+
+        @Override
+        public boolean contains(Object key) {
+          return containsKey(key);
+        }
+      };
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+          Iterator<Integer> members = children(index);
+          return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+              return members.hasNext();
+            }
+
+            @Override
+            public Entry<String, Object> next() {
+              int member = members.next();
+              return new SimpleImmutableEntry<>(keys[key(slot(member))], value(member));
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return ObjectView.this.size();
+        }
+      };
+    }
+  }
+
+  /**
+   * An array of the document as an unmodifiable list. Elements are found by skipping their
+   * predecessors, and the last position is remembered, so reading consecutive indexes is linear.
+   */
+  public final class ArrayView extends AbstractList<Object> {
+    private final int index;
+    // element index in the high and tape position in the low 32 bits, read and written at once
+    private long last;
+
+    private ArrayView(int index) {
+      this.index = index;
+      this.last = firstChild(index) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public int size() {
+      return CompactDocument.this.size(index);
+    }
+
+    @Override
+    public Object get(int element) {
+      if (element < 0 || element >= size()) {
+        throw new IndexOutOfBoundsException(element);
+      }
+      long remembered = last;
+      int from = (int) (remembered >>> 32);
+      int position = (int) remembered;
+      if (from > element) {
+        from = 0;
+        position = firstChild(index);
+      }
+      for (; from < element; from++) {
+        position = next(position);
+      }
+      last = ((long) element << 32) | (position & 0xFFFFFFFFL);
+      return value(position);
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+      Iterator<Integer> elements = children(index);
+      return new Iterator<>() {
+        @Override
+        public boolean hasNext() {
+          return elements.hasNext();
+        }
+
+        @Override
+        public Object next() {
+          return value(elements.next());
+        }
+      };
+    }
+  }
+
+  /** Iterates the positions of the children of a container, skipping members without a key. */
+  private Iterator<Integer> children(int container) {
+    long slot = slot(container);
+    int end = payload(slot);
+    boolean object = type(slot) == OBJECT;
+    return new Iterator<>() {
+      private int child = skipUnkeyed(firstChild(container));
+
+      @Override
+      public boolean hasNext() {
+        return child < end;
+      }
+
+      @Override
+      public Integer next() {
+        if (child >= end) {
+          throw new NoSuchElementException();
+        }
+        RequestBudget.checkpoint();
+        int current = child;
+        child = skipUnkeyed(CompactDocument.this.next(child));
+        return current;
+      }
+
+      private int skipUnkeyed(int position) {
+        while (object && position < end && key(slot(position)) < 0) {
+          position = CompactDocument.this.next(position);
+        }
+        return position;
+      }
+    };
+  }
+
+  /** Appends the tokens of one value to growing arrays, then copies them to their final size. */
+  private static final class Builder {
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private long[] tape = new long[1024];
+    private int tapeSize;
+    private long[] numbers = new long[64];
+    private int numberCount;
+    private byte[] strings = new byte[1024];
+    private int stringBytes;
+    private long[] stringOffsets = new long[64];
+    private int stringCount;
+    private final Map<String, Integer> internedStrings = new HashMap<>();
+    private final List<String> keys = new ArrayList<>();
+    private final Map<String, Integer> keyIds = new HashMap<>();
+    private int[] open = new int[16];
+    private int[] counts = new int[16];
+    private int depth;
+    // per key id, the object that last used the key and the position of that member
+    private int[] keyStamps = new int[64];
+    private int[] keyMembers = new int[64];
+    private int stamp;
+
+    private void read(JsonParser parser) throws IOException {
+      int key = -1;
+      JsonToken token = parser.currentToken();
+      while (true) {
+        RequestBudget.checkpoint();
+        if (token == JsonToken.FIELD_NAME) {
+          key = keyId(parser);
+        } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+          depth--;
+          int container = open[depth];
+          tape[container] |= tapeSize & 0xFFFFFFFFL;
+          tape[container + 1] = counts[depth];
+          if (token == JsonToken.END_OBJECT && counts[depth] > 1) {
+            unkeyRepeatedMembers(container);
+          }
+        } else {
+          if (depth > 0) {
+            counts[depth - 1]++;
+          }
+          append(token, key, parser);
+          key = -1;
+        }
+        if (depth == 0) {
+          return;
+        }
+        token = parser.nextToken();
+        if (token == null) {
+          throw new JsonParseException(parser, "unexpected end of content");
+        }
+      }
+    }
+
+    private void append(JsonToken token, int key, JsonParser parser) throws IOException {
+      switch (token) {
+        case START_OBJECT, START_ARRAY -> {
+          if (depth == open.length) {
+            open = Arrays.copyOf(open, grow(open.length, depth + 1));
+            counts = Arrays.copyOf(counts, open.length);
+          }
+          open[depth] = tapeSize;
+          counts[depth] = 0;
+          depth++;
+          push(token == JsonToken.START_OBJECT ? OBJECT : ARRAY, key, 0);
+          push(NULL, -1, 0);
+        }
+        case VALUE_NULL -> push(NULL, key, 0);
+        case VALUE_TRUE -> push(TRUE, key, 0);
+        case VALUE_FALSE -> push(FALSE, key, 0);
+        case VALUE_STRING -> push(STRING, key, string(parser.getText(), true));
+        case VALUE_NUMBER_INT -> {
+          switch (parser.getNumberType()) {
+            case INT -> push(INT, key, parser.getIntValue());
+            case LONG -> push(LONG, key, number(parser.getLongValue()));
+            default -> push(BIG_NUMBER, key, string(parser.getText(), false));
+          }
+        }
+        case VALUE_NUMBER_FLOAT -> {
+          if (parser.getNumberType() == JsonParser.NumberType.BIG_DECIMAL) {
+            push(BIG_NUMBER, key, string(parser.getText(), false));
+          } else {
+            push(DOUBLE, key, number(Double.doubleToRawLongBits(parser.getDoubleValue())));
+          }
+        }
+        default -> throw new JsonParseException(parser, "unsupported token " + token);
+      }
+    }
+
+    private void push(int type, int key, int payload) throws StreamConstraintsException {
+      if (tapeSize == tape.length) {
+        tape = Arrays.copyOf(tape, grow(tape.length, tapeSize + 1));
+      }
+      tape[tapeSize++] =
+          ((long) type << TYPE_SHIFT) | ((key + 1L) << KEY_SHIFT) | (payload & 0xFFFFFFFFL);
+    }
+
+    private int number(long bits) throws StreamConstraintsException {
+      if (numberCount == numbers.length) {
+        numbers = Arrays.copyOf(numbers, grow(numbers.length, numberCount + 1));
+      }
+      numbers[numberCount] = bits;
+      return numberCount++;
+    }
+
+    private int keyId(JsonParser parser) throws IOException {
+      String key = parser.currentName();
+      Integer id = keyIds.get(key);
+      if (id == null) {
+        if (keys.size() == KEY_MASK - 1) {
+          throw new JsonParseException(parser, "too many distinct keys for a compact document");
+        }
+        id = keys.size();
+        keys.add(key);
+        keyIds.put(key, id);
+      }
+      return id;
+    }
+
+    /**
+     * Stores a string, sharing one copy of repeated short values such as enumerations. Past {@link
+     * #MAX_INTERNED_STRINGS} distinct values, new ones are stored without being shared.
+     */
+    private int string(String value, boolean intern) throws StreamConstraintsException {
+      boolean shared = intern && value.length() <= MAX_INTERNED_LENGTH;
+      if (shared) {
+        Integer id = internedStrings.get(value);
+        if (id != null) {
+          return id;
+        }
+      }
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      if (bytes.length > strings.length - stringBytes) {
+        strings = Arrays.copyOf(strings, grow(strings.length, stringBytes + bytes.length));
+      }
+      System.arraycopy(bytes, 0, strings, stringBytes, bytes.length);
+      if (stringCount + 2 > stringOffsets.length) {
+        stringOffsets = Arrays.copyOf(stringOffsets, grow(stringOffsets.length, stringCount + 2));
+      }
+      stringOffsets[stringCount] = stringBytes;
+      stringBytes += bytes.length;
+      stringOffsets[stringCount + 1] = stringBytes;
+      if (shared && internedStrings.size() < MAX_INTERNED_STRINGS) {
+        internedStrings.put(value, stringCount);
+      }
+      return stringCount++;
+    }
+
+    /**
+     * Removes the key of every member of a closed object that is followed by a member with the same
+     * key and takes it out of the size, leaving the last value of each key visible.
+     */
+    private void unkeyRepeatedMembers(int container) {
+      if (keyStamps.length < keys.size()) {
+        keyStamps = Arrays.copyOf(keyStamps, Math.max(keyStamps.length * 2, keys.size()));
+        keyMembers = Arrays.copyOf(keyMembers, keyStamps.length);
+      }
+      stamp++;
+      int end = payload(tape[container]);
+      for (int child = firstChild(container); child < end; ) {
+        long slot = tape[child];
+        int key = key(slot);
+        if (keyStamps[key] == stamp) {
+          tape[keyMembers[key]] &= ~(KEY_MASK << KEY_SHIFT);
+          tape[container + 1]--;
+        }
+        keyStamps[key] = stamp;
+        keyMembers[key] = child;
+        child = type(slot) == OBJECT || type(slot) == ARRAY ? payload(slot) : child + 1;
+      }
+    }
+
+    private static int grow(int length, int minimum) throws StreamConstraintsException {
+      if (minimum < 0 || minimum > MAX_ARRAY_LENGTH) {
+        throw new StreamConstraintsException(
+            "Document too large for a compact document, which holds at most "
+                + MAX_ARRAY_LENGTH
+                + " nodes, numbers or string bytes");
+      }
+      return (int) Math.min(Math.max(2L * length, minimum), MAX_ARRAY_LENGTH);
+    }
+
+    private CompactDocument build(boolean offHeap) {
+      Arena arena = offHeap ? Arena.ofAuto() : null;
+      return new CompactDocument(
+          segment(MemorySegment.ofArray(tape), tapeSize * 8L, arena),
+          segment(MemorySegment.ofArray(numbers), numberCount * 8L, arena),
+          segment(MemorySegment.ofArray(strings), stringBytes, arena),
+          segment(MemorySegment.ofArray(stringOffsets), (stringCount + 1) * 8L, arena),
+          keys.toArray(String[]::new),
+          Map.copyOf(keyIds));
+    }
+
+    /** Copies the used part of a growing array to an exactly sized heap array or to the arena. */
+    private static MemorySegment segment(MemorySegment grown, long bytes, Arena arena) {
+      MemorySegment used = grown.asSlice(0, bytes);
+      if (arena == null || bytes == 0) {
+        MemorySegment copy =
+            grown.heapBase().orElseThrow() instanceof byte[]
+                ? MemorySegment.ofArray(new byte[(int) bytes])
+                : MemorySegment.ofArray(new long[(int) (bytes / 8)]);
+        return copy.copyFrom(used);
+      }
+      return arena.allocate(bytes, 8).copyFrom(used);
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.document;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import java.nio.file.Path;
+
+public interface DocumentCache {
+  Object get(FileMetadata metadata, DocumentLoader loader);
+
+  void invalidate(Path path);
+
+  DocumentCacheStats stats();
+}
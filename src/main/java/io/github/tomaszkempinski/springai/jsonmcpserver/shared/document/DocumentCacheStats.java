@@ -0,0 +1,4 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.document;
+
+public record DocumentCacheStats(
+    long hits, long misses, long evictions, int entries, long weightBytes, long maxWeightBytes) {}
@@ -0,0 +1,9 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.document;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import java.io.IOException;
+
+@FunctionalInterface
+public interface DocumentLoader {
+  Object load(FileMetadata metadata) throws IOException;
+}
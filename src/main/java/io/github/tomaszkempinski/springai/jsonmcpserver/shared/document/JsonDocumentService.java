@@ -0,0 +1,24 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.document;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+
+/**
+ * The parsed form of a file, shared by querying, schema inference and validation, so a file is
+ * parsed once for all of them while its version is cached.
+ */
+public interface JsonDocumentService {
+
+  /**
+   * Returns the document of the file, parsed or from the document cache. The records of a JSON
+   * Lines file are returned as one array. The tree is shared and must not be modified.
+   */
+  JsonNode get(FileMetadata metadata);
+
+  /**
+   * Returns the document in the configured cache representation, as queries evaluate it: the tree
+   * of {@link #get}, or the root of a {@link CompactDocument}, whose containers are read-only maps
+   * and lists. Unlike {@link #get}, this never copies a compact document into a tree.
+   */
+  Object getForQuery(FileMetadata metadata);
+}
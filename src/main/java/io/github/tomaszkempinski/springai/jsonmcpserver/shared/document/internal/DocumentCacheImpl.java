@@ -0,0 +1,208 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.internal;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ErrorType;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.CompactDocument;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.DocumentCache;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.DocumentCacheStats;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.DocumentLoader;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+public class DocumentCacheImpl implements DocumentCache {
+
+  // Rough heap footprint of Jackson tree nodes, with compressed references
+  private static final long NODE_BYTES = 24;
+  private static final long MEMBER_BYTES = 48 + 40;
+  private static final long ELEMENT_BYTES = 8;
+  private static final long STRING_BYTES = 40;
+
+  private final boolean enabled;
+  private final long maxWeightBytes;
+  private final Map<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final Map<FileMetadata, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+  private long weightBytes;
+
+  public DocumentCacheImpl(FileProperties fileProperties) {
+    this.enabled = fileProperties.getDocumentCache().isEnabled();
+    this.maxWeightBytes = fileProperties.getDocumentCache().getMaxSize().toBytes();
+  }
+
+  @Override
+  public Object get(FileMetadata metadata, DocumentLoader loader) {
+    if (!enabled) {
+      try {
+        return loader.load(metadata);
+      } catch (IOException e) {
+        throw new ServiceException(ErrorType.IO_ERROR, e.getMessage(), e);
+      }
+    }
+    Path key = metadata.path().toAbsolutePath().normalize();
+    FileMetadata version = new FileMetadata(key, metadata.size(), metadata.lastModified());
+    while (true) {
+      Entry cached = lookup(key, metadata);
+      if (cached != null) {
+        hits.increment();
+        return cached.document();
+      }
+      CompletableFuture<Object> load = new CompletableFuture<>();
+      CompletableFuture<Object> running = loading.putIfAbsent(version, load);
+      if (running != null) {
+        try {
+          Object document = await(running);
+          hits.increment();
+          return document;
+        } catch (CancellationException _) {
+          // the loading call was aborted, so this one loads the document itself
+          continue;
+        }
+      }
+      misses.increment();
+      try {
+        Object document = loader.load(metadata);
+        store(key, new Entry(metadata, document, weigh(document)));
+        load.complete(document);
+        return document;
+      } catch (IOException e) {
+        ServiceException error = new ServiceException(ErrorType.IO_ERROR, e.getMessage(), e);
+        fail(load, error);
+        throw error;
+      } catch (RuntimeException | Error e) {
+        fail(load, e);
+        throw e;
+      } finally {
+        loading.remove(version, load);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void invalidate(Path path) {
+    Entry removed = entries.remove(path.toAbsolutePath().normalize());
+    if (removed != null) {
+      weightBytes -= removed.weight();
+    }
+  }
+
+  @Override
+  public synchronized DocumentCacheStats stats() {
+    return new DocumentCacheStats(
+        hits.sum(), misses.sum(), evictions.sum(), entries.size(), weightBytes, maxWeightBytes);
+  }
+
+  private static void fail(CompletableFuture<Object> load, Throwable error) {
+    if (RequestBudget.current().isAborted()) {
+      load.cancel(false);
+    } else {
+      load.completeExceptionally(error);
+    }
+  }
+
+  private static Object await(CompletableFuture<Object> load) {
+    RequestBudget budget = RequestBudget.current();
+    Duration remaining = budget.remaining();
+    try {
+      return remaining == null ? load.get() : load.get(remaining.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException _) {
+      throw budget.timedOut();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServiceException(
+          ErrorType.PROCESSING_ERROR, "Interrupted while waiting for the document", e);
+    } catch (ExecutionException e) {
+      switch (e.getCause()) {
+        case RuntimeException runtime -> throw runtime;
+        case Error error -> throw error;
+        default -> throw new ServiceException(ErrorType.IO_ERROR, e.getMessage(), e.getCause());
+      }
+    }
+  }
+
+  private synchronized Entry lookup(Path key, FileMetadata metadata) {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (!entry.metadata().isSameVersion(metadata)) {
+      entries.remove(key);
+      weightBytes -= entry.weight();
+      return null;
+    }
+    return entry;
+  }
+
+  private synchronized void store(Path key, Entry entry) {
+    if (entry.weight() > maxWeightBytes) {
+      log.debug("Document {} exceeds cache ceiling, not caching", key);
+      return;
+    }
+    Entry previous = entries.put(key, entry);
+    if (previous != null) {
+      weightBytes -= previous.weight();
+    }
+    weightBytes += entry.weight();
+
+    Iterator<Map.Entry<Path, Entry>> eldest = entries.entrySet().iterator();
+    while (weightBytes > maxWeightBytes && eldest.hasNext()) {
+      Map.Entry<Path, Entry> victim = eldest.next();
+      eldest.remove();
+      weightBytes -= victim.getValue().weight();
+      evictions.increment();
+      log.debug("Evicted document {} from cache", victim.getKey());
+    }
+  }
+
+  /** Heap taken by the document: exact for compact documents, estimated for trees. */
+  private static long weigh(Object document) {
+    if (document instanceof CompactDocument compact) {
+      return compact.sizeBytes();
+    }
+    long weight = 0;
+    Deque<JsonNode> pending = new ArrayDeque<>();
+    pending.push((JsonNode) document);
+    while (!pending.isEmpty()) {
+      JsonNode node = pending.pop();
+      weight += NODE_BYTES;
+      if (node.isObject()) {
+        for (Map.Entry<String, JsonNode> member : node.properties()) {
+          weight += MEMBER_BYTES + member.getKey().length();
+          pending.push(member.getValue());
+        }
+      } else if (node.isArray()) {
+        for (JsonNode element : node) {
+          weight += ELEMENT_BYTES;
+          pending.push(element);
+        }
+      } else if (node.isTextual()) {
+        weight += STRING_BYTES + node.textValue().length();
+      }
+    }
+    return weight;
+  }
+
+  private record Entry(FileMetadata metadata, Object document, long weight) {}
+}
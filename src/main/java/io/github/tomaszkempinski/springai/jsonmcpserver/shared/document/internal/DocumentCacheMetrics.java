@@ -0,0 +1,43 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.internal;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.MetricsProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.DocumentCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DocumentCacheMetrics {
+
+  public DocumentCacheMetrics(
+      ObjectProvider<MeterRegistry> meterRegistry,
+      MetricsProperties metricsProperties,
+      DocumentCache documentCache) {
+    MeterRegistry registry = metricsProperties.isEnabled() ? meterRegistry.getIfAvailable() : null;
+    if (registry == null) {
+      return;
+    }
+    FunctionCounter.builder("mcp.document.cache.requests", documentCache, c -> c.stats().hits())
+        .description("Parsed-document cache lookups")
+        .tag("result", "hit")
+        .register(registry);
+    FunctionCounter.builder("mcp.document.cache.requests", documentCache, c -> c.stats().misses())
+        .description("Parsed-document cache lookups")
+        .tag("result", "miss")
+        .register(registry);
+    FunctionCounter.builder(
+            "mcp.document.cache.evictions", documentCache, c -> c.stats().evictions())
+        .description("Documents evicted from the parsed-document cache")
+        .register(registry);
+    Gauge.builder("mcp.document.cache.entries", documentCache, c -> c.stats().entries())
+        .description("Documents in the parsed-document cache")
+        .register(registry);
+    Gauge.builder("mcp.document.cache.size", documentCache, c -> c.stats().weightBytes())
+        .description("Estimated heap taken by the parsed-document cache")
+        .baseUnit(BaseUnits.BYTES)
+        .register(registry);
+  }
+}
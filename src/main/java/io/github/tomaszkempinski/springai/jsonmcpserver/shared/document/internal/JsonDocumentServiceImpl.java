@@ -0,0 +1,103 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ErrorType;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.CompactDocument;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.DocumentCache;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.JsonDocumentService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileIngestionService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonLinesReader;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class JsonDocumentServiceImpl implements JsonDocumentService {
+
+  private final DocumentCache documentCache;
+  private final FileIngestionService fileIngestionService;
+  private final JsonLinesReader jsonLinesReader;
+  private final ObjectMapper objectMapper;
+  private final FileProperties fileProperties;
+
+  @Override
+  public JsonNode get(FileMetadata metadata) {
+    Object document = documentCache.get(metadata, this::load);
+    if (document instanceof CompactDocument compact) {
+      return compact.toTree();
+    }
+    return (JsonNode) document;
+  }
+
+  @Override
+  public Object getForQuery(FileMetadata metadata) {
+    Object document = documentCache.get(metadata, this::load);
+    if (document instanceof CompactDocument compact) {
+      return compact.root();
+    }
+    return document;
+  }
+
+  private Object load(FileMetadata metadata) throws IOException {
+    FileProperties.DocumentCache settings = fileProperties.getDocumentCache();
+    if (settings.getRepresentation() == FileProperties.Representation.COMPACT) {
+      return loadCompact(metadata, settings.isOffHeap());
+    }
+    return loadTree(metadata);
+  }
+
+  /**
+   * Builds the compact form in one pass over the tokens. JSON Lines records are read sequentially
+   * as one array, since the tape of a document is a single run of slots.
+   */
+  private CompactDocument loadCompact(FileMetadata metadata, boolean offHeap) throws IOException {
+    try (JsonFileSource source = fileIngestionService.open(metadata);
+        JsonParser parser =
+            jsonLinesReader.isJsonLines(metadata)
+                ? jsonLinesReader.createParser(source, objectMapper.getFactory())
+                : source.createParser(objectMapper.getFactory())) {
+      return CompactDocument.parse(parser, offHeap);
+    } catch (JsonProcessingException e) {
+      throw new ServiceException(
+          ErrorType.PROCESSING_ERROR, "Reading or parsing JSON file: " + e.getMessage(), e);
+    }
+  }
+
+  private JsonNode loadTree(FileMetadata metadata) throws IOException {
+    try (JsonFileSource source = fileIngestionService.open(metadata)) {
+      if (jsonLinesReader.isJsonLines(metadata)) {
+        ArrayNode records = objectMapper.createArrayNode();
+        jsonLinesReader.forEachChunk(
+            source,
+            chunk -> {
+              try (JsonParser parser = chunk.createParser(objectMapper.getFactory())) {
+                return objectMapper.<ArrayNode>readTree(parser);
+              }
+            },
+            true,
+            records::addAll);
+        return records;
+      }
+      try (JsonParser parser = source.createParser(objectMapper.getFactory())) {
+        JsonNode document = objectMapper.readTree(parser);
+        if (document == null) {
+          throw new ServiceException(
+              ErrorType.PROCESSING_ERROR, "Reading or parsing JSON file: no content");
+        }
+        return document;
+      }
+    } catch (JsonProcessingException e) {
+      throw new ServiceException(
+          ErrorType.PROCESSING_ERROR, "Reading or parsing JSON file: " + e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file;
+
+import java.nio.file.Path;
+
+/**
+ * Compression of an input file, recognized by the suffix after its JSON extension, as in {@code
+ * data.json.gz}. Compressed files are decompressed as a stream while they are read.
+ */
+public enum Compression {
+  NONE(""),
+  GZIP(".gz"),
+  ZSTD(".zst");
+
+  /**
+   * Typical ratio of decompressed to compressed size of JSON. Size thresholds are compared with the
+   * estimated decompressed size, since that is what is parsed and held in memory.
+   */
+  private static final int EXPANSION_RATIO = 8;
+
+  private final String suffix;
+
+  Compression(String suffix) {
+    this.suffix = suffix;
+  }
+
+  public static Compression of(Path path) {
+    return of(path.getFileName().toString());
+  }
+
+  public static Compression of(String fileName) {
+    String name = fileName.toLowerCase();
+    for (Compression compression : values()) {
+      if (compression != NONE && name.endsWith(compression.suffix)) {
+        return compression;
+      }
+    }
+    return NONE;
+  }
+
+  /** Returns the file name without the suffix of this compression, e.g. {@code data.json}. */
+  public String stripSuffix(String fileName) {
+    return fileName.substring(0, fileName.length() - suffix.length());
+  }
+
+  public long estimateContentSize(long fileSize) {
+    return this == NONE ? fileSize : fileSize * EXPANSION_RATIO;
+  }
+}
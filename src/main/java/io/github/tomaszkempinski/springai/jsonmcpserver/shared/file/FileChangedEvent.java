@@ -0,0 +1,11 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file;
+
+import java.nio.file.Path;
+
+/** Published when a file under a watched root is created, rewritten or deleted. */
+public record FileChangedEvent(Path path, FileMetadata metadata) {
+
+  public boolean isDeleted() {
+    return metadata == null;
+  }
+}
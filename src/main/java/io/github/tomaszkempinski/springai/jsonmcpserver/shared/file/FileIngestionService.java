@@ -0,0 +1,5 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file;
+
+public interface FileIngestionService {
+  JsonFileSource open(FileMetadata metadata);
+}
@@ -0,0 +1,33 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+public record FileMetadata(Path path, long size, FileTime lastModified) {
+
+  public static FileMetadata of(Path path) throws IOException {
+    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    return new FileMetadata(path, attributes.size(), attributes.lastModifiedTime());
+  }
+
+  public boolean isSameVersion(FileMetadata other) {
+    return other != null && size == other.size && lastModified.equals(other.lastModified);
+  }
+
+  public Compression compression() {
+    return Compression.of(path);
+  }
+
+  /** The file name without a compression suffix, which tells the format of the content. */
+  public String contentName() {
+    return compression().stripSuffix(path.getFileName().toString());
+  }
+
+  /** The size of the content once decompressed, estimated for compressed files. */
+  public long contentSize() {
+    return compression().estimateContentSize(size);
+  }
+}
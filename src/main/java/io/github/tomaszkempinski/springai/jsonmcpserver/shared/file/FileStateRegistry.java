@@ -0,0 +1,10 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface FileStateRegistry {
+  boolean isWatched(Path path);
+
+  Optional<FileMetadata> lookup(Path path);
+}
@@ -1,7 +1,13 @@
 package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file;
 
-import java.nio.file.Path;
+import java.util.Optional;
 
 public interface FileValidationService {
-  Path validateFileExists(String absolutePath);
+  FileMetadata validateFileExists(String absolutePath);
+
+  /**
+   * Returns the metadata of the file without validating it, from the file state registry when the
+   * file is watched. Empty when the path is invalid or the file does not exist.
+   */
+  Optional<FileMetadata> lookup(String absolutePath);
 }
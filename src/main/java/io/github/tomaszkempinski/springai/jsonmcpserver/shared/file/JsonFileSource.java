@@ -0,0 +1,33 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface JsonFileSource extends AutoCloseable {
+  FileMetadata metadata();
+
+  InputStream openStream() throws IOException;
+
+  default InputStream openStream(long offset) throws IOException {
+    return openStream(offset, Long.MAX_VALUE);
+  }
+
+  InputStream openStream(long offset, long length) throws IOException;
+
+  JsonParser createParser(JsonFactory jsonFactory) throws IOException;
+
+  /**
+   * Whether streams can start at an offset without reading everything before it. Offsets of
+   * compressed files are offsets into the decompressed content, which has to be read up to them.
+   */
+  default boolean isSeekable() {
+    return true;
+  }
+
+  String readString() throws IOException;
+
+  @Override
+  void close();
+}
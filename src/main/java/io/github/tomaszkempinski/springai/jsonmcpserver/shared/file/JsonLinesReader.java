@@ -0,0 +1,41 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads JSON Lines files as if they were a single JSON array with one element per non-blank line.
+ * Large files are split at line boundaries into chunks that are processed in parallel.
+ */
+public interface JsonLinesReader {
+  boolean isJsonLines(FileMetadata metadata);
+
+  /** Returns a parser that reads the whole file as one array of its records. */
+  JsonParser createParser(JsonFileSource source, JsonFactory jsonFactory) throws IOException;
+
+  /**
+   * Applies the function to every chunk of the file in parallel and hands the results to the
+   * consumer on the calling thread, in file order when {@code ordered} is set and in completion
+   * order otherwise.
+   */
+  <T> void forEachChunk(
+      JsonFileSource source, ChunkFunction<T> function, boolean ordered, Consumer<T> results)
+      throws IOException;
+
+  /** A run of complete lines of a JSON Lines file. */
+  interface Chunk {
+    /** Returns a parser that reads the records of this chunk as one array. */
+    JsonParser createParser(JsonFactory jsonFactory) throws IOException;
+
+    /** Returns the non-blank lines of this chunk, one record each. */
+    List<String> readRecords() throws IOException;
+  }
+
+  @FunctionalInterface
+  interface ChunkFunction<T> {
+    T apply(Chunk chunk) throws IOException;
+  }
+}
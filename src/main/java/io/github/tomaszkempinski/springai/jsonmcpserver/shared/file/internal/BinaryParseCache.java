@@ -0,0 +1,220 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.Hashing;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * On-disk cache of Smile copies of large JSON files, used while the size and modification time in
+ * their header match the file. Copies are written in the background after a miss.
+ */
+@Slf4j
+class BinaryParseCache {
+
+  private static final int MAGIC = 0x4A4D5343;
+  private static final int FORMAT_VERSION = 1;
+  private static final int HEADER_SIZE = 24;
+  private static final String SUFFIX = ".smile";
+
+  private final boolean enabled;
+  private final Path directory;
+  private final long threshold;
+  private final long maxSizeBytes;
+  private final List<String> jsonLinesExtensions;
+  private final JsonFactory jsonFactory = new JsonFactory();
+  private final SmileFactory smileFactory = new SmileFactory();
+  private final Set<Path> writing = ConcurrentHashMap.newKeySet();
+  private final ExecutorService writer =
+      Executors.newSingleThreadExecutor(
+          Thread.ofPlatform().name("parse-cache-writer").daemon().factory());
+
+  @FunctionalInterface
+  interface Opener {
+    JsonFileSource open() throws IOException;
+  }
+
+  BinaryParseCache(FileProperties fileProperties) {
+    FileProperties.ParseCache parseCache = fileProperties.getParseCache();
+    this.enabled = parseCache.isEnabled();
+    this.directory = Paths.get(parseCache.getDirectory());
+    this.threshold = parseCache.getThreshold().toBytes();
+    this.maxSizeBytes = parseCache.getMaxSize().toBytes();
+    this.jsonLinesExtensions =
+        fileProperties.getJsonLines().getExtensions().stream().map(String::toLowerCase).toList();
+  }
+
+  /**
+   * Returns a source that parses the cached copy of the file if there is a valid one, and opens the
+   * text only if its streams are read. Otherwise returns the text and, if the file qualifies, has a
+   * copy written in the background from a source the copy opener provides.
+   */
+  JsonFileSource open(FileMetadata metadata, Opener text, Opener copySource) throws IOException {
+    if (!enabled
+        || metadata.contentSize() < threshold
+        || jsonLinesExtensions.stream().anyMatch(metadata.contentName().toLowerCase()::endsWith)) {
+      return text.open();
+    }
+    Path copy = copyOf(metadata.path());
+    JsonFileSource cached = null;
+    try {
+      cached = openCopy(metadata, text, copy);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Cannot read binary copy {} of {}: {}", copy, metadata.path(), e.getMessage());
+    }
+    if (cached != null) {
+      log.debug("Parsing {} from its cached copy {}", metadata.path(), copy);
+      return cached;
+    }
+    if (writing.add(copy)) {
+      writer.execute(
+          () -> {
+            try {
+              write(metadata, copy, copySource);
+            } finally {
+              writing.remove(copy);
+            }
+          });
+    }
+    return text.open();
+  }
+
+  void shutdown() {
+    writer.shutdownNow();
+  }
+
+  private JsonFileSource openCopy(FileMetadata metadata, Opener text, Path copy)
+      throws IOException {
+    Arena arena = Arena.ofShared();
+    try (FileChannel channel = FileChannel.open(copy, StandardOpenOption.READ)) {
+      MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+      if (!matches(segment, metadata)) {
+        arena.close();
+        return null;
+      }
+      Files.setLastModifiedTime(copy, FileTime.from(Instant.now()));
+      return new SmileJsonFileSource(
+          metadata, text, segment.asSlice(HEADER_SIZE), arena, smileFactory);
+    } catch (NoSuchFileException _) {
+      arena.close();
+      return null;
+    } catch (IOException | RuntimeException e) {
+      arena.close();
+      throw e;
+    }
+  }
+
+  private static boolean matches(MemorySegment segment, FileMetadata metadata) throws IOException {
+    if (segment.byteSize() < HEADER_SIZE) {
+      return false;
+    }
+    DataInputStream header = new DataInputStream(new MemorySegmentInputStream(segment));
+    return header.readInt() == MAGIC
+        && header.readInt() == FORMAT_VERSION
+        && header.readLong() == metadata.size()
+        && header.readLong() == metadata.lastModified().to(TimeUnit.NANOSECONDS);
+  }
+
+  private void write(FileMetadata metadata, Path copy, Opener opener) {
+    long start = System.nanoTime();
+    Path temporary = null;
+    try (JsonFileSource source = opener.open()) {
+      Files.createDirectories(directory);
+      temporary = Files.createTempFile(directory, copy.getFileName().toString(), ".tmp");
+      try (DataOutputStream out =
+              new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)));
+          JsonParser parser = source.createParser(jsonFactory)) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(metadata.size());
+        out.writeLong(metadata.lastModified().to(TimeUnit.NANOSECONDS));
+        try (JsonGenerator generator = smileFactory.createGenerator((OutputStream) out)) {
+          while (parser.nextToken() != null) {
+            generator.copyCurrentStructure(parser);
+          }
+        }
+      }
+      if (!FileMetadata.of(metadata.path()).isSameVersion(metadata)) {
+        log.debug("{} changed while it was copied, discarding the copy", metadata.path());
+        return;
+      }
+      Files.move(
+          temporary, copy, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      temporary = null;
+      log.info(
+          "Cached binary copy of {} in {} ms",
+          metadata.path(),
+          (System.nanoTime() - start) / 1_000_000);
+      evict();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Cannot cache binary copy of {}: {}", metadata.path(), e.getMessage());
+    } finally {
+      if (temporary != null) {
+        try {
+          Files.deleteIfExists(temporary);
+        } catch (IOException _) {
+          // best effort
+        }
+      }
+    }
+  }
+
+  /** Deletes the least recently used copies until the directory fits its maximum size. */
+  private void evict() throws IOException {
+    record Copy(Path path, long size, FileTime lastUsed) {}
+    List<Copy> copies = new ArrayList<>();
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.filter(file -> file.toString().endsWith(SUFFIX)).toList()) {
+        try {
+          copies.add(new Copy(file, Files.size(file), Files.getLastModifiedTime(file)));
+        } catch (NoSuchFileException _) {
+          // deleted meanwhile
+        }
+      }
+    }
+    long total = copies.stream().mapToLong(Copy::size).sum();
+    copies.sort(Comparator.comparing(Copy::lastUsed));
+    for (Copy copy : copies) {
+      if (total <= maxSizeBytes) {
+        break;
+      }
+      Files.deleteIfExists(copy.path());
+      total -= copy.size();
+      log.debug("Evicted binary copy {}", copy.path());
+    }
+  }
+
+  private Path copyOf(Path file) {
+    return directory.resolve(Hashing.sha256(file.toAbsolutePath().normalize().toString()) + SUFFIX);
+  }
+}
@@ -0,0 +1,257 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Inflates BGZF files, whose members record their size in a {@code BC} extra field, in parallel
+ * groups ahead of the reader. From a member without the field on, a {@link GZIPInputStream} reads.
+ */
+final class BlockGzipInputStream extends InputStream {
+
+  private static final int HEADER_SIZE = 18;
+  private static final int FOOTER_SIZE = 8;
+  private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+  private final JsonFileSource source;
+  private final ForkJoinPool pool;
+  private final long groupSize;
+  private final long window;
+  private final long size;
+  private final RequestBudget budget = RequestBudget.current();
+  private final Deque<Group> pending = new ArrayDeque<>();
+  private long buffered;
+  private long nextOffset;
+  private long streamOffset = -1;
+  private InputStream stream;
+  private byte[] current = new byte[0];
+  private int position;
+
+  BlockGzipInputStream(JsonFileSource source, ForkJoinPool pool, long groupSize) {
+    this(source, pool, groupSize, 0);
+  }
+
+  private BlockGzipInputStream(
+      JsonFileSource source, ForkJoinPool pool, long groupSize, long start) {
+    this.source = source;
+    this.pool = pool;
+    this.groupSize = Math.max(1, groupSize);
+    this.window = 2L * pool.getParallelism() * this.groupSize;
+    this.size = source.metadata().size();
+    this.nextOffset = start;
+  }
+
+  static boolean isBlockGzip(JsonFileSource source) throws IOException {
+    return blockSize(source, 0) > 0;
+  }
+
+  /**
+   * Opens a stream at an offset into the inflated content. Members before the one containing the
+   * offset are skipped by their recorded sizes, so only that member is inflated and discarded.
+   */
+  static InputStream open(JsonFileSource source, ForkJoinPool pool, long groupSize, long offset)
+      throws IOException {
+    long size = source.metadata().size();
+    long member = 0;
+    long memberContent = 0;
+    while (member < size) {
+      RequestBudget.checkpoint();
+      int blockSize = blockSize(source, member);
+      if (blockSize <= 0) {
+        break;
+      }
+      long contentSize = contentSize(source, member, blockSize);
+      if (memberContent + contentSize > offset) {
+        break;
+      }
+      member += blockSize;
+      memberContent += contentSize;
+    }
+    BlockGzipInputStream in = new BlockGzipInputStream(source, pool, groupSize, member);
+    try {
+      in.skip(offset - memberContent);
+      return in;
+    } catch (IOException | RuntimeException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    while (position == current.length) {
+      if (!advance()) {
+        return -1;
+      }
+    }
+    return current[position++] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] buffer, int offset, int length) throws IOException {
+    Objects.checkFromIndexSize(offset, length, buffer.length);
+    if (length == 0) {
+      return 0;
+    }
+    while (position == current.length) {
+      if (!advance()) {
+        return -1;
+      }
+    }
+    int count = Math.min(length, current.length - position);
+    System.arraycopy(current, position, buffer, offset, count);
+    position += count;
+    return count;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = 0;
+    while (skipped < n) {
+      if (position == current.length) {
+        if (!advance()) {
+          break;
+        }
+        continue;
+      }
+      int count = (int) Math.min(n - skipped, current.length - position);
+      position += count;
+      skipped += count;
+    }
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return current.length - position;
+  }
+
+  @Override
+  public void close() throws IOException {
+    pending.forEach(group -> group.content().cancel(true));
+    pending.clear();
+    if (stream != null) {
+      stream.close();
+    }
+  }
+
+  private boolean advance() throws IOException {
+    fill();
+    Group next = pending.poll();
+    if (next != null) {
+      buffered -= next.contentSize();
+      current = await(next.content());
+      position = 0;
+      return true;
+    }
+    if (streamOffset < 0) {
+      return false;
+    }
+    if (stream == null) {
+      stream = new GZIPInputStream(source.openStream(streamOffset), STREAM_BUFFER_SIZE);
+    }
+    current = stream.readNBytes(STREAM_BUFFER_SIZE);
+    position = 0;
+    return current.length > 0;
+  }
+
+  private void fill() throws IOException {
+    while ((pending.isEmpty() || buffered < window) && nextOffset < size && streamOffset < 0) {
+      RequestBudget.checkpoint();
+      long start = nextOffset;
+      long contentSize = 0;
+      long end = start;
+      while (end < size && contentSize < groupSize) {
+        int blockSize = blockSize(source, end);
+        if (blockSize <= 0) {
+          // streaming takes over at the first member without a BC field
+          streamOffset = end;
+          break;
+        }
+        contentSize += contentSize(source, end, blockSize);
+        end += blockSize;
+      }
+      end = Math.min(end, size);
+      nextOffset = end;
+      if (end == start) {
+        break;
+      }
+      long length = end - start;
+      Future<byte[]> content =
+          pool.submit(
+              () -> {
+                try (RequestBudget.Scope _ = budget.bind();
+                    InputStream in = new GZIPInputStream(source.openStream(start, length))) {
+                  return in.readAllBytes();
+                }
+              });
+      pending.add(new Group(content, contentSize));
+      buffered += contentSize;
+    }
+  }
+
+  /** Returns the size of the member at the offset, or -1 if its header has no BC field. */
+  private static int blockSize(JsonFileSource source, long offset) throws IOException {
+    byte[] header;
+    try (InputStream in = source.openStream(offset, HEADER_SIZE)) {
+      header = in.readNBytes(HEADER_SIZE);
+    }
+    boolean bgzf =
+        header.length == HEADER_SIZE
+            && (header[0] & 0xFF) == 0x1F
+            && (header[1] & 0xFF) == 0x8B
+            && header[2] == 8
+            && (header[3] & 0x04) != 0
+            && unsignedShort(header, 10) == 6
+            && header[12] == 'B'
+            && header[13] == 'C'
+            && unsignedShort(header, 14) == 2;
+    return bgzf ? unsignedShort(header, 16) + 1 : -1;
+  }
+
+  /** Returns the inflated size of the member, recorded in the ISIZE field of its footer. */
+  private static long contentSize(JsonFileSource source, long offset, int blockSize)
+      throws IOException {
+    byte[] footer;
+    try (InputStream in = source.openStream(offset + blockSize - FOOTER_SIZE, FOOTER_SIZE)) {
+      footer = in.readNBytes(FOOTER_SIZE);
+    }
+    if (footer.length < FOOTER_SIZE) {
+      throw new IOException("Truncated gzip member at offset " + offset);
+    }
+    return (footer[4] & 0xFFL)
+        | (footer[5] & 0xFFL) << 8
+        | (footer[6] & 0xFFL) << 16
+        | (footer[7] & 0xFFL) << 24;
+  }
+
+  private static int unsignedShort(byte[] bytes, int offset) {
+    return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+  }
+
+  private record Group(Future<byte[]> content, long contentSize) {}
+
+  private static byte[] await(Future<byte[]> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while decompressing", e);
+    } catch (ExecutionException e) {
+      switch (e.getCause()) {
+        case IOException io -> throw io;
+        case RuntimeException runtime -> throw runtime;
+        default -> throw new IOException(e.getCause().getMessage(), e.getCause());
+      }
+    }
+  }
+}
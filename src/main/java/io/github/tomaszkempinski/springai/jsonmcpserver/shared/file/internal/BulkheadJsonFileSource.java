@@ -0,0 +1,51 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import java.io.IOException;
+import java.io.InputStream;
+
+record BulkheadJsonFileSource(JsonFileSource delegate, ParseBulkhead.Permit permit)
+    implements JsonFileSource {
+
+  @Override
+  public FileMetadata metadata() {
+    return delegate.metadata();
+  }
+
+  @Override
+  public InputStream openStream() throws IOException {
+    return delegate.openStream();
+  }
+
+  @Override
+  public InputStream openStream(long offset, long length) throws IOException {
+    return delegate.openStream(offset, length);
+  }
+
+  @Override
+  public JsonParser createParser(JsonFactory jsonFactory) throws IOException {
+    return delegate.createParser(jsonFactory);
+  }
+
+  @Override
+  public String readString() throws IOException {
+    return delegate.readString();
+  }
+
+  @Override
+  public boolean isSeekable() {
+    return delegate.isSeekable();
+  }
+
+  @Override
+  public void close() {
+    try {
+      delegate.close();
+    } finally {
+      permit.close();
+    }
+  }
+}
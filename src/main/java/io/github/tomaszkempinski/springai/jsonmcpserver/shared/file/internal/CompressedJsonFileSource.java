@@ -0,0 +1,138 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import io.airlift.compress.zstd.ZstdInputStream;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.Compression;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decompresses a gzip or zstd file as it is read, without writing the content anywhere. Streams at
+ * an offset into a BGZF file start at the member containing it; all others decompress and discard
+ * everything before the offset.
+ */
+record CompressedJsonFileSource(
+    JsonFileSource compressed, ForkJoinPool decompressionPool, long blockGroupSize)
+    implements JsonFileSource {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  @Override
+  public FileMetadata metadata() {
+    return compressed.metadata();
+  }
+
+  @Override
+  public InputStream openStream() throws IOException {
+    return switch (metadata().compression()) {
+      case GZIP ->
+          BlockGzipInputStream.isBlockGzip(compressed)
+              ? new BlockGzipInputStream(compressed, decompressionPool, blockGroupSize)
+              : new GZIPInputStream(compressed.openStream(), BUFFER_SIZE);
+      case ZSTD -> new ZstdInputStream(compressed.openStream());
+      case NONE -> compressed.openStream();
+    };
+  }
+
+  @Override
+  public InputStream openStream(long offset, long length) throws IOException {
+    if (metadata().compression() == Compression.GZIP
+        && BlockGzipInputStream.isBlockGzip(compressed)) {
+      return new SliceInputStream(
+          BlockGzipInputStream.open(compressed, decompressionPool, blockGroupSize, offset), length);
+    }
+    InputStream in = openStream();
+    try {
+      byte[] discarded = new byte[BUFFER_SIZE];
+      long remaining = offset;
+      int read;
+      while (remaining > 0
+          && (read = in.read(discarded, 0, (int) Math.min(discarded.length, remaining))) >= 0) {
+        remaining -= read;
+      }
+      return new SliceInputStream(in, length);
+    } catch (IOException | RuntimeException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public JsonParser createParser(JsonFactory jsonFactory) throws IOException {
+    return jsonFactory.createParser(openStream());
+  }
+
+  @Override
+  public String readString() throws IOException {
+    try (InputStream in = openStream()) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Override
+  public boolean isSeekable() {
+    return false;
+  }
+
+  @Override
+  public void close() {
+    compressed.close();
+  }
+
+  private static final class SliceInputStream extends FilterInputStream {
+    private long remaining;
+
+    private SliceInputStream(InputStream in, long length) {
+      super(in);
+      this.remaining = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (remaining <= 0) {
+        return -1;
+      }
+      int read = super.read();
+      if (read >= 0) {
+        remaining--;
+      }
+      return read;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      if (remaining <= 0) {
+        return length == 0 ? 0 : -1;
+      }
+      int read = super.read(buffer, offset, (int) Math.min(length, remaining));
+      if (read > 0) {
+        remaining -= read;
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(Math.min(n, remaining));
+      remaining -= skipped;
+      return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return (int) Math.min(super.available(), remaining);
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ErrorType;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.Compression;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileIngestionService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import org.springframework.stereotype.Service;
+
+@Service
+public class FileIngestionServiceImpl implements FileIngestionService {
+
+  private final FileProperties fileProperties;
+  private final ParseBulkhead bulkhead;
+  private final ForkJoinPool decompressionPool;
+  private final BinaryParseCache parseCache;
+
+  public FileIngestionServiceImpl(FileProperties fileProperties) {
+    this.fileProperties = fileProperties;
+    this.bulkhead = new ParseBulkhead(fileProperties.getBulkhead());
+    this.decompressionPool = new ForkJoinPool(fileProperties.getCompression().getParallelism());
+    this.parseCache = new BinaryParseCache(fileProperties);
+  }
+
+  @Override
+  public JsonFileSource open(FileMetadata metadata) {
+    try {
+      return permitted(
+          metadata,
+          () ->
+              parseCache.open(
+                  metadata, () -> read(metadata), () -> permitted(metadata, () -> read(metadata))));
+    } catch (IOException e) {
+      throw new ServiceException(ErrorType.IO_ERROR, e.getMessage(), e);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    decompressionPool.shutdownNow();
+    parseCache.shutdown();
+  }
+
+  private JsonFileSource read(FileMetadata metadata) throws IOException {
+    JsonFileSource source =
+        metadata.size() < fileProperties.getMemoryMappingThreshold().toBytes()
+            ? new HeapJsonFileSource(metadata, Files.readAllBytes(metadata.path()))
+            : map(metadata);
+    FileProperties.Compression compression = fileProperties.getCompression();
+    if (compression.isEnabled() && metadata.compression() != Compression.NONE) {
+      return new CompressedJsonFileSource(
+          source, decompressionPool, compression.getBlockGroupSize().toBytes());
+    }
+    return source;
+  }
+
+  /** Opens the source holding a permit of the bulkhead until the source is closed. */
+  private JsonFileSource permitted(FileMetadata metadata, BinaryParseCache.Opener opener)
+      throws IOException {
+    ParseBulkhead.Permit permit = bulkhead.acquire(metadata);
+    try {
+      JsonFileSource source = opener.open();
+      return permit != null ? new BulkheadJsonFileSource(source, permit) : source;
+    } catch (IOException | RuntimeException e) {
+      release(permit);
+      throw e;
+    }
+  }
+
+  private static void release(ParseBulkhead.Permit permit) {
+    if (permit != null) {
+      permit.close();
+    }
+  }
+
+  /**
+   * Maps the validated size of the file, so the source matches the metadata it is cached under. A
+   * file that shrank since is rejected, as reading past its end through the mapping would fail.
+   */
+  private JsonFileSource map(FileMetadata metadata) throws IOException {
+    Arena arena = Arena.ofShared();
+    try (FileChannel channel = FileChannel.open(metadata.path(), StandardOpenOption.READ)) {
+      if (channel.size() < metadata.size()) {
+        throw new IOException("File changed while it was being opened: " + metadata.path());
+      }
+      MemorySegment segment =
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, metadata.size(), arena);
+      return new MappedJsonFileSource(metadata, segment, arena);
+    } catch (IOException | RuntimeException e) {
+      arena.close();
+      throw e;
+    }
+  }
+}
@@ -3,10 +3,16 @@ package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
 import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ErrorType;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.Compression;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileStateRegistry;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileValidationService;
-import java.nio.file.Files;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -15,9 +21,10 @@ import org.springframework.stereotype.Service;
 public class FileValidationServiceImpl implements FileValidationService {
 
   private final FileProperties fileProperties;
+  private final FileStateRegistry fileStateRegistry;
 
   @Override
-  public Path validateFileExists(String absolutePath) {
+  public FileMetadata validateFileExists(String absolutePath) {
     if (absolutePath == null || !isValidExtension(absolutePath)) {
       throw new ServiceException(
           ErrorType.INVALID_FILE_EXTENSION,
@@ -27,14 +34,40 @@ public class FileValidationServiceImpl implements FileValidationService {
     }
 
     Path path = Paths.get(absolutePath);
-    if (!Files.exists(path)) {
+    Optional<FileMetadata> watched = lookupWatched(path);
+    if (watched.isPresent()) {
+      return watched.get();
+    }
+    try {
+      return FileMetadata.of(path);
+    } catch (NoSuchFileException _) {
       throw new ServiceException(ErrorType.FILE_NOT_FOUND, "File not found", absolutePath);
+    } catch (IOException e) {
+      throw new ServiceException(ErrorType.IO_ERROR, e.getMessage(), e);
     }
-    return path;
+  }
+
+  @Override
+  public Optional<FileMetadata> lookup(String absolutePath) {
+    try {
+      Path path = Paths.get(absolutePath).toAbsolutePath().normalize();
+      Optional<FileMetadata> watched = lookupWatched(path);
+      return watched.isPresent() ? watched : Optional.of(FileMetadata.of(path));
+    } catch (IOException | InvalidPathException _) {
+      return Optional.empty();
+    }
+  }
+
+  // a miss may be a file created or renamed before its watch event arrived, so callers stat it
+  private Optional<FileMetadata> lookupWatched(Path path) {
+    return fileStateRegistry.isWatched(path) ? fileStateRegistry.lookup(path) : Optional.empty();
   }
 
   private boolean isValidExtension(String path) {
-    String lowerPath = path.toLowerCase();
+    String lowerPath =
+        fileProperties.getCompression().isEnabled()
+            ? Compression.of(path).stripSuffix(path).toLowerCase()
+            : path.toLowerCase();
     return fileProperties.getAllowedExtensions().stream()
         .anyMatch(ext -> lowerPath.endsWith(ext.toLowerCase()));
   }
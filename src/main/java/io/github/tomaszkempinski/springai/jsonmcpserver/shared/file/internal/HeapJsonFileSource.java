@@ -0,0 +1,37 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+record HeapJsonFileSource(FileMetadata metadata, byte[] content) implements JsonFileSource {
+
+  @Override
+  public InputStream openStream() {
+    return new ByteArrayInputStream(content);
+  }
+
+  @Override
+  public InputStream openStream(long offset, long length) {
+    int start = (int) Math.min(offset, content.length);
+    return new ByteArrayInputStream(content, start, (int) Math.min(length, content.length - start));
+  }
+
+  @Override
+  public JsonParser createParser(JsonFactory jsonFactory) throws IOException {
+    return jsonFactory.createParser(content);
+  }
+
+  @Override
+  public String readString() {
+    return new String(content, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void close() {}
+}
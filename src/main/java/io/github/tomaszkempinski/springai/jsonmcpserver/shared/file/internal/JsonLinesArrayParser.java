@@ -0,0 +1,126 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.JsonTokenId;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import java.io.IOException;
+
+/**
+ * Presents the root-level values of a JSON Lines stream as the elements of one array, by emitting a
+ * synthetic {@code START_ARRAY} before the first value and {@code END_ARRAY} after the last.
+ */
+class JsonLinesArrayParser extends JsonParserDelegate {
+
+  private enum State {
+    BEFORE,
+    START,
+    RECORDS,
+    END,
+    DONE
+  }
+
+  private State state = State.BEFORE;
+
+  JsonLinesArrayParser(JsonParser delegate) {
+    super(delegate);
+  }
+
+  @Override
+  public JsonToken nextToken() throws IOException {
+    switch (state) {
+      case BEFORE -> {
+        state = State.START;
+        return JsonToken.START_ARRAY;
+      }
+      case START, RECORDS -> {
+        JsonToken token = delegate.nextToken();
+        if (token == null) {
+          state = State.END;
+          return JsonToken.END_ARRAY;
+        }
+        state = State.RECORDS;
+        return token;
+      }
+      case END -> {
+        state = State.DONE;
+        return null;
+      }
+      default -> {
+        return null;
+      }
+    }
+  }
+
+  @Override
+  public JsonToken nextValue() throws IOException {
+    JsonToken token = nextToken();
+    return token == JsonToken.FIELD_NAME ? nextToken() : token;
+  }
+
+  @Override
+  public JsonParser skipChildren() throws IOException {
+    if (state == State.START) {
+      while (delegate.nextToken() != null) {
+        delegate.skipChildren();
+      }
+      state = State.END;
+    } else if (state == State.RECORDS) {
+      delegate.skipChildren();
+    }
+    return this;
+  }
+
+  @Override
+  public JsonToken currentToken() {
+    return switch (state) {
+      case START -> JsonToken.START_ARRAY;
+      case END -> JsonToken.END_ARRAY;
+      case RECORDS -> delegate.currentToken();
+      default -> null;
+    };
+  }
+
+  @Override
+  @Deprecated
+  public JsonToken getCurrentToken() {
+    return currentToken();
+  }
+
+  @Override
+  public int currentTokenId() {
+    JsonToken token = currentToken();
+    return token == null ? JsonTokenId.ID_NO_TOKEN : token.id();
+  }
+
+  @Override
+  @Deprecated
+  public int getCurrentTokenId() {
+    return currentTokenId();
+  }
+
+  @Override
+  public boolean hasCurrentToken() {
+    return currentToken() != null;
+  }
+
+  @Override
+  public boolean hasToken(JsonToken token) {
+    return currentToken() == token;
+  }
+
+  @Override
+  public boolean hasTokenId(int id) {
+    return currentTokenId() == id;
+  }
+
+  @Override
+  public boolean isExpectedStartArrayToken() {
+    return currentToken() == JsonToken.START_ARRAY;
+  }
+
+  @Override
+  public boolean isExpectedStartObjectToken() {
+    return currentToken() == JsonToken.START_OBJECT;
+  }
+}
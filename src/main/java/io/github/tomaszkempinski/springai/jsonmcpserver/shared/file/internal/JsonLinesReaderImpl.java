@@ -0,0 +1,253 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonLinesReader;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import org.springframework.stereotype.Service;
+
+@Service
+public class JsonLinesReaderImpl implements JsonLinesReader {
+
+  private final List<String> extensions;
+  private final long chunkSize;
+  private final ForkJoinPool pool;
+
+  public JsonLinesReaderImpl(FileProperties fileProperties) {
+    FileProperties.JsonLines jsonLines = fileProperties.getJsonLines();
+    this.extensions = jsonLines.getExtensions().stream().map(String::toLowerCase).toList();
+    this.chunkSize = Math.max(1, jsonLines.getChunkSize().toBytes());
+    this.pool = new ForkJoinPool(jsonLines.getParallelism());
+  }
+
+  @Override
+  public boolean isJsonLines(FileMetadata metadata) {
+    String name = metadata.contentName().toLowerCase();
+    return extensions.stream().anyMatch(name::endsWith);
+  }
+
+  @Override
+  public JsonParser createParser(JsonFileSource source, JsonFactory jsonFactory)
+      throws IOException {
+    return new JsonLinesArrayParser(source.createParser(jsonFactory));
+  }
+
+  @Override
+  public <T> void forEachChunk(
+      JsonFileSource source, ChunkFunction<T> function, boolean ordered, Consumer<T> results)
+      throws IOException {
+    int window = pool.getParallelism() * 2;
+    Deque<Future<T>> pending = new ArrayDeque<>();
+    // in order, the deque alone holds the futures; a completion queue would keep every result
+    CompletionService<T> completions = ordered ? null : new ExecutorCompletionService<>(pool);
+    RequestBudget budget = RequestBudget.current();
+    try (ChunkSplitter splitter =
+        source.isSeekable() ? new ByteRangeSplitter(source) : new BufferingSplitter(source)) {
+      Chunk chunk;
+      while ((chunk = splitter.next()) != null) {
+        RequestBudget.checkpoint();
+        Chunk task = chunk;
+        Callable<T> call =
+            () -> {
+              try (RequestBudget.Scope _ = budget.bind()) {
+                return function.apply(task);
+              }
+            };
+        pending.add(ordered ? pool.submit(call) : completions.submit(call));
+        if (pending.size() == window) {
+          results.accept(await(next(pending, completions, ordered)));
+        }
+      }
+      while (!pending.isEmpty()) {
+        results.accept(await(next(pending, completions, ordered)));
+      }
+    } finally {
+      pending.forEach(future -> future.cancel(true));
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    pool.shutdownNow();
+  }
+
+  private static <T> Future<T> next(
+      Deque<Future<T>> pending, CompletionService<T> completions, boolean ordered)
+      throws IOException {
+    if (ordered) {
+      return pending.poll();
+    }
+    try {
+      Future<T> done = completions.take();
+      pending.remove(done);
+      return done;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading JSON Lines chunks", e);
+    }
+  }
+
+  private static <T> T await(Future<T> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading JSON Lines chunks", e);
+    } catch (ExecutionException e) {
+      switch (e.getCause()) {
+        case IOException io -> throw io;
+        case RuntimeException runtime -> throw runtime;
+        default -> throw new IOException(e.getCause().getMessage(), e.getCause());
+      }
+    }
+  }
+
+  /** Cuts a file into consecutive chunks of whole lines. */
+  private interface ChunkSplitter extends AutoCloseable {
+    /** Returns the next chunk, or {@code null} at the end of the file. */
+    Chunk next() throws IOException;
+
+    @Override
+    void close() throws IOException;
+  }
+
+  /** Splits a seekable file into byte ranges that chunks read straight from the file. */
+  private final class ByteRangeSplitter implements ChunkSplitter {
+    private final JsonFileSource source;
+    private final long size;
+    private long start;
+
+    private ByteRangeSplitter(JsonFileSource source) {
+      this.source = source;
+      this.size = source.metadata().size();
+    }
+
+    @Override
+    public Chunk next() throws IOException {
+      if (start >= size) {
+        return null;
+      }
+      long end = lineBoundary(source, start + chunkSize, size);
+      Chunk chunk = new ByteRangeChunk(source, start, end - start);
+      start = end;
+      return chunk;
+    }
+
+    @Override
+    public void close() {}
+
+    /** Returns the offset just past the first newline at or after the position. */
+    private static long lineBoundary(JsonFileSource source, long position, long size)
+        throws IOException {
+      if (position >= size) {
+        return size;
+      }
+      try (InputStream in = source.openStream(position)) {
+        byte[] buffer = new byte[8192];
+        long offset = position;
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+          for (int i = 0; i < read; i++) {
+            if (buffer[i] == '\n') {
+              return offset + i + 1;
+            }
+          }
+          offset += read;
+        }
+      }
+      return size;
+    }
+  }
+
+  /**
+   * Reads a file that cannot be read from an offset, such as a compressed one, in a single pass and
+   * copies each run of lines into memory, so the chunks can still be parsed in parallel.
+   */
+  private final class BufferingSplitter implements ChunkSplitter {
+    private final FileMetadata metadata;
+    private final InputStream in;
+
+    private BufferingSplitter(JsonFileSource source) throws IOException {
+      this.metadata = source.metadata();
+      this.in = new BufferedInputStream(source.openStream());
+    }
+
+    @Override
+    public Chunk next() throws IOException {
+      ByteArrayOutputStream lines = new ByteArrayOutputStream();
+      lines.write(in.readNBytes((int) Math.min(chunkSize, Integer.MAX_VALUE - 8)));
+      int next;
+      while ((next = in.read()) >= 0) {
+        lines.write(next);
+        if (next == '\n') {
+          break;
+        }
+      }
+      if (lines.size() == 0) {
+        return null;
+      }
+      byte[] content = lines.toByteArray();
+      return new ByteRangeChunk(new HeapJsonFileSource(metadata, content), 0, content.length);
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+
+  private record ByteRangeChunk(JsonFileSource source, long offset, long length) implements Chunk {
+
+    @Override
+    public JsonParser createParser(JsonFactory jsonFactory) throws IOException {
+      return new JsonLinesArrayParser(jsonFactory.createParser(openStream()));
+    }
+
+    @Override
+    public List<String> readRecords() throws IOException {
+      byte[] lines;
+      try (InputStream in = openStream()) {
+        lines = in.readAllBytes();
+      }
+      List<String> records = new ArrayList<>();
+      int start = 0;
+      while (start < lines.length) {
+        RequestBudget.checkpoint();
+        int end = start;
+        while (end < lines.length && lines[end] != '\n') {
+          end++;
+        }
+        String line = new String(lines, start, end - start, StandardCharsets.UTF_8);
+        if (!line.isBlank()) {
+          records.add(line);
+        }
+        start = end + 1;
+      }
+      return records;
+    }
+
+    private InputStream openStream() throws IOException {
+      return source.openStream(offset, length);
+    }
+  }
+}
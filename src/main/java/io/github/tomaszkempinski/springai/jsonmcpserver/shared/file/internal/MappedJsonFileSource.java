@@ -0,0 +1,46 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+
+record MappedJsonFileSource(FileMetadata metadata, MemorySegment segment, Arena arena)
+    implements JsonFileSource {
+
+  @Override
+  public InputStream openStream() {
+    return new MemorySegmentInputStream(segment);
+  }
+
+  @Override
+  public InputStream openStream(long offset, long length) {
+    long start = Math.min(offset, segment.byteSize());
+    return new MemorySegmentInputStream(
+        segment.asSlice(start, Math.min(length, segment.byteSize() - start)));
+  }
+
+  @Override
+  public JsonParser createParser(JsonFactory jsonFactory) throws IOException {
+    return jsonFactory.createParser(openStream());
+  }
+
+  @Override
+  public String readString() throws IOException {
+    if (segment.byteSize() > Integer.MAX_VALUE - 8) {
+      throw new IOException("File too large to read as a string: " + metadata.path());
+    }
+    return new String(segment.toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void close() {
+    arena.close();
+  }
+}
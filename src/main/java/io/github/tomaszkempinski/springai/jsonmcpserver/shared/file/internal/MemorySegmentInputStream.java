@@ -0,0 +1,70 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import java.io.InputStream;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Objects;
+
+class MemorySegmentInputStream extends InputStream {
+
+  private final MemorySegment segment;
+  private long position;
+  private long mark;
+
+  MemorySegmentInputStream(MemorySegment segment) {
+    this.segment = segment;
+  }
+
+  @Override
+  public int read() {
+    if (position >= segment.byteSize()) {
+      return -1;
+    }
+    return segment.get(ValueLayout.JAVA_BYTE, position++) & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] buffer, int offset, int length) {
+    Objects.checkFromIndexSize(offset, length, buffer.length);
+    RequestBudget.checkpoint();
+    if (length == 0) {
+      return 0;
+    }
+    long remaining = segment.byteSize() - position;
+    if (remaining <= 0) {
+      return -1;
+    }
+    int count = (int) Math.min(length, remaining);
+    MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, position, buffer, offset, count);
+    position += count;
+    return count;
+  }
+
+  @Override
+  public long skip(long n) {
+    long skipped = Math.clamp(n, 0, segment.byteSize() - position);
+    position += skipped;
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return (int) Math.min(Integer.MAX_VALUE, segment.byteSize() - position);
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public synchronized void mark(int readLimit) {
+    mark = position;
+  }
+
+  @Override
+  public synchronized void reset() {
+    position = mark;
+  }
+}
@@ -0,0 +1,108 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ErrorType;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+class ParseBulkhead {
+
+  private final long heavyFileThreshold;
+  private final int maxConcurrentParsesPerFile;
+  private final long acquireTimeoutNanos;
+  private final Semaphore global;
+  private final Map<Path, FilePermits> files = new ConcurrentHashMap<>();
+
+  ParseBulkhead(FileProperties.Bulkhead properties) {
+    this.heavyFileThreshold = properties.getHeavyFileThreshold().toBytes();
+    this.maxConcurrentParsesPerFile = properties.getMaxConcurrentParsesPerFile();
+    this.acquireTimeoutNanos = properties.getAcquireTimeout().toNanos();
+    this.global = new Semaphore(properties.getMaxConcurrentParses(), true);
+  }
+
+  Permit acquire(FileMetadata metadata) {
+    if (metadata.contentSize() < heavyFileThreshold) {
+      return null;
+    }
+    Path key = metadata.path().toAbsolutePath().normalize();
+    FilePermits file =
+        files.compute(
+            key,
+            (path, existing) -> {
+              FilePermits permits =
+                  existing != null
+                      ? existing
+                      : new FilePermits(new Semaphore(maxConcurrentParsesPerFile, true));
+              permits.users++;
+              return permits;
+            });
+    long deadline = System.nanoTime() + acquireTimeoutNanos;
+    try {
+      tryAcquire(file.semaphore, deadline, key);
+      try {
+        tryAcquire(global, deadline, key);
+      } catch (RuntimeException e) {
+        file.semaphore.release();
+        throw e;
+      }
+    } catch (RuntimeException e) {
+      leave(key);
+      throw e;
+    }
+    return new Permit(key, file);
+  }
+
+  private void tryAcquire(Semaphore semaphore, long deadline, Path path) {
+    try {
+      if (!semaphore.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+        throw new ServiceException(
+            ErrorType.PROCESSING_ERROR,
+            "Too many concurrent reads of large files, try again later: " + path);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServiceException(
+          ErrorType.PROCESSING_ERROR, "Interrupted while waiting to read file: " + path, e);
+    }
+  }
+
+  private void leave(Path key) {
+    files.computeIfPresent(key, (path, permits) -> --permits.users == 0 ? null : permits);
+  }
+
+  private static final class FilePermits {
+    private final Semaphore semaphore;
+    private int users;
+
+    private FilePermits(Semaphore semaphore) {
+      this.semaphore = semaphore;
+    }
+  }
+
+  final class Permit implements AutoCloseable {
+    private final Path key;
+    private final FilePermits file;
+    private boolean released;
+
+    private Permit(Path key, FilePermits file) {
+      this.key = key;
+      this.file = file;
+    }
+
+    @Override
+    public synchronized void close() {
+      if (released) {
+        return;
+      }
+      released = true;
+      global.release();
+      file.semaphore.release();
+      leave(key);
+    }
+  }
+}
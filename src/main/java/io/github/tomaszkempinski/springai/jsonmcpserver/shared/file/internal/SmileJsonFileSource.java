@@ -0,0 +1,92 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonFileSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Parsers decode the Smile copy, streams and strings read the text. Parser locations are therefore
+ * not offsets into the file.
+ */
+final class SmileJsonFileSource implements JsonFileSource {
+
+  private final FileMetadata metadata;
+  private final BinaryParseCache.Opener opener;
+  private final MemorySegment copy;
+  private final Arena arena;
+  private final SmileFactory smileFactory;
+  private JsonFileSource text;
+
+  SmileJsonFileSource(
+      FileMetadata metadata,
+      BinaryParseCache.Opener opener,
+      MemorySegment copy,
+      Arena arena,
+      SmileFactory smileFactory) {
+    this.metadata = metadata;
+    this.opener = opener;
+    this.copy = copy;
+    this.arena = arena;
+    this.smileFactory = smileFactory;
+  }
+
+  @Override
+  public FileMetadata metadata() {
+    return metadata;
+  }
+
+  @Override
+  public InputStream openStream() throws IOException {
+    return text().openStream();
+  }
+
+  @Override
+  public InputStream openStream(long offset, long length) throws IOException {
+    return text().openStream(offset, length);
+  }
+
+  @Override
+  public JsonParser createParser(JsonFactory jsonFactory) throws IOException {
+    JsonParser parser = smileFactory.createParser(new MemorySegmentInputStream(copy));
+    parser.setCodec(jsonFactory.getCodec());
+    return parser;
+  }
+
+  @Override
+  public String readString() throws IOException {
+    return text().readString();
+  }
+
+  @Override
+  public boolean isSeekable() {
+    try {
+      return text().isSeekable();
+    } catch (IOException _) {
+      return false;
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    try {
+      arena.close();
+    } finally {
+      if (text != null) {
+        text.close();
+      }
+    }
+  }
+
+  private synchronized JsonFileSource text() throws IOException {
+    if (text == null) {
+      text = opener.open();
+    }
+    return text;
+  }
+}
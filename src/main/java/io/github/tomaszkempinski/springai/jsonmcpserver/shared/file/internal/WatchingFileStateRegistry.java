@@ -0,0 +1,200 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.Compression;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileChangedEvent;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileStateRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+/** Keeps the metadata of the JSON files under the watched roots in memory. */
+@Service
+@Slf4j
+public class WatchingFileStateRegistry implements FileStateRegistry, SmartLifecycle {
+
+  private final List<Path> roots;
+  private final List<String> allowedExtensions;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Map<Path, FileMetadata> files = new ConcurrentHashMap<>();
+  private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+  private volatile WatchService watchService;
+  private volatile Thread watcher;
+
+  public WatchingFileStateRegistry(
+      FileProperties fileProperties, ApplicationEventPublisher eventPublisher) {
+    this.roots =
+        fileProperties.getWatch().getRoots().stream()
+            .map(root -> Paths.get(root).toAbsolutePath().normalize())
+            .toList();
+    this.allowedExtensions =
+        fileProperties.getAllowedExtensions().stream().map(String::toLowerCase).toList();
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Override
+  public boolean isWatched(Path path) {
+    Thread current = watcher;
+    if (current == null || !current.isAlive()) {
+      return false;
+    }
+    Path normalized = path.toAbsolutePath().normalize();
+    return roots.stream().anyMatch(normalized::startsWith);
+  }
+
+  @Override
+  public Optional<FileMetadata> lookup(Path path) {
+    return Optional.ofNullable(files.get(path.toAbsolutePath().normalize()));
+  }
+
+  @Override
+  public synchronized void start() {
+    if (roots.isEmpty() || watcher != null) {
+      return;
+    }
+    try {
+      watchService = FileSystems.getDefault().newWatchService();
+      for (Path root : roots) {
+        register(root);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot watch " + roots, e);
+    }
+    watcher = Thread.ofPlatform().name("file-state-watcher").daemon().start(this::watch);
+    log.info("Watching {} file(s) under {}", files.size(), roots);
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (watcher == null) {
+      return;
+    }
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      log.debug("Closing watch service failed", e);
+    }
+    watcher.interrupt();
+    watcher = null;
+    directories.clear();
+    files.clear();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return watcher != null;
+  }
+
+  private void watch() {
+    try {
+      while (true) {
+        WatchKey key = watchService.take();
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+          try {
+            if (event.kind() == OVERFLOW) {
+              log.warn("File watch events overflowed, rescanning {}", roots);
+              rescan();
+            } else if (directory != null) {
+              onEvent(directory.resolve((Path) event.context()));
+            }
+          } catch (RuntimeException e) {
+            log.warn("Handling file watch event {} in {} failed", event.context(), directory, e);
+          }
+        }
+        if (!key.reset()) {
+          directories.remove(key);
+        }
+      }
+    } catch (InterruptedException _) {
+      Thread.currentThread().interrupt();
+    } catch (ClosedWatchServiceException _) {
+      // stopped
+    }
+  }
+
+  private void onEvent(Path path) {
+    if (Files.isDirectory(path)) {
+      try {
+        register(path);
+      } catch (IOException e) {
+        log.warn("Cannot watch new directory {}", path, e);
+      }
+      return;
+    }
+    if (isJsonFile(path)) {
+      refresh(path);
+    } else {
+      // a deleted directory takes every file below it along
+      files.keySet().stream().filter(file -> file.startsWith(path)).toList().forEach(this::refresh);
+    }
+  }
+
+  private void rescan() {
+    files.keySet().stream().toList().forEach(this::refresh);
+    for (Path root : roots) {
+      try {
+        register(root);
+      } catch (IOException e) {
+        log.warn("Cannot rescan {}", root, e);
+      }
+    }
+  }
+
+  private void register(Path root) throws IOException {
+    try (Stream<Path> paths = Files.walk(root)) {
+      for (Path path : paths.toList()) {
+        if (Files.isDirectory(path)) {
+          directories.put(
+              path.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), path);
+        } else if (isJsonFile(path)) {
+          refresh(path);
+        }
+      }
+    } catch (NoSuchFileException _) {
+      log.warn("Watched root {} does not exist", root);
+    }
+  }
+
+  private void refresh(Path path) {
+    FileMetadata current;
+    try {
+      current = FileMetadata.of(path);
+    } catch (IOException _) {
+      current = null;
+    }
+    FileMetadata previous = current == null ? files.remove(path) : files.put(path, current);
+    if (current == null ? previous != null : !current.isSameVersion(previous)) {
+      eventPublisher.publishEvent(new FileChangedEvent(path, current));
+    }
+  }
+
+  private boolean isJsonFile(Path path) {
+    String fileName = path.getFileName().toString();
+    String name = Compression.of(fileName).stripSuffix(fileName).toLowerCase();
+    return allowedExtensions.stream().anyMatch(name::endsWith);
+  }
+}
@@ -1,36 +1,80 @@
 package io.github.tomaszkempinski.springai.jsonmcpserver.feature.query;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.airlift.compress.zstd.ZstdOutputStream;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.JsonPathCache;
 import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.JsonQueryServiceImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.OffsetIndexStore;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.QueryCursorStore;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.QueryResultCache;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.query.internal.StreamingJsonPathEvaluator;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.Config;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.QueryProperties;
 import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.json.JsonMapper;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ErrorType;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.DocumentCache;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.internal.DocumentCacheImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.internal.JsonDocumentServiceImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileIngestionService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileValidationService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonLinesReader;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal.FileIngestionServiceImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal.JsonLinesReaderImpl;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.function.Supplier;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springaicommunity.mcp.context.McpSyncRequestContext;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
 
 class JsonQueryMcpToolsTest {
 
   private JsonQueryMcpTools tool;
+  private JsonQueryMcpTools streamingTool;
+  private ObjectMapper objectMapper;
+  private JsonMapper jsonMapper;
+  private FileValidationService fileValidationService;
   private McpSyncRequestContext context;
+  private DocumentCache documentCache;
+  private JsonPathCache jsonPathCache;
 
   @BeforeEach
   void setUp() {
-    ObjectMapper objectMapper = new ObjectMapper();
-    JsonMapper jsonMapper = new JsonMapper(objectMapper);
-    FileValidationService fileValidationService = mock(FileValidationService.class);
+    objectMapper = new ObjectMapper();
+    jsonMapper = new JsonMapper(objectMapper);
+    fileValidationService = mock(FileValidationService.class);
 
     when(fileValidationService.validateFileExists(anyString()))
         .thenAnswer(
@@ -40,15 +84,48 @@ class JsonQueryMcpToolsTest {
                 throw new ServiceException(
                     ErrorType.INVALID_FILE_EXTENSION, "File extension is invalid");
               }
-              return Paths.get(path);
+              return FileMetadata.of(Paths.get(path));
             });
 
-    JsonQueryService jsonQueryService = new JsonQueryServiceImpl(jsonMapper, fileValidationService);
+    documentCache = new DocumentCacheImpl(new FileProperties());
+    jsonPathCache = new JsonPathCache(new QueryProperties());
+    tool = new JsonQueryMcpTools(createQueryService(new QueryProperties(), new FileProperties()));
 
-    tool = new JsonQueryMcpTools(jsonQueryService);
+    QueryProperties streamingProperties = new QueryProperties();
+    streamingProperties.setStreamingThreshold(DataSize.ofBytes(0));
+    FileProperties mappedFileProperties = new FileProperties();
+    mappedFileProperties.setMemoryMappingThreshold(DataSize.ofBytes(0));
+    streamingTool =
+        new JsonQueryMcpTools(createQueryService(streamingProperties, mappedFileProperties));
     context = mock(McpSyncRequestContext.class);
   }
 
+  private JsonQueryService createQueryService(
+      QueryProperties queryProperties, FileProperties fileProperties) {
+    return createQueryService(queryProperties, fileProperties, documentCache);
+  }
+
+  private JsonQueryService createQueryService(
+      QueryProperties queryProperties, FileProperties fileProperties, DocumentCache documentCache) {
+    FileIngestionService fileIngestionService = new FileIngestionServiceImpl(fileProperties);
+    JsonLinesReader jsonLinesReader = new JsonLinesReaderImpl(fileProperties);
+    return new JsonQueryServiceImpl(
+        jsonMapper,
+        objectMapper,
+        fileValidationService,
+        fileIngestionService,
+        new JsonDocumentServiceImpl(
+            documentCache, fileIngestionService, jsonLinesReader, objectMapper, fileProperties),
+        jsonPathCache,
+        () -> new Config().jsonPathConfiguration(objectMapper, fileProperties),
+        new StreamingJsonPathEvaluator(objectMapper),
+        new OffsetIndexStore(objectMapper, queryProperties),
+        jsonLinesReader,
+        new QueryCursorStore(queryProperties),
+        new QueryResultCache(queryProperties),
+        queryProperties);
+  }
+
   @Test
   void testQueryJson() throws IOException {
     File tempFile = File.createTempFile("test_search", ".json");
@@ -68,7 +145,13 @@ class JsonQueryMcpToolsTest {
           toMcpResponse(
               () ->
                   tool.queryJson(
-                      context, tempFile.getAbsolutePath(), "$[?(@.color == 'red')].name"));
+                      context,
+                      tempFile.getAbsolutePath(),
+                      "$[?(@.color == 'red')].name",
+                      null,
+                      null,
+                      null,
+                      null));
       System.out.println("Search Result:\n" + result);
       assertTrue(result.contains("Apple"));
       assertTrue(result.contains("Cherry"));
@@ -78,16 +161,760 @@ class JsonQueryMcpToolsTest {
     }
   }
 
+  @Test
+  void testQueryJsonReusesParsedDocumentUntilFileChanges() throws IOException {
+    File tempFile = File.createTempFile("test_cache", ".json");
+    Files.writeString(tempFile.toPath(), "{\"name\": \"first\"}");
+
+    try {
+      String path = tempFile.getAbsolutePath();
+      assertTrue(
+          toMcpResponse(() -> tool.queryJson(context, path, "$.name", null, null, null, null))
+              .contains("first"));
+      assertTrue(
+          toMcpResponse(() -> tool.queryJson(context, path, "$.*", null, null, null, null))
+              .contains("first"));
+      assertEquals(1, documentCache.stats().hits());
+      assertEquals(1, documentCache.stats().misses());
+
+      Files.writeString(tempFile.toPath(), "{\"name\": \"second\"}");
+      Files.setLastModifiedTime(tempFile.toPath(), FileTime.from(Instant.now().plusSeconds(5)));
+
+      assertTrue(
+          toMcpResponse(() -> tool.queryJson(context, path, "$.name", null, null, null, null))
+              .contains("second"));
+      assertEquals(2, documentCache.stats().misses());
+    } finally {
+      tempFile.delete();
+    }
+  }
+
+  @Test
+  void testQueryJsonServesCachedResultUntilFileChanges() throws IOException {
+    File tempFile = File.createTempFile("test_result_cache", ".json");
+    Files.writeString(
+        tempFile.toPath(),
+        "{\"items\": [{\"name\": \"a b\", \"n\": 1}, {\"name\": \"c\", \"n\": 2}]}");
+
+    try {
+      String path = tempFile.getAbsolutePath();
+      String first =
+          toMcpResponse(
+              () -> tool.queryJson(context, path, "$.items[*].name", null, null, null, null));
+      String second =
+          toMcpResponse(
+              () -> tool.queryJson(context, path, "$['items'][*]['name']", null, null, null, null));
+      assertEquals(first, second);
+      String filtered =
+          toMcpResponse(
+              () ->
+                  tool.queryJson(
+                      context, path, "$.items[?(@.name == 'a b')].n", null, null, null, null));
+      String respaced =
+          toMcpResponse(
+              () ->
+                  tool.queryJson(
+                      context, path, "$.items[?( @.name  ==  'a b' )].n", null, null, null, null));
+      assertEquals(filtered, respaced);
+      assertEquals(1, documentCache.stats().hits());
+      assertEquals(1, documentCache.stats().misses());
+
+      Files.writeString(tempFile.toPath(), "{\"items\": [{\"name\": \"d\"}]}");
+      Files.setLastModifiedTime(tempFile.toPath(), FileTime.from(Instant.now().plusSeconds(5)));
+
+      String changed =
+          toMcpResponse(
+              () -> tool.queryJson(context, path, "$.items[*].name", null, null, null, null));
+      assertTrue(changed.contains("d"));
+      assertFalse(changed.contains("c"));
+      assertEquals(2, documentCache.stats().misses());
+    } finally {
+      tempFile.delete();
+    }
+  }
+
+  @Test
+  void testDeepScanStopsWhenBudgetIsCancelled() throws IOException {
+    File tempFile = File.createTempFile("test_budget", ".json");
+    StringBuilder content = new StringBuilder("[");
+    for (int i = 0; i < 2000; i++) {
+      content.append(i == 0 ? "" : ",").append("{\"id\": ").append(i).append(", \"tags\": [1, 2]}");
+    }
+    Files.writeString(tempFile.toPath(), content.append("]").toString());
+    RequestBudget budget = RequestBudget.start("query_json", Duration.ofMinutes(1), 0);
+    budget.cancel();
+
+    try (RequestBudget.Scope _ = budget.bind()) {
+      String path = tempFile.getAbsolutePath();
+      String inMemory =
+          toMcpResponse(() -> tool.queryJson(context, path, "$..*", null, null, null, null));
+      String streamed =
+          toMcpResponse(
+              () -> streamingTool.queryJson(context, path, "$[*].id", null, null, null, null));
+      assertTrue(inMemory.startsWith("Error [REQUEST_ABORTED]"), inMemory);
+      assertTrue(streamed.startsWith("Error [REQUEST_ABORTED]"), streamed);
+    } finally {
+      tempFile.delete();
+    }
+  }
+
+  @Test
+  void testQueryJsonInvalidPathIsRejectedBeforeParsing() throws IOException {
+    File tempFile = File.createTempFile("test_invalid_path", ".json");
+    Files.writeString(tempFile.toPath(), "{\"name\": \"test\"}");
+
+    try {
+      String path = tempFile.getAbsolutePath();
+      String first =
+          toMcpResponse(() -> tool.queryJson(context, path, "$.name[?(@", null, null, null, null));
+      String second =
+          toMcpResponse(() -> tool.queryJson(context, path, "$.name[?(@", null, null, null, null));
+      assertTrue(first.contains("Error [PROCESSING_ERROR]"));
+      assertEquals(first, second);
+      assertEquals(1, jsonPathCache.size());
+      assertEquals(0, documentCache.stats().misses());
+    } finally {
+      tempFile.delete();
+    }
+  }
+
+  @Test
+  void testStreamingQueryMatchesTreeEvaluation() throws IOException {
+    File tempFile = File.createTempFile("test_streaming", ".json");
+    String content =
+        """
+            {
+              "store": {
+                "name": "Corner shop",
+                "book": [
+                  {"title": "A", "price": 8.95, "tags": ["x"], "meta": {"pages": 100}},
+                  {"title": "B", "price": 12.99, "meta": {"pages": 250}},
+                  {"title": "C", "price": 22, "isbn": "0-553", "meta": {"pages": 300}},
+                  {"title": "D", "price": 8, "isbn": null}
+                ],
+                "bicycle": {"color": "red", "price": 19.95}
+              }
+            }
+            """;
+    Files.writeString(tempFile.toPath(), content);
+
+    List<String> queries =
+        List.of(
+            "$.store.name",
+            "$.store.book[1]",
+            "$.store.book[*].title",
+            "$.store.book[1:3].title",
+            "$.store.book[:2]",
+            "$.store.book[2:]",
+            "$.store.*",
+            "$.store['bicycle'].color",
+            "$.store.book[?(@.price > 10)].title",
+            "$.store.book[?(@.price <= 8.95)]",
+            "$.store.book[?(@.title == 'B')].price",
+            "$.store.book[?(@.meta.pages >= 250)].title",
+            "$.store.book[?(@.isbn == null)].title",
+            "$.store.book[?(@.isbn != null)].title",
+            "$.store.book[?(@.title < 'C')].title",
+            "$.store.book[*].tags",
+            "$.store.book[*].missing");
+
+    try {
+      String path = tempFile.getAbsolutePath();
+      for (String query : queries) {
+        String expected =
+            toMcpResponse(() -> tool.queryJson(context, path, query, null, null, null, null));
+        String actual =
+            toMcpResponse(
+                () -> streamingTool.queryJson(context, path, query, null, null, null, null));
+        assertEquals(
+            objectMapper.readTree(expected).toString(),
+            objectMapper.readTree(actual).toString(),
+            query);
+      }
+      assertTrue(
+          toMcpResponse(
+                  () ->
+                      streamingTool.queryJson(
+                          context, path, "$.store.missing", null, null, null, null))
+              .contains("No results for path"));
+    } finally {
+      tempFile.delete();
+    }
+  }
+
+  @Test
+  void testStreamingQueryFallsBackForUnsupportedExpressions() throws IOException {
+    File tempFile = File.createTempFile("test_streaming_fallback", ".json");
+    Files.writeString(tempFile.toPath(), "{\"a\": {\"b\": [1, 2, 3]}}");
+
+    try {
+      String path = tempFile.getAbsolutePath();
+      String result =
+          toMcpResponse(
+              () -> streamingTool.queryJson(context, path, "$..b[-1:]", null, null, null, null));
+      assertEquals("[ 3 ]", result);
+    } finally {
+      tempFile.delete();
+    }
+  }
+
+  @Test
+  void testIndexedQueryMatchesTreeEvaluation() throws IOException {
+    File tempFile = File.createTempFile("test_indexed", ".json");
+    StringBuilder content = new StringBuilder("{\"meta\": {\"name\": \"shop\"}, \"customers\": [");
+    for (int i = 0; i < 300; i++) {
+      content
+          .append(i == 0 ? "" : ",\n  ")
+          .append("{\"id\": ")
+          .append(i)
+          .append(", \"name\": \"c")
+          .append(i)
+          .append("\", \"orders\": [{\"total\": ")
+          .append(i * 2)
+          .append("}, \"\\u00e9\"]}");
+    }
+    Files.writeString(tempFile.toPath(), content.append("], \"count\": 300}").toString());
+
+    QueryProperties indexedProperties = new QueryProperties();
+    indexedProperties.setStreamingThreshold(DataSize.ofBytes(0));
+    indexedProperties.getIndex().setThreshold(DataSize.ofBytes(0));
+    indexedProperties.getIndex().setArrayStride(16);
+    indexedProperties.getIndex().setMaxMembers(2);
+    Path indexDirectory = Files.createTempDirectory("test_index");
+    indexedProperties.getIndex().setDirectory(indexDirectory.toString());
+    FileProperties mappedFileProperties = new FileProperties();
+    mappedFileProperties.setMemoryMappingThreshold(DataSize.ofBytes(0));
+    List<String> queries =
+        List.of(
+            "$.meta.name",
+            "$.count",
+            "$.customers[0]",
+            "$.customers[17].name",
+            "$.customers[255].orders[0].total",
+            "$.customers[299].orders[*]",
+            "$.customers[42].orders",
+            "$.customers[*].id");
+
+    try {
+      String path = tempFile.getAbsolutePath();
+      for (int run = 0; run < 2; run++) {
+        JsonQueryMcpTools indexedTool =
+            new JsonQueryMcpTools(createQueryService(indexedProperties, mappedFileProperties));
+        for (String query : queries) {
+          String expected =
+              toMcpResponse(() -> tool.queryJson(context, path, query, null, null, null, null));
+          String actual =
+              toMcpResponse(
+                  () -> indexedTool.queryJson(context, path, query, null, null, null, null));
+          assertEquals(
+              objectMapper.readTree(expected).toString(),
+              objectMapper.readTree(actual).toString(),
+              query);
+        }
+        for (String missing : List.of("$.missing", "$.customers[300]", "$.meta[0]")) {
+          assertTrue(
+              toMcpResponse(
+                      () -> indexedTool.queryJson(context, path, missing, null, null, null, null))
+                  .contains("No results for path"),
+              missing);
+        }
+        try (Stream<Path> sidecars = Files.list(indexDirectory)) {
+          assertEquals(1, sidecars.filter(file -> file.toString().endsWith(".idx")).count());
+        }
+      }
+    } finally {
+      tempFile.delete();
+      FileSystemUtils.deleteRecursively(indexDirectory);
+    }
+  }
+
+  @Test
+  void testJsonLinesQueryMatchesTreeEvaluation() throws IOException {
+    File tempFile = File.createTempFile("test_events", ".jsonl");
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < 50; i++) {
+      content
+          .append("{\"id\": ")
+          .append(i)
+          .append(", \"type\": \"")
+          .append(i % 4 == 0 ? "error" : "info")
+          .append("\"}\n");
+    }
+    Files.writeString(tempFile.toPath(), content.append("\n").toString());
+
+    QueryProperties streamingProperties = new QueryProperties();
+    streamingProperties.setStreamingThreshold(DataSize.ofBytes(0));
+    FileProperties chunkedFileProperties = new FileProperties();
+    chunkedFileProperties.getJsonLines().setChunkSize(DataSize.ofBytes(100));
+    JsonQueryMcpTools chunkedTool =
+        new JsonQueryMcpTools(createQueryService(streamingProperties, chunkedFileProperties));
+    List<String> queries =
+        List.of("$[*].id", "$[?(@.type == 'error')].id", "$[3]", "$[10:13].type", "$[*]");
+
+    try {
+      String path = tempFile.getAbsolutePath();
+      for (String query : queries) {
+        String expected =
+            toMcpResponse(() -> tool.queryJson(context, path, query, null, null, null, null));
+        String actual =
+            toMcpResponse(
+                () -> chunkedTool.queryJson(context, path, query, null, null, null, null));
+        assertEquals(
+            objectMapper.readTree(expected).toString(),
+            objectMapper.readTree(actual).toString(),
+            query);
+      }
+      JsonNode unordered =
+          objectMapper.readTree(
+              chunkedTool.queryJson(context, path, "$[*].id", null, null, null, true));
+      assertEquals(50, unordered.size());
+      assertEquals(1225, unordered.valueStream().mapToInt(JsonNode::asInt).sum());
+    } finally {
+      tempFile.delete();
+    }
+  }
+
+  @Test
+  void testCompressedFilesAreQueriedLikeTheirContent() throws IOException {
+    StringBuilder lines = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      lines
+          .append("{\"id\": ")
+          .append(i)
+          .append(", \"type\": \"")
+          .append(i % 3 == 0 ? "error" : "info")
+          .append("\"}\n");
+    }
+    byte[] jsonLines = lines.toString().getBytes(StandardCharsets.UTF_8);
+    byte[] json =
+        ("[" + lines.toString().strip().replace("\n", ",") + "]").getBytes(StandardCharsets.UTF_8);
+    byte[] half = Arrays.copyOf(json, json.length / 2);
+    byte[] rest = Arrays.copyOfRange(json, json.length / 2, json.length);
+
+    Path directory = Files.createTempDirectory("test_compressed");
+    Path plain = Files.write(directory.resolve("events.json"), json);
+    List<Path> compressed =
+        List.of(
+            Files.write(directory.resolve("members.json.gz"), concat(gzip(half), gzip(rest))),
+            Files.write(directory.resolve("blocks.json.gz"), bgzip(json, 256)),
+            Files.write(directory.resolve("mixed.json.gz"), concat(bgzip(half, 256), gzip(rest))),
+            Files.write(directory.resolve("events.json.zst"), zstd(json)));
+    Path jsonLinesPlain = Files.write(directory.resolve("events.jsonl"), jsonLines);
+    Path jsonLinesCompressed =
+        Files.write(directory.resolve("events.jsonl.gz"), bgzip(jsonLines, 512));
+
+    QueryProperties streamingProperties = new QueryProperties();
+    streamingProperties.setStreamingThreshold(DataSize.ofBytes(0));
+    FileProperties fileProperties = new FileProperties();
+    fileProperties.setMemoryMappingThreshold(DataSize.ofBytes(0));
+    fileProperties.getJsonLines().setChunkSize(DataSize.ofBytes(300));
+    fileProperties.getCompression().setBlockGroupSize(DataSize.ofBytes(600));
+    JsonQueryMcpTools compressedTool =
+        new JsonQueryMcpTools(createQueryService(streamingProperties, fileProperties));
+    List<String> queries = List.of("$[*].id", "$[?(@.type == 'error')].id", "$[150]");
+
+    try {
+      for (String query : queries) {
+        String expected = tool.queryJson(context, plain.toString(), query, null, null, null, null);
+        for (Path file : compressed) {
+          for (JsonQueryMcpTools queryTool : List.of(tool, compressedTool)) {
+            assertEquals(
+                expected,
+                queryTool.queryJson(context, file.toString(), query, null, null, null, null),
+                file.getFileName() + " " + query);
+          }
+        }
+        assertEquals(
+            tool.queryJson(context, jsonLinesPlain.toString(), query, null, null, null, null),
+            compressedTool.queryJson(
+                context, jsonLinesCompressed.toString(), query, null, null, null, null),
+            query);
+      }
+    } finally {
+      FileSystemUtils.deleteRecursively(directory);
+    }
+  }
+
+  @Test
+  void testFilesWithBinaryCopiesAreQueriedLikeTheirText() throws Exception {
+    StringBuilder records = new StringBuilder("[");
+    for (int i = 0; i < 200; i++) {
+      records
+          .append(i > 0 ? "," : "")
+          .append("{\"id\": ")
+          .append(i)
+          .append(", \"price\": ")
+          .append(i * 1.5)
+          .append(", \"tags\": [\"t")
+          .append(i % 4)
+          .append("\", null, ")
+          .append(i % 2 == 0)
+          .append("]}");
+    }
+    Path directory = Files.createTempDirectory("test_parse_cache");
+    Path file =
+        Files.writeString(directory.resolve("records.json"), records.append("]").toString());
+    Path cacheDirectory = directory.resolve("cache");
+
+    FileProperties fileProperties = new FileProperties();
+    fileProperties.getDocumentCache().setEnabled(false);
+    fileProperties.getParseCache().setEnabled(true);
+    fileProperties.getParseCache().setDirectory(cacheDirectory.toString());
+    fileProperties.getParseCache().setThreshold(DataSize.ofBytes(0));
+    documentCache = new DocumentCacheImpl(fileProperties);
+    QueryProperties queryProperties = new QueryProperties();
+    queryProperties.getResultCache().setEnabled(false);
+    QueryProperties streamingProperties = new QueryProperties();
+    streamingProperties.getResultCache().setEnabled(false);
+    streamingProperties.setStreamingThreshold(DataSize.ofBytes(0));
+    QueryProperties indexedProperties = new QueryProperties();
+    indexedProperties.getResultCache().setEnabled(false);
+    indexedProperties.setStreamingThreshold(DataSize.ofBytes(0));
+    indexedProperties.getIndex().setThreshold(DataSize.ofBytes(0));
+    indexedProperties.getIndex().setDirectory(directory.resolve("index").toString());
+    List<JsonQueryMcpTools> cachedTools =
+        List.of(
+            new JsonQueryMcpTools(createQueryService(queryProperties, fileProperties)),
+            new JsonQueryMcpTools(createQueryService(streamingProperties, fileProperties)),
+            new JsonQueryMcpTools(createQueryService(indexedProperties, fileProperties)));
+    List<String> queries = List.of("$[*].price", "$[?(@.tags[2] == true)].id", "$[150].tags");
+
+    try {
+      List<String> expected = new ArrayList<>();
+      for (String query : queries) {
+        expected.add(tool.queryJson(context, file.toString(), query, null, null, null, null));
+        for (JsonQueryMcpTools cachedTool : cachedTools) {
+          cachedTool.queryJson(context, file.toString(), query, null, null, null, null);
+        }
+      }
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (!hasBinaryCopy(cacheDirectory)) {
+        assertTrue(System.nanoTime() < deadline, "binary copy was not written");
+        Thread.sleep(50);
+      }
+      for (int i = 0; i < queries.size(); i++) {
+        for (JsonQueryMcpTools cachedTool : cachedTools) {
+          assertEquals(
+              expected.get(i),
+              cachedTool.queryJson(
+                  context, file.toString(), queries.get(i), null, null, null, null),
+              queries.get(i));
+        }
+      }
+    } finally {
+      FileSystemUtils.deleteRecursively(directory);
+    }
+  }
+
+  private static boolean hasBinaryCopy(Path cacheDirectory) throws IOException {
+    if (!Files.isDirectory(cacheDirectory)) {
+      return false;
+    }
+    try (Stream<Path> copies = Files.list(cacheDirectory)) {
+      return copies.anyMatch(copy -> copy.toString().endsWith(".smile"));
+    }
+  }
+
+  private static byte[] gzip(byte[] content) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(content);
+    }
+    return bytes.toByteArray();
+  }
+
+  /** Compresses like bgzip: gzip members of at most blockSize input bytes with a BC extra field. */
+  private static byte[] bgzip(byte[] content, int blockSize) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    for (int start = 0; start < content.length; start += blockSize) {
+      int length = Math.min(blockSize, content.length - start);
+      Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+      deflater.setInput(content, start, length);
+      deflater.finish();
+      byte[] deflated = new byte[2 * blockSize + 64];
+      int deflatedLength = deflater.deflate(deflated);
+      deflater.end();
+      CRC32 crc = new CRC32();
+      crc.update(content, start, length);
+      ByteBuffer member =
+          ByteBuffer.allocate(18 + deflatedLength + 8).order(ByteOrder.LITTLE_ENDIAN);
+      member.put(new byte[] {0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff});
+      member.putShort((short) 6).put((byte) 'B').put((byte) 'C').putShort((short) 2);
+      member.putShort((short) (member.capacity() - 1));
+      member.put(deflated, 0, deflatedLength);
+      member.putInt((int) crc.getValue()).putInt(length);
+      bytes.write(member.array());
+    }
+    return bytes.toByteArray();
+  }
+
+  private static byte[] zstd(byte[] content) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ZstdOutputStream out = new ZstdOutputStream(bytes)) {
+      out.write(content);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static byte[] concat(byte[] first, byte[] second) {
+    byte[] result = Arrays.copyOf(first, first.length + second.length);
+    System.arraycopy(second, 0, result, first.length, second.length);
+    return result;
+  }
+
+  @Test
+  void testQueryJsonPagination() throws IOException {
+    File tempFile = File.createTempFile("test_pagination", ".json");
+    StringBuilder content = new StringBuilder("{\"orders\": [");
+    for (int i = 0; i < 250; i++) {
+      content.append(i == 0 ? "" : ",").append("{\"id\": ").append(i).append("}");
+    }
+    Files.writeString(tempFile.toPath(), content.append("]}").toString());
+
+    try {
+      String path = tempFile.getAbsolutePath();
+      for (JsonQueryMcpTools candidate : List.of(tool, streamingTool)) {
+        JsonNode page =
+            objectMapper.readTree(
+                candidate.queryJson(context, path, "$.orders[*].id", 10, 100, null, null));
+        assertEquals(250, page.get("total").asInt());
+        assertEquals(10, page.get("items").get(0).asInt());
+        assertEquals(100, page.get("items").size());
+
+        int seen = 100;
+        while (page.hasNonNull("nextCursor")) {
+          String cursor = page.get("nextCursor").asText();
+          page =
+              objectMapper.readTree(
+                  candidate.queryJson(context, path, "$.orders[*].id", null, 100, cursor, null));
+          seen += page.get("items").size();
+        }
+        assertEquals(240, seen);
+        assertEquals(249, page.get("items").get(page.get("items").size() - 1).asInt());
+      }
+
+      String mismatch =
+          toMcpResponse(
+              () -> {
+                JsonNode first =
+                    objectMapper.readTree(
+                        tool.queryJson(context, path, "$.orders[*].id", null, 1, null, null));
+                return tool.queryJson(
+                    context, path, "$.orders[*]", null, 1, first.get("nextCursor").asText(), null);
+              });
+      assertTrue(mismatch.contains("Error [INVALID_INPUT]"));
+    } finally {
+      tempFile.delete();
+    }
+  }
+
+  @Test
+  void testQueryJsonBatch() throws IOException {
+    File tempFile = File.createTempFile("test_batch", ".json");
+    Files.writeString(
+        tempFile.toPath(),
+        "{\"users\": [{\"name\": \"Ann\", \"age\": 31}, {\"name\": \"Bob\", \"age\": 25}]}");
+
+    try {
+      String path = tempFile.getAbsolutePath();
+      JsonNode result =
+          objectMapper.readTree(
+              tool.queryJsonBatch(
+                  context,
+                  path,
+                  List.of("$.users[*].name", "$.users[?(@.age > 30)].name", "$.users[0", "$.x")));
+
+      assertEquals("[\"Ann\",\"Bob\"]", result.get("$.users[*].name").toString());
+      assertEquals("[\"Ann\"]", result.get("$.users[?(@.age > 30)].name").toString());
+      assertTrue(result.get("$.users[0").has("error"));
+      assertTrue(result.get("$.x").has("error"));
+      assertEquals(1, documentCache.stats().misses());
+
+      JsonNode streamed =
+          objectMapper.readTree(
+              streamingTool.queryJsonBatch(
+                  context, path, List.of("$.users[*].name", "$.users[?(@.age > 30)].name", "$.x")));
+      assertEquals(result.get("$.users[*].name"), streamed.get("$.users[*].name"));
+      assertEquals(
+          result.get("$.users[?(@.age > 30)].name"), streamed.get("$.users[?(@.age > 30)].name"));
+      assertTrue(streamed.get("$.x").has("error"));
+    } finally {
+      tempFile.delete();
+    }
+  }
+
+  @Test
+  void testAggregateJson() throws IOException {
+    File tempFile = File.createTempFile("test_aggregate", ".json");
+    Files.writeString(
+        tempFile.toPath(),
+        """
+            {"orders": [
+              {"id": 1, "total": 10, "customer": {"country": "PL"}},
+              {"id": 2, "total": 2.5, "customer": {"country": "DE"}},
+              {"id": 3, "total": 30, "customer": {"country": "PL"}},
+              {"id": 4, "total": "n/a", "customer": {"country": "FR"}},
+              {"id": 5, "total": 10, "customer": {}}
+            ]}
+            """);
+
+    try {
+      String path = tempFile.getAbsolutePath();
+      for (JsonQueryMcpTools queryTool : List.of(tool, streamingTool)) {
+        for (String query : List.of("$.orders[*]", "$.orders", "$..orders[*]")) {
+          JsonNode result =
+              objectMapper.readTree(
+                  queryTool.aggregateJson(context, path, query, "total", "customer.country", 2));
+          assertEquals(5, result.get("count").asLong(), query);
+          assertEquals(4, result.get("numbers").asLong(), query);
+          assertEquals(52.5, result.get("sum").asDouble(), query);
+          assertEquals(2.5, result.get("min").asDouble(), query);
+          assertEquals(30, result.get("max").asDouble(), query);
+          assertEquals(13.125, result.get("avg").asDouble(), query);
+          assertEquals(4, result.get("distinct").asLong(), query);
+          assertEquals(4, result.get("groupCount").asLong(), query);
+          assertEquals(2, result.get("groups").size(), query);
+          assertEquals("PL", result.get("groups").get(0).get("key").asText(), query);
+          assertEquals(2, result.get("groups").get(0).get("count").asLong(), query);
+          assertEquals(40, result.get("groups").get(0).get("sum").asLong(), query);
+        }
+
+        JsonNode ids =
+            objectMapper.readTree(
+                queryTool.aggregateJson(context, path, "$.orders[*].id", null, null, null));
+        assertEquals(
+            "{\"count\":5,\"numbers\":5,\"sum\":15,\"min\":1,\"max\":5,"
+                + "\"avg\":3.0,\"distinct\":5}",
+            ids.toString());
+
+        String missing =
+            toMcpResponse(
+                () -> queryTool.aggregateJson(context, path, "$.missing", null, null, null));
+        assertTrue(missing.contains("No results for path"), missing);
+      }
+
+      Files.writeString(
+          tempFile.toPath(),
+          "{\"ids\": [9007199254740993, 9007199254740995, -9007199254740993], \"none\": [],"
+              + " \"amounts\": [1, 1.0, 1.00, 10, 1e1, \"1\", 0.5]}");
+      for (JsonQueryMcpTools queryTool : List.of(tool, streamingTool)) {
+        JsonNode exact =
+            objectMapper.readTree(
+                queryTool.aggregateJson(context, path, "$.ids", null, null, null));
+        assertEquals(-9007199254740993L, exact.get("min").longValue());
+        assertEquals(9007199254740995L, exact.get("max").longValue());
+        assertEquals(9007199254740995L, exact.get("sum").longValue());
+        JsonNode amounts =
+            objectMapper.readTree(
+                queryTool.aggregateJson(context, path, "$.amounts[*]", null, null, null));
+        assertEquals(4, amounts.get("distinct").asLong());
+        assertFalse(amounts.has("distinctApproximate"));
+        assertEquals(
+            0,
+            objectMapper
+                .readTree(queryTool.aggregateJson(context, path, "$.none", null, null, null))
+                .get("count")
+                .asLong());
+      }
+
+      String invalid =
+          toMcpResponse(
+              () -> tool.aggregateJson(context, path, "$.orders[*]", "total..x", null, null));
+      assertTrue(invalid.startsWith("Error [INVALID_INPUT]"), invalid);
+    } finally {
+      tempFile.delete();
+    }
+  }
+
+  @Test
+  void testCompactDocumentsAnswerLikeTrees() throws IOException {
+    File tempFile = File.createTempFile("test_compact", ".json");
+    Files.writeString(
+        tempFile.toPath(),
+        """
+            {"store": {
+              "name": "Żabka \u00e9",
+              "items": [
+                {"id": 1, "name": "tea", "price": 2.5, "tags": ["hot", "drink"], "stock": null},
+                {"id": 2, "name": "pie", "name": "cake", "price": 7, "tags": [], "stock": 12},
+                {"id": 3, "name": "tea", "price": 3000000000, "tags": ["hot"], "meta": {}},
+                {"id": 4, "name": "milk", "price": 123456789012345678901234567890, "tags": ["cold"]}
+              ],
+              "open": true,
+              "closed": false
+            }}
+            """);
+    List<String> queries =
+        List.of(
+            "$",
+            "$..name",
+            "$.store.items[?(@.price > 2.6)].id",
+            "$.store.items[?(@.name == 'tea')].tags[0]",
+            "$.store.items[?(@.stock)].id",
+            "$.store.items[?('hot' in @.tags)].name",
+            "$.store.items[-2:]",
+            "$.store.items[1]",
+            "$.store.items[1].*",
+            "$.store.items[*].meta",
+            "$.store.items.length()",
+            "$.store['open', 'closed']",
+            "$..tags[*]",
+            "$.store.missing");
+
+    try {
+      String path = tempFile.getAbsolutePath();
+      for (boolean offHeap : List.of(false, true)) {
+        FileProperties compactProperties = new FileProperties();
+        compactProperties
+            .getDocumentCache()
+            .setRepresentation(FileProperties.Representation.COMPACT);
+        compactProperties.getDocumentCache().setOffHeap(offHeap);
+        DocumentCache compactCache = new DocumentCacheImpl(compactProperties);
+        JsonQueryMcpTools compactTool =
+            new JsonQueryMcpTools(
+                createQueryService(new QueryProperties(), compactProperties, compactCache));
+        for (String query : queries) {
+          String expected =
+              toMcpResponse(() -> tool.queryJson(context, path, query, null, null, null, null));
+          String actual =
+              toMcpResponse(
+                  () -> compactTool.queryJson(context, path, query, null, null, null, null));
+          assertEquals(expected, actual, query);
+        }
+        assertEquals(
+            objectMapper
+                .readTree(tool.queryJson(context, path, "$.store.items[*].name", 1, 2, null, null))
+                .get("items"),
+            objectMapper
+                .readTree(
+                    compactTool.queryJson(context, path, "$.store.items[*].name", 1, 2, null, null))
+                .get("items"));
+        assertEquals(
+            tool.queryJsonBatch(context, path, queries),
+            compactTool.queryJsonBatch(context, path, queries));
+        assertEquals(
+            tool.aggregateJson(context, path, "$.store.items[?(@.id > 1)]", "id", "name", null),
+            compactTool.aggregateJson(
+                context, path, "$.store.items[?(@.id > 1)]", "id", "name", null));
+        assertEquals(1, compactCache.stats().misses());
+        assertTrue(compactCache.stats().weightBytes() > 0);
+      }
+    } finally {
+      tempFile.delete();
+    }
+  }
+
   @Test
   void testQueryJsonInvalidExtension() {
-    String result = toMcpResponse(() -> tool.queryJson(context, "data.xml", "$.name"));
+    String result =
+        toMcpResponse(() -> tool.queryJson(context, "data.xml", "$.name", null, null, null, null));
     assertTrue(result.contains("Error [INVALID_FILE_EXTENSION]"));
     assertTrue(result.contains("File extension is invalid"));
   }
 
-  private String toMcpResponse(Supplier<String> supplier) {
+  private String toMcpResponse(Callable<String> supplier) {
     try {
-      return supplier.get();
+      return supplier.call();
     } catch (ServiceException e) {
       return "Error [" + e.getErrorType() + "]: " + e.getMessage();
     } catch (Exception e) {
@@ -1,20 +1,30 @@
 package io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.Test;
+import org.springaicommunity.mcp.context.McpAsyncRequestContext;
 import org.springaicommunity.mcp.context.McpSyncRequestContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Mono;
 
 @SpringBootTest
 class JsonSchemaMcpToolsIntegrationTest {
 
   @Autowired private JsonSchemaMcpTools jsonSchemaMcpTools;
+  @Autowired private JsonSchemaAsyncMcpTools jsonSchemaAsyncMcpTools;
+  @Autowired private MeterRegistry meterRegistry;
 
   @Test
   void testAopProxyWorking() {
@@ -25,4 +35,46 @@ class JsonSchemaMcpToolsIntegrationTest {
     assertNotNull(result);
     verify(context, atLeastOnce()).info(anyString());
   }
+
+  @Test
+  void testAsyncAopProxyWorking() {
+    McpAsyncRequestContext context = mock(McpAsyncRequestContext.class);
+    when(context.info(anyString())).thenReturn(Mono.empty());
+    when(context.error(anyString())).thenReturn(Mono.empty());
+
+    String valid = jsonSchemaAsyncMcpTools.validateJsonSchema(context, "{}", null).block();
+    String invalid = jsonSchemaAsyncMcpTools.validateJsonSchema(context, null, null).block();
+
+    assertEquals("JSON Schema is valid", valid);
+    assertNotNull(invalid);
+    assertTrue(invalid.startsWith("Error [INVALID_INPUT]"));
+    verify(context, atLeastOnce()).info(anyString());
+    verify(context).error(anyString());
+  }
+
+  @Test
+  void testToolInvocationsAreMeasured() {
+    McpSyncRequestContext context = mock(McpSyncRequestContext.class);
+
+    jsonSchemaMcpTools.validateJsonSchema(context, "{}", null);
+    jsonSchemaMcpTools.validateJsonSchema(context, null, null);
+
+    Timer success =
+        meterRegistry
+            .find("mcp.tool.invocations")
+            .tags("tool", "validate_json_schema", "outcome", "success")
+            .timer();
+    Counter errors =
+        meterRegistry
+            .find("mcp.tool.errors")
+            .tags("tool", "validate_json_schema", "error.type", "INVALID_INPUT")
+            .counter();
+    assertNotNull(success);
+    assertNotNull(errors);
+    assertTrue(success.count() >= 1);
+    assertTrue(errors.count() >= 1);
+    assertNotNull(
+        meterRegistry.find("mcp.document.cache.requests").tag("result", "miss").functionCounter());
+    assertNotNull(meterRegistry.find("mcp.document.cache.size").gauge());
+  }
 }
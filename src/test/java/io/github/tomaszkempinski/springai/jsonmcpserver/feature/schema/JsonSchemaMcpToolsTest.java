@@ -1,51 +1,84 @@
 package io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.networknt.schema.InputFormat;
 import com.networknt.schema.Schema;
 import com.networknt.schema.SchemaLocation;
 import com.networknt.schema.SchemaRegistry;
 import com.networknt.schema.dialect.Dialects;
 import com.saasquatch.jsonschemainferrer.JsonSchemaInferrer;
 import com.saasquatch.jsonschemainferrer.SpecVersion;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal.ChunkedSchemaReducer;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal.CompiledSchemaCache;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal.RecordSampler;
 import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal.SchemaGenerationServiceImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal.SchemaSources;
 import io.github.tomaszkempinski.springai.jsonmcpserver.feature.schema.internal.SchemaValidationServiceImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.SchemaProperties;
 import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.json.JsonMapper;
 import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.mcp.McpResponseFormatter;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ErrorType;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.DocumentCache;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.JsonDocumentService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.internal.DocumentCacheImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.internal.JsonDocumentServiceImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileIngestionService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
 import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileValidationService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.JsonLinesReader;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal.FileIngestionServiceImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal.JsonLinesReaderImpl;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.text.MessageFormat;
+import java.util.Map;
 import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springaicommunity.mcp.context.McpSyncRequestContext;
+import org.springframework.util.unit.DataSize;
 
 class JsonSchemaMcpToolsTest {
 
   private JsonSchemaMcpTools tool;
   private McpSyncRequestContext context;
   private McpResponseFormatter mcpResponseFormatter;
+  private ObjectMapper objectMapper;
+  private JsonSchemaInferrer inferrer;
+  private JsonMapper jsonMapper;
+  private FileValidationService fileValidationService;
+  private FileIngestionService fileIngestionService;
+  private CompiledSchemaCache compiledSchemaCache;
+  private DocumentCache documentCache;
+  private JsonDocumentService documentService;
+  private JsonLinesReader jsonLinesReader;
 
   @BeforeEach
   void setUp() {
-    ObjectMapper objectMapper = new ObjectMapper();
-    JsonSchemaInferrer inferrer =
-        JsonSchemaInferrer.newBuilder().setSpecVersion(SpecVersion.DRAFT_2020_12).build();
-    SchemaRegistry schemaRegistry = SchemaRegistry.withDialect(Dialects.getDraft202012());
+    objectMapper = new ObjectMapper();
+    inferrer = JsonSchemaInferrer.newBuilder().setSpecVersion(SpecVersion.DRAFT_2020_12).build();
+    SchemaSources schemaSources = new SchemaSources(new SchemaProperties());
+    SchemaRegistry schemaRegistry =
+        SchemaRegistry.withDialect(
+            Dialects.getDraft202012(),
+            builder -> builder.schemas(schemaSources).schemaCacheEnabled(false));
     Schema metaSchema =
         schemaRegistry.getSchema(SchemaLocation.of(Dialects.getDraft202012().getId()));
 
-    JsonMapper jsonMapper = new JsonMapper(objectMapper);
-    FileValidationService fileValidationService = mock(FileValidationService.class);
+    jsonMapper = new JsonMapper(objectMapper);
+    fileValidationService = mock(FileValidationService.class);
     mcpResponseFormatter = new McpResponseFormatter();
 
     when(fileValidationService.validateFileExists(anyString()))
@@ -59,18 +92,54 @@ class JsonSchemaMcpToolsTest {
                 throw new ServiceException(
                     ErrorType.INVALID_FILE_EXTENSION, "File extension is invalid");
               }
-              return Paths.get(path);
+              return FileMetadata.of(Paths.get(path));
             });
 
+    fileIngestionService = new FileIngestionServiceImpl(new FileProperties());
+    FileProperties jsonLinesProperties = new FileProperties();
+    jsonLinesProperties.getJsonLines().setChunkSize(DataSize.ofBytes(64));
+    jsonLinesReader = new JsonLinesReaderImpl(jsonLinesProperties);
+    compiledSchemaCache =
+        new CompiledSchemaCache(() -> schemaRegistry, schemaSources, new SchemaProperties());
+    documentCache = new DocumentCacheImpl(new FileProperties());
+    documentService =
+        new JsonDocumentServiceImpl(
+            documentCache,
+            fileIngestionService,
+            jsonLinesReader,
+            objectMapper,
+            new FileProperties());
+
     SchemaGenerationService schemaGenerationService =
-        new SchemaGenerationServiceImpl(inferrer, objectMapper, jsonMapper, fileValidationService);
+        createGenerationService(new SchemaProperties());
     SchemaValidationService schemaValidationService =
-        new SchemaValidationServiceImpl(metaSchema, fileValidationService);
+        new SchemaValidationServiceImpl(
+            () -> metaSchema,
+            fileValidationService,
+            fileIngestionService,
+            compiledSchemaCache,
+            jsonLinesReader,
+            objectMapper,
+            new SchemaProperties());
 
     tool = new JsonSchemaMcpTools(schemaGenerationService, schemaValidationService);
     context = mock(McpSyncRequestContext.class);
   }
 
+  private SchemaGenerationService createGenerationService(SchemaProperties schemaProperties) {
+    return new SchemaGenerationServiceImpl(
+        () -> inferrer,
+        objectMapper,
+        jsonMapper,
+        fileValidationService,
+        fileIngestionService,
+        new RecordSampler(objectMapper),
+        new ChunkedSchemaReducer(objectMapper, schemaProperties, jsonLinesReader),
+        schemaProperties,
+        jsonLinesReader,
+        documentService);
+  }
+
   @Test
   void testGenerateJsonSchema() throws IOException {
     File tempFile = File.createTempFile("test", ".json");
@@ -79,7 +148,7 @@ class JsonSchemaMcpToolsTest {
 
     try {
       String schema =
-          toMcpResponse(() -> tool.generateJsonSchema(context, tempFile.getAbsolutePath()));
+          toMcpResponse(() -> tool.generateJsonSchema(context, tempFile.getAbsolutePath(), null));
       System.out.println("Generated Schema:\n" + schema);
       assertTrue(schema.contains("\"type\" : \"object\""));
       assertTrue(schema.contains("\"name\""));
@@ -90,16 +159,123 @@ class JsonSchemaMcpToolsTest {
     }
   }
 
+  @Test
+  void testGenerateJsonSchemaFromSample() throws IOException {
+    File tempFile = File.createTempFile("test_sample", ".json");
+    StringBuilder content = new StringBuilder("[");
+    for (int i = 0; i < 500; i++) {
+      content.append(i == 0 ? "" : ",").append("{\"id\": ").append(i).append("}");
+    }
+    Files.writeString(tempFile.toPath(), content.append("]").toString());
+
+    try {
+      String schema =
+          toMcpResponse(() -> tool.generateJsonSchema(context, tempFile.getAbsolutePath(), 20));
+      assertTrue(schema.contains("\"type\" : \"array\""));
+      assertTrue(schema.contains("\"id\""));
+      assertTrue(schema.contains("sample of 20 out of 500 array items"));
+    } finally {
+      tempFile.delete();
+    }
+  }
+
+  @Test
+  void testParallelSchemaGenerationMatchesSequential() throws IOException {
+    File tempFile = File.createTempFile("test_parallel", ".json");
+    String[] records = {
+      "{\"id\": %d, \"name\": \"n%<d\"}",
+      "{\"name\": null, \"id\": %d.0}",
+      "{\"id\": %d.5, \"tags\": [\"a\", 1, null]}",
+      "{\"id\": \"x%d\", \"meta\": {\"ok\": true}}",
+      "{\"tags\": [[1, 2], {\"k\": %d}]}"
+    };
+    StringBuilder content = new StringBuilder("[");
+    for (int i = 0; i < 250; i++) {
+      content.append(records[i % records.length].formatted(i)).append(",");
+    }
+    Files.writeString(tempFile.toPath(), content.append("7, null]").toString());
+
+    SchemaProperties sequential = new SchemaProperties();
+    sequential.getParallel().setEnabled(false);
+    SchemaProperties parallel = new SchemaProperties();
+    parallel.getParallel().setThreshold(DataSize.ofBytes(0));
+    parallel.getParallel().setChunkSize(7);
+    parallel.getParallel().setParallelism(4);
+
+    try {
+      String expected =
+          createGenerationService(sequential).generateSchema(tempFile.getAbsolutePath(), null);
+      String actual =
+          createGenerationService(parallel).generateSchema(tempFile.getAbsolutePath(), null);
+      assertEquals(expected, actual);
+    } finally {
+      tempFile.delete();
+    }
+  }
+
+  @Test
+  void testJsonLinesSchemaGenerationAndValidation() throws IOException {
+    File document = File.createTempFile("events", ".jsonl");
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < 40; i++) {
+      content.append("{\"id\": ").append(i == 7 ? -1 : i).append(", \"type\": \"click\"");
+      if (i % 5 == 0) {
+        content.append(", \"score\": ").append(i / 3.0);
+      }
+      content.append("}\n");
+      if (i % 9 == 0) {
+        content.append("\n");
+      }
+    }
+    Files.writeString(document.toPath(), content.toString());
+
+    SchemaProperties parallel = new SchemaProperties();
+    parallel.getParallel().setThreshold(DataSize.ofBytes(0));
+    SchemaProperties sequential = new SchemaProperties();
+    sequential.getParallel().setEnabled(false);
+
+    try {
+      String path = document.getAbsolutePath();
+      String expected = createGenerationService(sequential).generateSchema(path, null);
+      String actual = createGenerationService(parallel).generateSchema(path, null);
+      assertEquals(objectMapper.readTree(expected), objectMapper.readTree(actual));
+      assertTrue(objectMapper.readTree(actual).has("properties"));
+
+      String valid =
+          toMcpResponse(
+              () ->
+                  tool.validateJsonDocument(
+                      context, path, "{\"required\": [\"id\"]}", null, null, null));
+      assertTrue(valid.contains("JSON document is valid"));
+
+      String invalid =
+          toMcpResponse(
+              () ->
+                  tool.validateJsonDocument(
+                      context,
+                      path,
+                      "{\"properties\": {\"id\": {\"minimum\": 0}}}",
+                      null,
+                      null,
+                      null));
+      assertTrue(invalid.contains("Error [VALIDATION_ERROR]"));
+      assertTrue(invalid.contains("$[7].id"), invalid);
+    } finally {
+      document.delete();
+    }
+  }
+
   @Test
   void testGenerateJsonSchemaFileNotFound() {
-    String result = toMcpResponse(() -> tool.generateJsonSchema(context, "non_existent_file.json"));
+    String result =
+        toMcpResponse(() -> tool.generateJsonSchema(context, "non_existent_file.json", null));
     assertTrue(result.contains("Error [FILE_NOT_FOUND]"));
     assertTrue(result.contains("File does not exist"));
   }
 
   @Test
   void testGenerateJsonSchemaInvalidExtension() {
-    String result = toMcpResponse(() -> tool.generateJsonSchema(context, "test.txt"));
+    String result = toMcpResponse(() -> tool.generateJsonSchema(context, "test.txt", null));
     assertTrue(result.contains("Error [INVALID_FILE_EXTENSION]"));
     assertTrue(result.contains("File extension is invalid"));
   }
@@ -170,12 +346,202 @@ class JsonSchemaMcpToolsTest {
     assertTrue(result.contains("Reading or parsing JSON schema"));
   }
 
+  @Test
+  void testValidateJsonDocument() throws IOException {
+    File document = File.createTempFile("document", ".json");
+    File schemaFile = File.createTempFile("schema", ".json");
+    Files.writeString(document.toPath(), "{\"name\": \"test\", \"age\": -1}");
+    Files.writeString(
+        schemaFile.toPath(), "{\"type\": \"object\", \"properties\": {\"age\": {\"minimum\": 0}}}");
+
+    try {
+      String inline =
+          toMcpResponse(
+              () ->
+                  tool.validateJsonDocument(
+                      context,
+                      document.getAbsolutePath(),
+                      "{\"required\": [\"name\"]}",
+                      null,
+                      null,
+                      null));
+      assertTrue(inline.contains("JSON document is valid"));
+
+      String fromFile =
+          toMcpResponse(
+              () ->
+                  tool.validateJsonDocument(
+                      context,
+                      document.getAbsolutePath(),
+                      null,
+                      schemaFile.getAbsolutePath(),
+                      null,
+                      null));
+      assertTrue(fromFile.contains("Error [VALIDATION_ERROR]"));
+      assertTrue(fromFile.contains("age"));
+    } finally {
+      document.delete();
+      schemaFile.delete();
+    }
+  }
+
+  @Test
+  void testValidationReadsItsOwnTreeWithTheLastDuplicateKey() throws IOException {
+    File document = File.createTempFile("document", ".json");
+    Files.writeString(document.toPath(), "{\"name\": \"test\", \"age\": \"old\", \"age\": 30}");
+    String schema = "{\"type\": \"object\", \"properties\": {\"age\": {\"type\": \"integer\"}}}";
+
+    try {
+      String result =
+          toMcpResponse(
+              () ->
+                  tool.validateJsonDocument(
+                      context, document.getAbsolutePath(), schema, null, null, null));
+      assertTrue(result.contains("JSON document is valid"), result);
+      assertEquals(0, documentCache.stats().misses());
+      assertEquals(0, documentCache.stats().hits());
+    } finally {
+      document.delete();
+    }
+  }
+
+  @Test
+  void testValidationModesBoundTheReportedErrors() throws IOException {
+    File document = File.createTempFile("document", ".json");
+    File records = File.createTempFile("records", ".jsonl");
+    StringBuilder array = new StringBuilder("[");
+    StringBuilder lines = new StringBuilder();
+    for (int i = 0; i < 250; i++) {
+      String item = "{\"id\": -%d, \"name\": \"item\"}".formatted(i + 1);
+      array.append(i > 0 ? "," : "").append(item);
+      lines.append(item).append('\n');
+    }
+    Files.writeString(document.toPath(), array.append("]").toString());
+    Files.writeString(records.toPath(), lines.toString());
+    String recordSchema = "{\"properties\": {\"id\": {\"minimum\": 0}}}";
+    Map<File, String> schemas =
+        Map.of(document, "{\"items\": " + recordSchema + "}", records, recordSchema);
+
+    try {
+      for (Map.Entry<File, String> entry : schemas.entrySet()) {
+        String path = entry.getKey().getAbsolutePath();
+        String schema = entry.getValue();
+        // records are located as JSON paths, documents as the validator's JSON pointers
+        String first = entry.getKey() == records ? "$[0].id" : "/0/id";
+        String third = entry.getKey() == records ? "$[2].id" : "/2/id";
+        String capped =
+            toMcpResponse(() -> tool.validateJsonDocument(context, path, schema, null, null, 3));
+        assertEquals(4, capped.lines().count(), capped);
+        assertTrue(capped.contains(first), capped);
+        assertTrue(capped.contains(third), capped);
+        assertTrue(capped.endsWith("... 247 more errors (250 in total)"), capped);
+
+        String failFast =
+            toMcpResponse(
+                () -> tool.validateJsonDocument(context, path, schema, null, "fail_fast", null));
+        assertEquals(1, failFast.lines().count(), failFast);
+        assertTrue(failFast.contains(first), failFast);
+
+        String summary =
+            toMcpResponse(
+                () -> tool.validateJsonDocument(context, path, schema, null, "summary", null));
+        assertTrue(
+            summary.startsWith("Error [VALIDATION_ERROR]: 250 x minimum at $[*].id"), summary);
+      }
+
+      String lastRecords =
+          toMcpResponse(
+              () ->
+                  tool.validateJsonDocument(
+                      context,
+                      records.getAbsolutePath(),
+                      "{\"properties\": {\"id\": {\"minimum\": -2}}}",
+                      null,
+                      "capped",
+                      1));
+      assertTrue(lastRecords.contains("$[2].id"), lastRecords);
+      assertTrue(lastRecords.endsWith("(248 in total)"), lastRecords);
+
+      String unknown =
+          toMcpResponse(
+              () ->
+                  tool.validateJsonDocument(
+                      context, records.getAbsolutePath(), recordSchema, null, "all", null));
+      assertTrue(unknown.startsWith("Error [INVALID_INPUT]"), unknown);
+    } finally {
+      document.delete();
+      records.delete();
+    }
+  }
+
+  @Test
+  void testValidateJsonDocumentInvalidSchema() throws IOException {
+    File document = File.createTempFile("document", ".json");
+    Files.writeString(document.toPath(), "{}");
+
+    try {
+      String result =
+          toMcpResponse(
+              () ->
+                  tool.validateJsonDocument(
+                      context, document.getAbsolutePath(), "{\"type\": 123}", null, null, null));
+      assertTrue(result.contains("Error [VALIDATION_ERROR]"));
+    } finally {
+      document.delete();
+    }
+  }
+
+  @Test
+  void testCompiledSchemaIsReused() throws IOException {
+    String schema = "{\"type\": \"object\"}";
+    assertSame(
+        compiledSchemaCache.get(schema, content -> {}),
+        compiledSchemaCache.get(schema, content -> {}));
+
+    File schemaFile = File.createTempFile("schema", ".json");
+    Files.writeString(schemaFile.toPath(), schema);
+    try {
+      FileMetadata metadata = FileMetadata.of(schemaFile.toPath());
+      assertSame(
+          compiledSchemaCache.get(schema, content -> {}),
+          compiledSchemaCache.get(
+              metadata,
+              () -> schema,
+              content -> {
+                throw new AssertionError("Schema compiled twice");
+              }));
+    } finally {
+      schemaFile.delete();
+    }
+  }
+
+  @Test
+  void testCompiledSchemasAreBounded() {
+    SchemaProperties properties = new SchemaProperties();
+    properties.setCompiledSchemaCacheSize(1);
+    SchemaSources schemaSources = new SchemaSources(properties);
+    SchemaRegistry schemaRegistry =
+        SchemaRegistry.withDialect(
+            Dialects.getDraft202012(),
+            builder -> builder.schemas(schemaSources).schemaCacheEnabled(false));
+    CompiledSchemaCache cache =
+        new CompiledSchemaCache(() -> schemaRegistry, schemaSources, properties);
+
+    String referencing =
+        "{\"$defs\": {\"id\": {\"type\": \"integer\"}}, \"properties\": {\"id\": {\"$ref\": \"#/$defs/id\"}}}";
+    Schema first = cache.get(referencing, content -> {});
+    assertSame(first, cache.get(referencing, content -> {}));
+
+    cache.get("{\"type\": \"object\"}", content -> {});
+    assertEquals(1, first.validate("{\"id\": \"x\"}", InputFormat.JSON).size());
+    assertNotSame(first, cache.get(referencing, content -> {}));
+  }
+
   private String toMcpResponse(Supplier<String> supplier) {
     try {
       return supplier.get();
     } catch (JsonValidationException e) {
-      return "Error [VALIDATION_ERROR]: "
-          + mcpResponseFormatter.formatValidationErrors(e.getErrors());
+      return "Error [VALIDATION_ERROR]: " + mcpResponseFormatter.formatValidationErrors(e);
     } catch (ServiceException e) {
       String message = MessageFormat.format(e.getErrorType().getMessagePattern(), e.getArgs());
       return "Error [" + e.getErrorType() + "]: " + message;
@@ -0,0 +1,227 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.mcp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.ExecutionProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ErrorType;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.RequestBudget;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.ServiceException;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileValidationService;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal.FileValidationServiceImpl;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal.WatchingFileStateRegistry;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class McpToolExecutorTest {
+
+  private static final String[] PARAMETER_NAMES = {"context", "absolutePath", "query"};
+
+  private FileValidationService fileValidationService;
+  private McpToolExecutor executor;
+  private File tempFile;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    FileProperties fileProperties = new FileProperties();
+    fileValidationService =
+        new FileValidationServiceImpl(
+            fileProperties, new WatchingFileStateRegistry(fileProperties, _ -> {}));
+    executor = new McpToolExecutor(new ExecutionProperties(), fileValidationService);
+    tempFile = File.createTempFile("test", ".json");
+    Files.writeString(tempFile.toPath(), "{\"a\": 1}");
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+    tempFile.delete();
+  }
+
+  @Test
+  void testToolBodyRunsOnVirtualThread() throws Throwable {
+    Object[] args = {null, tempFile.getAbsolutePath(), "$.a"};
+
+    Object virtual =
+        executor.execute(
+            "query_json", PARAMETER_NAMES, args, () -> Thread.currentThread().isVirtual());
+
+    assertEquals(true, virtual);
+  }
+
+  @Test
+  void testConcurrentIdenticalCallsAreCoalesced() throws Exception {
+    Object[] args = {null, tempFile.getAbsolutePath(), "$.a"};
+    AtomicInteger invocations = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch followed = new CountDownLatch(1);
+    executor.onFollow(followed::countDown);
+    McpToolExecutor.ToolCall call =
+        () -> {
+          invocations.incrementAndGet();
+          started.countDown();
+          release.await();
+          return "result";
+        };
+
+    CompletableFuture<Object> first = CompletableFuture.supplyAsync(() -> execute(args, call));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    CompletableFuture<Object> second = CompletableFuture.supplyAsync(() -> execute(args, call));
+    Object[] otherQuery = {null, tempFile.getAbsolutePath(), "$.b"};
+    Object third = execute(otherQuery, () -> "other");
+    assertTrue(followed.await(5, TimeUnit.SECONDS));
+    release.countDown();
+
+    assertEquals("result", first.get(5, TimeUnit.SECONDS));
+    assertEquals("result", second.get(5, TimeUnit.SECONDS));
+    assertEquals("other", third);
+    assertEquals(1, invocations.get());
+  }
+
+  @Test
+  void testWaitingCallRunsAgainWhenTheLeadingCallIsCancelled() throws Exception {
+    Object[] args = {null, tempFile.getAbsolutePath(), "$.a"};
+    AtomicInteger invocations = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch followed = new CountDownLatch(1);
+    executor.onFollow(followed::countDown);
+    McpToolExecutor.ToolCall call =
+        () -> {
+          if (invocations.incrementAndGet() == 1) {
+            started.countDown();
+            while (true) {
+              RequestBudget.checkpoint();
+            }
+          }
+          return "result";
+        };
+    CompletableFuture<Throwable> first = new CompletableFuture<>();
+    Thread leader =
+        Thread.ofPlatform()
+            .start(
+                () -> {
+                  try {
+                    executor.execute("query_json", PARAMETER_NAMES, args, call);
+                  } catch (Throwable t) {
+                    first.complete(t);
+                  }
+                });
+
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    CompletableFuture<Object> second = CompletableFuture.supplyAsync(() -> execute(args, call));
+    assertTrue(followed.await(5, TimeUnit.SECONDS));
+    leader.interrupt();
+
+    assertEquals("result", second.get(5, TimeUnit.SECONDS));
+    ServiceException aborted = (ServiceException) first.get(5, TimeUnit.SECONDS);
+    assertEquals(ErrorType.REQUEST_ABORTED, aborted.getErrorType());
+    assertEquals(2, invocations.get());
+  }
+
+  @Test
+  void testCallOverItsTimeBudgetIsAbortedAndStopped() throws Throwable {
+    ExecutionProperties properties = new ExecutionProperties();
+    properties
+        .getToolBudgets()
+        .put("query_json", new ExecutionProperties.Budget(Duration.ofMillis(200), null));
+    McpToolExecutor budgeted = new McpToolExecutor(properties, fileValidationService);
+    Object[] args = {null, tempFile.getAbsolutePath(), "$..*"};
+    CountDownLatch stopped = new CountDownLatch(1);
+
+    try {
+      ServiceException aborted =
+          assertThrows(
+              ServiceException.class,
+              () ->
+                  budgeted.execute(
+                      "query_json",
+                      PARAMETER_NAMES,
+                      args,
+                      () -> {
+                        try {
+                          while (true) {
+                            RequestBudget.checkpoint();
+                          }
+                        } finally {
+                          stopped.countDown();
+                        }
+                      }));
+
+      assertEquals(ErrorType.REQUEST_ABORTED, aborted.getErrorType());
+      assertTrue(aborted.getMessage().contains("time budget"), aborted.getMessage());
+      assertTrue(stopped.await(5, TimeUnit.SECONDS));
+      assertEquals(
+          "done", budgeted.execute("validate_json_schema", PARAMETER_NAMES, args, () -> "done"));
+    } finally {
+      budgeted.shutdown();
+    }
+  }
+
+  @Test
+  void testAllocationBudgetIsEnforcedForCallsFromVirtualThreads() throws Exception {
+    ExecutionProperties properties = new ExecutionProperties();
+    properties
+        .getToolBudgets()
+        .put("query_json", new ExecutionProperties.Budget(null, DataSize.ofMegabytes(1)));
+    McpToolExecutor budgeted = new McpToolExecutor(properties, fileValidationService);
+    Object[] args = {null, tempFile.getAbsolutePath(), "$..*"};
+    CompletableFuture<Throwable> failure = new CompletableFuture<>();
+
+    try {
+      Thread.ofVirtual()
+          .start(
+              () -> {
+                try {
+                  budgeted.execute(
+                      "query_json",
+                      PARAMETER_NAMES,
+                      args,
+                      () -> {
+                        assertFalse(Thread.currentThread().isVirtual());
+                        List<byte[]> retained = new ArrayList<>();
+                        for (int i = 0; i < 64 * 1024; i++) {
+                          retained.add(new byte[1024]);
+                          RequestBudget.checkpoint();
+                        }
+                        return retained.size();
+                      });
+                  failure.complete(null);
+                } catch (Throwable t) {
+                  failure.complete(t);
+                }
+              });
+
+      ServiceException aborted =
+          assertInstanceOf(ServiceException.class, failure.get(5, TimeUnit.SECONDS));
+      assertEquals(ErrorType.REQUEST_ABORTED, aborted.getErrorType());
+      assertTrue(aborted.getMessage().contains("allocation budget"), aborted.getMessage());
+    } finally {
+      budgeted.shutdown();
+    }
+  }
+
+  private Object execute(Object[] args, McpToolExecutor.ToolCall call) {
+    try {
+      return executor.execute("query_json", PARAMETER_NAMES, args, call);
+    } catch (Throwable t) {
+      throw new IllegalStateException(t);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.document.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class DocumentCacheImplTest {
+
+  private final DocumentCacheImpl cache = new DocumentCacheImpl(new FileProperties());
+  private final FileMetadata metadata =
+      new FileMetadata(Path.of("/data/document.json"), 2, FileTime.fromMillis(0));
+
+  @Test
+  void testConcurrentMissesLoadOnce() throws Exception {
+    JsonNode document = JsonNodeFactory.instance.arrayNode();
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch loading = new CountDownLatch(1);
+    CompletableFuture<Void> release = new CompletableFuture<>();
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+      Future<Object> first =
+          executor.submit(
+              () ->
+                  cache.get(
+                      metadata,
+                      _ -> {
+                        loads.incrementAndGet();
+                        loading.countDown();
+                        release.join();
+                        return document;
+                      }));
+      assertTrue(loading.await(10, TimeUnit.SECONDS));
+      Future<Object> second =
+          executor.submit(
+              () ->
+                  cache.get(
+                      metadata,
+                      _ -> {
+                        loads.incrementAndGet();
+                        return JsonNodeFactory.instance.arrayNode();
+                      }));
+      Thread.sleep(100);
+      release.complete(null);
+
+      assertSame(document, first.get(10, TimeUnit.SECONDS));
+      assertSame(document, second.get(10, TimeUnit.SECONDS));
+    }
+    assertEquals(1, loads.get());
+    assertEquals(1, cache.stats().misses());
+    assertEquals(1, cache.stats().hits());
+  }
+}
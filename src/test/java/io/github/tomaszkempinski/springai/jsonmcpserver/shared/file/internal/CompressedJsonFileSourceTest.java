@@ -0,0 +1,109 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class CompressedJsonFileSourceTest {
+
+  private final ForkJoinPool pool = new ForkJoinPool(2);
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  void testStreamsAtAnOffsetMatchTheContent() throws IOException {
+    StringBuilder records = new StringBuilder("[");
+    for (int i = 0; i < 300; i++) {
+      records.append(i > 0 ? "," : "").append("{\"id\": ").append(i).append('}');
+    }
+    byte[] content = records.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    byte[] half = Arrays.copyOf(content, content.length / 2);
+    byte[] rest = Arrays.copyOfRange(content, content.length / 2, content.length);
+    Map<String, byte[]> files =
+        Map.of(
+            "members", concat(gzip(half), gzip(rest)),
+            "blocks", bgzip(content, 256),
+            "mixed", concat(bgzip(half, 256), gzip(rest)));
+
+    for (Map.Entry<String, byte[]> file : files.entrySet()) {
+      CompressedJsonFileSource source = source(file.getKey(), file.getValue());
+      for (long offset :
+          List.of(0L, 1L, 255L, 256L, 1000L, content.length - 1L, (long) content.length)) {
+        byte[] read;
+        try (InputStream in = source.openStream(offset, 300)) {
+          read = in.readAllBytes();
+        }
+        int from = (int) Math.min(offset, content.length);
+        assertArrayEquals(
+            Arrays.copyOfRange(content, from, Math.min(from + 300, content.length)),
+            read,
+            file.getKey() + " at " + offset);
+      }
+    }
+  }
+
+  private CompressedJsonFileSource source(String name, byte[] compressed) {
+    FileMetadata metadata =
+        new FileMetadata(Path.of(name + ".json.gz"), compressed.length, FileTime.fromMillis(0));
+    return new CompressedJsonFileSource(new HeapJsonFileSource(metadata, compressed), pool, 600);
+  }
+
+  private static byte[] gzip(byte[] content) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(content);
+    }
+    return bytes.toByteArray();
+  }
+
+  /** Compresses like bgzip: gzip members of at most blockSize input bytes with a BC extra field. */
+  private static byte[] bgzip(byte[] content, int blockSize) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    for (int start = 0; start < content.length; start += blockSize) {
+      int length = Math.min(blockSize, content.length - start);
+      Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+      deflater.setInput(content, start, length);
+      deflater.finish();
+      byte[] deflated = new byte[2 * blockSize + 64];
+      int deflatedLength = deflater.deflate(deflated);
+      deflater.end();
+      CRC32 crc = new CRC32();
+      crc.update(content, start, length);
+      ByteBuffer member =
+          ByteBuffer.allocate(18 + deflatedLength + 8).order(ByteOrder.LITTLE_ENDIAN);
+      member.put(new byte[] {0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff});
+      member.putShort((short) 6).put((byte) 'B').put((byte) 'C').putShort((short) 2);
+      member.putShort((short) (member.capacity() - 1));
+      member.put(deflated, 0, deflatedLength);
+      member.putInt((int) crc.getValue()).putInt(length);
+      bytes.writeBytes(member.array());
+    }
+    return bytes.toByteArray();
+  }
+
+  private static byte[] concat(byte[] first, byte[] second) {
+    byte[] result = Arrays.copyOf(first, first.length + second.length);
+    System.arraycopy(second, 0, result, first.length, second.length);
+    return result;
+  }
+}
@@ -0,0 +1,89 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class JsonLinesReaderImplTest {
+
+  private static final int RECORDS = 64;
+
+  private JsonLinesReaderImpl reader;
+  private HeapJsonFileSource source;
+
+  @BeforeEach
+  void setUp() {
+    FileProperties fileProperties = new FileProperties();
+    fileProperties.getJsonLines().setChunkSize(DataSize.ofBytes(1));
+    fileProperties.getJsonLines().setParallelism(1);
+    reader = new JsonLinesReaderImpl(fileProperties);
+
+    StringBuilder lines = new StringBuilder();
+    for (int i = 0; i < RECORDS; i++) {
+      lines.append(i).append('\n');
+    }
+    byte[] content = lines.toString().getBytes(StandardCharsets.UTF_8);
+    source =
+        new HeapJsonFileSource(
+            new FileMetadata(Path.of("records.jsonl"), content.length, FileTime.fromMillis(0)),
+            content);
+  }
+
+  @AfterEach
+  void tearDown() {
+    reader.shutdown();
+  }
+
+  @Test
+  void testOrderedChunksReleaseTheirResults() throws IOException {
+    List<WeakReference<Object>> released = new ArrayList<>();
+    List<Integer> order = new ArrayList<>();
+    reader.forEachChunk(
+        source,
+        chunk -> new ChunkResult(Integer.parseInt(chunk.readRecords().getFirst())),
+        true,
+        result -> {
+          order.add(result.record());
+          released.add(new WeakReference<>(result));
+          if (released.size() == RECORDS) {
+            assertTrue(
+                awaitCleared(released.subList(0, RECORDS / 2)),
+                "Results of consumed chunks are still reachable");
+          }
+        });
+
+    assertEquals(RECORDS, order.size());
+    for (int i = 0; i < RECORDS; i++) {
+      assertEquals(i, order.get(i));
+    }
+  }
+
+  private static boolean awaitCleared(List<WeakReference<Object>> references) {
+    for (int attempt = 0; attempt < 20; attempt++) {
+      System.gc();
+      if (references.stream().allMatch(reference -> reference.get() == null)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private record ChunkResult(int record, byte[] payload) {
+    private ChunkResult(int record) {
+      this(record, new byte[64 * 1024]);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.tomaszkempinski.springai.jsonmcpserver.infrastructure.config.FileProperties;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileChangedEvent;
+import io.github.tomaszkempinski.springai.jsonmcpserver.shared.file.FileMetadata;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WatchingFileStateRegistryTest {
+
+  @TempDir Path root;
+
+  private final List<FileChangedEvent> events = new CopyOnWriteArrayList<>();
+  private WatchingFileStateRegistry registry;
+  private FileValidationServiceImpl fileValidationService;
+  private Path existing;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    existing = Files.writeString(root.resolve("existing.json"), "{\"a\": 1}");
+    Files.writeString(root.resolve("notes.txt"), "ignored");
+
+    FileProperties fileProperties = new FileProperties();
+    fileProperties.getWatch().setRoots(List.of(root.toString()));
+    registry =
+        new WatchingFileStateRegistry(
+            fileProperties,
+            event -> {
+              FileChangedEvent changed = (FileChangedEvent) event;
+              if (changed.path().getFileName().toString().startsWith("failing")) {
+                throw new IllegalStateException("listener failed");
+              }
+              events.add(changed);
+            });
+    registry.start();
+    fileValidationService = new FileValidationServiceImpl(fileProperties, registry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    registry.stop();
+  }
+
+  @Test
+  void testInitialScanIsServedFromMemory() throws IOException {
+    assertTrue(registry.isWatched(existing));
+    assertTrue(registry.lookup(existing).orElseThrow().isSameVersion(FileMetadata.of(existing)));
+    assertTrue(registry.lookup(root.resolve("notes.txt")).isEmpty());
+    assertFalse(registry.isWatched(root.getParent().resolve("elsewhere.json")));
+  }
+
+  @Test
+  void testChangesAreTracked() throws Exception {
+    Path created = Files.writeString(root.resolve("created.json"), "[]");
+    awaitTrue(() -> registry.lookup(created).isPresent());
+
+    long rewrittenSize = Files.writeString(existing, "{\"a\": 1, \"b\": 2}").toFile().length();
+    Files.setLastModifiedTime(existing, FileTime.from(Instant.now().plusSeconds(60)));
+    awaitTrue(() -> registry.lookup(existing).orElseThrow().size() == rewrittenSize);
+
+    Files.delete(created);
+    awaitTrue(() -> registry.lookup(created).isEmpty());
+
+    assertTrue(events.stream().anyMatch(e -> e.path().equals(existing) && !e.isDeleted()));
+    assertEquals(1, events.stream().filter(e -> e.path().equals(created) && e.isDeleted()).count());
+  }
+
+  @Test
+  void testFailingListenersDoNotStopTheWatcher() throws Exception {
+    Path failing = Files.writeString(root.resolve("failing.json"), "[]");
+    awaitTrue(() -> registry.lookup(failing).isPresent());
+
+    Path created = Files.writeString(root.resolve("created.json"), "[]");
+    awaitTrue(() -> registry.lookup(created).isPresent());
+    assertTrue(registry.isWatched(created));
+  }
+
+  @Test
+  void testFilesNotYetReportedAreReadFromDisk() throws IOException {
+    // written under a name the registry ignores, then renamed, as editors save files
+    Path staged = Files.writeString(root.resolve("unreported.tmp"), "[1]");
+    Path created =
+        Files.move(staged, root.resolve("unreported.json"), StandardCopyOption.ATOMIC_MOVE);
+
+    FileMetadata metadata = fileValidationService.validateFileExists(created.toString());
+
+    assertTrue(metadata.isSameVersion(FileMetadata.of(created)));
+    assertTrue(fileValidationService.lookup(created.toString()).isPresent());
+  }
+
+  private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+    // polling WatchService implementations may take a few seconds to report changes
+    long deadline = System.nanoTime() + 30_000_000_000L;
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+      Thread.sleep(50);
+    }
+  }
+}